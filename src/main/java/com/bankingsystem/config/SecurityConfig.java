@@ -2,6 +2,7 @@ package com.bankingsystem.config;
 
 import com.bankingsystem.security.CustomUserDetailsService;
 import com.bankingsystem.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -63,6 +64,9 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
+                // Async results are dispatched without the token; the request was authorized already
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Public endpoints (context path is already stripped)
                 .requestMatchers("/auth/**").permitAll()
                 .requestMatchers("/public/**").permitAll()
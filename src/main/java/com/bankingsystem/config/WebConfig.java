@@ -0,0 +1,31 @@
+package com.bankingsystem.config;
+
+import com.bankingsystem.security.CurrentUser;
+import com.bankingsystem.security.CurrentUserArgumentResolver;
+import org.springdoc.core.utils.SpringDocUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Web MVC configuration for the banking system.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    static {
+        // @CurrentUser parameters come from the security context, not from the request
+        SpringDocUtils.getConfig().addAnnotationsToIgnore(CurrentUser.class);
+    }
+
+    @Autowired
+    private CurrentUserArgumentResolver currentUserArgumentResolver;
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentUserArgumentResolver);
+    }
+}
@@ -1,9 +1,11 @@
 package com.bankingsystem.controller;
 
 import com.bankingsystem.dto.request.AccountCreationRequest;
+import com.bankingsystem.dto.response.AccountEntriesResponse;
 import com.bankingsystem.dto.response.AccountResponse;
+import com.bankingsystem.security.CurrentUser;
+import com.bankingsystem.service.AccountEntryService;
 import com.bankingsystem.service.AccountService;
-import com.bankingsystem.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -13,8 +15,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -30,13 +30,12 @@ import java.util.List;
 public class AccountController {
 
     private final AccountService accountService;
-    private final UserService userService;
+    private final AccountEntryService accountEntryService;
 
     @PostMapping
     @Operation(summary = "Create a new account", description = "Create a new bank account for the authenticated user")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'MANAGER', 'TELLER')")
-    public ResponseEntity<AccountResponse> createAccount(@Valid @RequestBody AccountCreationRequest request) {
-        Long userId = getCurrentUserId();
+    public ResponseEntity<AccountResponse> createAccount(@Valid @RequestBody AccountCreationRequest request, @CurrentUser Long userId) {
         AccountResponse response = accountService.createAccount(userId, request);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
@@ -44,8 +43,7 @@ public class AccountController {
     @GetMapping
     @Operation(summary = "Get user accounts", description = "Retrieve all accounts for the authenticated user")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'MANAGER', 'TELLER')")
-    public ResponseEntity<List<AccountResponse>> getUserAccounts() {
-        Long userId = getCurrentUserId();
+    public ResponseEntity<List<AccountResponse>> getUserAccounts(@CurrentUser Long userId) {
         List<AccountResponse> accounts = accountService.getAccountsByUserId(userId);
         return ResponseEntity.ok(accounts);
     }
@@ -68,6 +66,17 @@ public class AccountController {
         return ResponseEntity.ok(account);
     }
 
+    @GetMapping("/{accountId}/entries")
+    @Operation(summary = "Sync account entries", description = "Ledger entries posted after sinceSeq, oldest first; pass lastSeq as the next sinceSeq until hasMore is false")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'MANAGER', 'TELLER')")
+    public ResponseEntity<AccountEntriesResponse> getAccountEntries(
+            @Parameter(description = "Account ID") @PathVariable Long accountId,
+            @Parameter(description = "Last entry sequence the client already has") @RequestParam(defaultValue = "0") long sinceSeq,
+            @Parameter(description = "Maximum entries to return (max 500)") @RequestParam(defaultValue = "200") int limit) {
+        AccountEntriesResponse entries = accountEntryService.getEntriesSince(accountId, sinceSeq, limit);
+        return ResponseEntity.ok(entries);
+    }
+
     @PutMapping("/{accountId}/freeze")
     @Operation(summary = "Freeze account", description = "Freeze the specified account")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TELLER')")
@@ -94,10 +103,4 @@ public class AccountController {
         accountService.closeAccount(accountId);
         return ResponseEntity.noContent().build();
     }
-
-    private Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userService.getUserByUsername(username).getId();
-    }
 }
@@ -4,19 +4,20 @@ import com.bankingsystem.dto.request.CardCreationRequest;
 import com.bankingsystem.dto.request.CardTransactionRequest;
 import com.bankingsystem.dto.response.CardResponse;
 import com.bankingsystem.dto.response.CardTransactionResponse;
+import com.bankingsystem.dto.response.ClearingImportResponse;
+import com.bankingsystem.security.CurrentUser;
 import com.bankingsystem.service.CardService;
-import com.bankingsystem.service.UserService;
+import com.bankingsystem.service.ClearingFileImporter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -26,13 +27,12 @@ import java.util.List;
 public class CardController {
 
     private final CardService cardService;
-    private final UserService userService;
+    private final ClearingFileImporter clearingFileImporter;
 
     @PostMapping
     @Operation(summary = "Create new card", description = "Create a new bank card")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'TELLER')")
-    public ResponseEntity<CardResponse> createCard(@Valid @RequestBody CardCreationRequest request) {
-        Long userId = getCurrentUserId();
+    public ResponseEntity<CardResponse> createCard(@Valid @RequestBody CardCreationRequest request, @CurrentUser Long userId) {
         CardResponse card = cardService.createCard(userId, request);
         return ResponseEntity.ok(card);
     }
@@ -49,8 +49,7 @@ public class CardController {
     @GetMapping("/user")
     @Operation(summary = "Get user cards", description = "Get all cards for the authenticated user")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'MANAGER', 'TELLER')")
-    public ResponseEntity<List<CardResponse>> getUserCards() {
-        Long userId = getCurrentUserId();
+    public ResponseEntity<List<CardResponse>> getUserCards(@CurrentUser Long userId) {
         List<CardResponse> cards = cardService.getUserCards(userId);
         return ResponseEntity.ok(cards);
     }
@@ -100,8 +99,9 @@ public class CardController {
             @Parameter(description = "Card ID") @PathVariable Long cardId,
             @Parameter(description = "Daily limit") @RequestParam(required = false) Double dailyLimit,
             @Parameter(description = "Monthly limit") @RequestParam(required = false) Double monthlyLimit) {
-        // This method doesn't exist, return the card as-is
-        CardResponse card = cardService.getCardById(cardId);
+        CardResponse card = cardService.updateCardLimits(cardId,
+                dailyLimit != null ? BigDecimal.valueOf(dailyLimit) : null,
+                monthlyLimit != null ? BigDecimal.valueOf(monthlyLimit) : null);
         return ResponseEntity.ok(card);
     }
 
@@ -114,6 +114,34 @@ public class CardController {
         return ResponseEntity.ok(transaction);
     }
 
+    @PostMapping("/transactions/{reference}/clear")
+    @Operation(summary = "Clear card transaction", description = "Settle a pending card authorization, optionally for a different final amount")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TELLER')")
+    public ResponseEntity<CardTransactionResponse> clearCardTransaction(
+            @Parameter(description = "Transaction reference") @PathVariable String reference,
+            @Parameter(description = "Cleared amount") @RequestParam(required = false) BigDecimal amount) {
+        CardTransactionResponse transaction = cardService.clearCardTransaction(reference, amount);
+        return ResponseEntity.ok(transaction);
+    }
+
+    @PostMapping("/transactions/{reference}/release")
+    @Operation(summary = "Release card authorization", description = "Void a pending card authorization and release its hold")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TELLER')")
+    public ResponseEntity<CardTransactionResponse> releaseCardTransaction(
+            @Parameter(description = "Transaction reference") @PathVariable String reference) {
+        CardTransactionResponse transaction = cardService.releaseCardTransaction(reference);
+        return ResponseEntity.ok(transaction);
+    }
+
+    @PostMapping("/clearing-files")
+    @Operation(summary = "Import clearing file", description = "Settle pending card authorizations from an acquirer clearing file in the clearing directory; an interrupted import resumes from its last checkpoint")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<ClearingImportResponse> importClearingFile(
+            @Parameter(description = "Clearing file name") @RequestParam String fileName) {
+        ClearingImportResponse result = clearingFileImporter.importFile(fileName);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/{cardId}/transactions")
     @Operation(summary = "Get card transactions", description = "Get all transactions for a specific card")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'MANAGER', 'TELLER')")
@@ -146,10 +174,4 @@ public class CardController {
         cardService.blockCard(cardId, reason);
         return ResponseEntity.ok("Card cancelled successfully");
     }
-
-    private Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userService.getUserByUsername(username).getId();
-    }
 }
@@ -0,0 +1,65 @@
+package com.bankingsystem.controller;
+
+import com.bankingsystem.dto.request.TransferRequest;
+import com.bankingsystem.dto.response.TransactionResponse;
+import com.bankingsystem.service.LedgerEngine;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Deposit, withdraw and transfer endpoints posted through the {@link LedgerEngine}. Each request
+ * completes asynchronously once its shard commits the batch holding it. Registered in place of
+ * {@link TransactionPostingController} when the ledger engine is enabled.
+ */
+@RestController
+@RequestMapping("/api/v1/transactions")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "banking.ledger.engine.enabled", havingValue = "true")
+@Tag(name = "Transaction Management", description = "APIs for managing banking transactions")
+public class LedgerPostingController {
+
+    private final LedgerEngine ledgerEngine;
+
+    @PostMapping("/deposit")
+    @Operation(summary = "Deposit money", description = "Deposit money to an account")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'TELLER')")
+    public CompletableFuture<ResponseEntity<TransactionResponse>> deposit(
+            @Parameter(description = "Account ID") @RequestParam Long accountId,
+            @Parameter(description = "Amount to deposit") @RequestParam BigDecimal amount,
+            @Parameter(description = "Description") @RequestParam(required = false) String description) {
+        return ledgerEngine.deposit(accountId, amount, description).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/withdraw")
+    @Operation(summary = "Withdraw money", description = "Withdraw money from an account")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'TELLER')")
+    public CompletableFuture<ResponseEntity<TransactionResponse>> withdraw(
+            @Parameter(description = "Account ID") @RequestParam Long accountId,
+            @Parameter(description = "Amount to withdraw") @RequestParam BigDecimal amount,
+            @Parameter(description = "Description") @RequestParam(required = false) String description) {
+        return ledgerEngine.withdraw(accountId, amount, description).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/transfer")
+    @Operation(summary = "Transfer money", description = "Transfer money between accounts")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'TELLER')")
+    public CompletableFuture<ResponseEntity<List<TransactionResponse>>> transfer(@Valid @RequestBody TransferRequest request) {
+        return ledgerEngine.transfer(
+                request.getFromAccountId(),
+                request.getToAccountId(),
+                request.getAmount(),
+                request.getDescription()
+        ).thenApply(ResponseEntity::ok);
+    }
+}
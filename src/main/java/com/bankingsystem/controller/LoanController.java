@@ -4,8 +4,8 @@ import com.bankingsystem.dto.request.LoanApplicationRequest;
 import com.bankingsystem.dto.request.LoanPaymentRequest;
 import com.bankingsystem.dto.response.LoanResponse;
 import com.bankingsystem.enums.LoanStatus;
+import com.bankingsystem.security.CurrentUser;
 import com.bankingsystem.service.LoanService;
-import com.bankingsystem.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,8 +14,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
@@ -28,13 +26,11 @@ import java.util.List;
 public class LoanController {
 
     private final LoanService loanService;
-    private final UserService userService;
 
     @PostMapping("/apply")
     @Operation(summary = "Apply for loan", description = "Submit a new loan application")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'TELLER')")
-    public ResponseEntity<LoanResponse> applyForLoan(@Valid @RequestBody LoanApplicationRequest request) {
-        Long userId = getCurrentUserId();
+    public ResponseEntity<LoanResponse> applyForLoan(@Valid @RequestBody LoanApplicationRequest request, @CurrentUser Long userId) {
         LoanResponse loan = loanService.applyForLoan(userId, request);
         return ResponseEntity.ok(loan);
     }
@@ -51,8 +47,7 @@ public class LoanController {
     @GetMapping("/user")
     @Operation(summary = "Get user loans", description = "Get all loans for the authenticated user")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'MANAGER', 'TELLER')")
-    public ResponseEntity<List<LoanResponse>> getUserLoans() {
-        Long userId = getCurrentUserId();
+    public ResponseEntity<List<LoanResponse>> getUserLoans(@CurrentUser Long userId) {
         List<LoanResponse> loans = loanService.getUserLoans(userId);
         return ResponseEntity.ok(loans);
     }
@@ -131,10 +126,4 @@ public class LoanController {
         LoanResponse loan = loanService.getLoanById(loanId);
         return ResponseEntity.ok(loan);
     }
-
-    private Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userService.getUserByUsername(username).getId();
-    }
 }
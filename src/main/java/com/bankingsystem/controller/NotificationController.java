@@ -4,16 +4,14 @@ import com.bankingsystem.dto.notification.TransactionAlertRequest;
 import com.bankingsystem.dto.notification.SendNotificationRequest;
 import com.bankingsystem.dto.notification.NotificationFilterRequest;
 import com.bankingsystem.dto.notification.NotificationResponse;
+import com.bankingsystem.security.CurrentUser;
 import com.bankingsystem.service.NotificationService;
-import com.bankingsystem.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
@@ -26,13 +24,11 @@ import java.util.List;
 public class NotificationController {
 
     private final NotificationService notificationService;
-    private final UserService userService;
 
     @PostMapping("/transaction-alert")
     @Operation(summary = "Send transaction alert", description = "Send a transaction alert notification")
     @PreAuthorize("hasAnyRole('ADMIN', 'SYSTEM')")
-    public ResponseEntity<NotificationResponse> sendTransactionAlert(@Valid @RequestBody TransactionAlertRequest request) {
-        Long userId = getCurrentUserId();
+    public ResponseEntity<NotificationResponse> sendTransactionAlert(@Valid @RequestBody TransactionAlertRequest request, @CurrentUser Long userId) {
         NotificationResponse notification = notificationService.sendTransactionAlert(userId, request);
         return ResponseEntity.ok(notification);
     }
@@ -51,8 +47,7 @@ public class NotificationController {
     @Operation(summary = "Get user notifications", description = "Get all notifications for the authenticated user")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'MANAGER')")
     public ResponseEntity<List<NotificationResponse>> getUserNotifications(
-            @Valid @RequestBody(required = false) NotificationFilterRequest filter) {
-        Long userId = getCurrentUserId();
+            @Valid @RequestBody(required = false) NotificationFilterRequest filter, @CurrentUser Long userId) {
         if (filter == null) {
             filter = new NotificationFilterRequest(); // Create default filter
         }
@@ -64,8 +59,7 @@ public class NotificationController {
     @Operation(summary = "Mark as read", description = "Mark a notification as read")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'MANAGER')")
     public ResponseEntity<NotificationResponse> markAsRead(
-            @Parameter(description = "Notification ID") @PathVariable Long notificationId) {
-        Long userId = getCurrentUserId();
+            @Parameter(description = "Notification ID") @PathVariable Long notificationId, @CurrentUser Long userId) {
         NotificationResponse notification = notificationService.markAsRead(userId, notificationId);
         return ResponseEntity.ok(notification);
     }
@@ -73,8 +67,7 @@ public class NotificationController {
     @PutMapping("/user/read-all")
     @Operation(summary = "Mark all as read", description = "Mark all notifications as read for the user")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'MANAGER')")
-    public ResponseEntity<String> markAllAsRead() {
-        Long userId = getCurrentUserId();
+    public ResponseEntity<String> markAllAsRead(@CurrentUser Long userId) {
         notificationService.markAllAsRead(userId);
         return ResponseEntity.ok("All notifications marked as read");
     }
@@ -83,15 +76,8 @@ public class NotificationController {
     @Operation(summary = "Delete notification", description = "Delete a notification")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'MANAGER')")
     public ResponseEntity<String> deleteNotification(
-            @Parameter(description = "Notification ID") @PathVariable Long notificationId) {
-        Long userId = getCurrentUserId();
+            @Parameter(description = "Notification ID") @PathVariable Long notificationId, @CurrentUser Long userId) {
         notificationService.deleteNotification(userId, notificationId);
         return ResponseEntity.ok("Notification deleted successfully");
     }
-
-    private Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userService.getUserByUsername(username).getId();
-    }
 }
@@ -5,16 +5,14 @@ import com.bankingsystem.dto.payment.BillPaymentResponse;
 import com.bankingsystem.dto.payment.ExternalTransferRequest;
 import com.bankingsystem.dto.payment.InternalTransferRequest;
 import com.bankingsystem.dto.payment.PaymentResponse;
+import com.bankingsystem.security.CurrentUser;
 import com.bankingsystem.service.PaymentService;
-import com.bankingsystem.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
@@ -27,13 +25,11 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
-    private final UserService userService;
 
     @PostMapping("/internal-transfer")
     @Operation(summary = "Internal transfer", description = "Transfer money between accounts within the bank")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'TELLER')")
-    public ResponseEntity<PaymentResponse> internalTransfer(@Valid @RequestBody InternalTransferRequest request) {
-        Long userId = getCurrentUserId();
+    public ResponseEntity<PaymentResponse> internalTransfer(@Valid @RequestBody InternalTransferRequest request, @CurrentUser Long userId) {
         PaymentResponse payment = paymentService.processInternalTransfer(userId, request);
         return ResponseEntity.ok(payment);
     }
@@ -41,8 +37,7 @@ public class PaymentController {
     @PostMapping("/external-transfer")
     @Operation(summary = "External transfer", description = "Transfer money to external bank accounts")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'TELLER')")
-    public ResponseEntity<PaymentResponse> externalTransfer(@Valid @RequestBody ExternalTransferRequest request) {
-        Long userId = getCurrentUserId();
+    public ResponseEntity<PaymentResponse> externalTransfer(@Valid @RequestBody ExternalTransferRequest request, @CurrentUser Long userId) {
         PaymentResponse payment = paymentService.processExternalTransfer(userId, request);
         return ResponseEntity.ok(payment);
     }
@@ -50,8 +45,7 @@ public class PaymentController {
     @PostMapping("/bill-payment")
     @Operation(summary = "Bill payment", description = "Pay bills to registered billers")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'TELLER')")
-    public ResponseEntity<BillPaymentResponse> billPayment(@Valid @RequestBody BillPaymentRequest request) {
-        Long userId = getCurrentUserId();
+    public ResponseEntity<BillPaymentResponse> billPayment(@Valid @RequestBody BillPaymentRequest request, @CurrentUser Long userId) {
         BillPaymentResponse payment = paymentService.processBillPayment(userId, request);
         return ResponseEntity.ok(payment);
     }
@@ -69,8 +63,7 @@ public class PaymentController {
     @Operation(summary = "Get user payments", description = "Get all payments for the authenticated user")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'MANAGER', 'TELLER')")
     public ResponseEntity<List<PaymentResponse>> getUserPayments(
-            @Parameter(description = "Account number") @RequestParam String accountNumber) {
-        Long userId = getCurrentUserId();
+            @Parameter(description = "Account number") @RequestParam String accountNumber, @CurrentUser Long userId) {
         List<PaymentResponse> payments = paymentService.getPaymentHistory(userId, accountNumber);
         return ResponseEntity.ok(payments);
     }
@@ -80,8 +73,7 @@ public class PaymentController {
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'MANAGER', 'TELLER')")
     public ResponseEntity<List<PaymentResponse>> getAccountPayments(
             @Parameter(description = "Account ID") @PathVariable Long accountId,
-            @Parameter(description = "Account number") @RequestParam String accountNumber) {
-        Long userId = getCurrentUserId();
+            @Parameter(description = "Account number") @RequestParam String accountNumber, @CurrentUser Long userId) {
         List<PaymentResponse> payments = paymentService.getPaymentHistory(userId, accountNumber);
         return ResponseEntity.ok(payments);
     }
@@ -90,8 +82,7 @@ public class PaymentController {
     @Operation(summary = "Get payment by reference", description = "Retrieve payment details by payment reference")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'MANAGER')")
     public ResponseEntity<PaymentResponse> getPaymentByReference(
-            @Parameter(description = "Payment reference") @PathVariable String reference) {
-        Long userId = getCurrentUserId();
+            @Parameter(description = "Payment reference") @PathVariable String reference, @CurrentUser Long userId) {
         PaymentResponse payment = paymentService.getPaymentByReference(userId, reference);
         return ResponseEntity.ok(payment);
     }
@@ -119,8 +110,7 @@ public class PaymentController {
     @Operation(summary = "Get user bill payments", description = "Get all bill payments for the authenticated user")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'MANAGER')")
     public ResponseEntity<List<BillPaymentResponse>> getUserBillPayments(
-            @Parameter(description = "Account number") @RequestParam String accountNumber) {
-        Long userId = getCurrentUserId();
+            @Parameter(description = "Account number") @RequestParam String accountNumber, @CurrentUser Long userId) {
         List<BillPaymentResponse> payments = paymentService.getBillPaymentHistory(userId, accountNumber);
         return ResponseEntity.ok(payments);
     }
@@ -130,15 +120,8 @@ public class PaymentController {
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'MANAGER')")
     public ResponseEntity<List<BillPaymentResponse>> getAccountBillPayments(
             @Parameter(description = "Account ID") @PathVariable Long accountId,
-            @Parameter(description = "Account number") @RequestParam String accountNumber) {
-        Long userId = getCurrentUserId();
+            @Parameter(description = "Account number") @RequestParam String accountNumber, @CurrentUser Long userId) {
         List<BillPaymentResponse> payments = paymentService.getBillPaymentHistory(userId, accountNumber);
         return ResponseEntity.ok(payments);
     }
-
-    private Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userService.getUserByUsername(username).getId();
-    }
 }
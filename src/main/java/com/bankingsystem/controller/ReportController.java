@@ -1,8 +1,10 @@
 package com.bankingsystem.controller;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -10,10 +12,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import com.bankingsystem.dto.request.ReportJobRequest;
+import com.bankingsystem.dto.response.ReportJobResponse;
+import com.bankingsystem.exception.InvalidOperationException;
+import com.bankingsystem.service.ReportJobService;
 import com.bankingsystem.service.ReportService;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * REST Controller for generating bank reports in PDF format.
@@ -26,6 +33,7 @@ import java.time.format.DateTimeFormatter;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportJobService reportJobService;
 
     /**
      * Generate Account Statement PDF
@@ -33,11 +41,11 @@ public class ReportController {
      * @param accountId Account ID
      * @param fromDate Start date (yyyy-MM-dd)
      * @param toDate End date (yyyy-MM-dd)
-     * @return PDF file as ByteArrayResource
+     * @return PDF file, streamed from memory or a spool file
      */
     @GetMapping("/account-statement/{accountId}")
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('TELLER') or hasRole('ADMIN')")
-    public ResponseEntity<ByteArrayResource> generateAccountStatement(
+    public ResponseEntity<Resource> generateAccountStatement(
             @PathVariable Long accountId,
             @RequestParam String fromDate,
             @RequestParam String toDate) {
@@ -49,7 +57,7 @@ public class ReportController {
             LocalDateTime from = LocalDateTime.parse(fromDate + "T00:00:00");
             LocalDateTime to = LocalDateTime.parse(toDate + "T23:59:59");
             
-            ByteArrayResource resource = reportService.generateAccountStatement(accountId, from, to);
+            Resource resource = reportService.generateAccountStatement(accountId, from, to);
             
             HttpHeaders headers = new HttpHeaders();
             headers.add(HttpHeaders.CONTENT_DISPOSITION, 
@@ -75,11 +83,11 @@ public class ReportController {
      * @param userId User ID
      * @param year Year (e.g., 2025)
      * @param month Month (1-12)
-     * @return PDF file as ByteArrayResource
+     * @return PDF file, streamed from memory or a spool file
      */
     @GetMapping("/monthly-statement/{userId}")
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('TELLER') or hasRole('ADMIN')")
-    public ResponseEntity<ByteArrayResource> generateMonthlyStatement(
+    public ResponseEntity<Resource> generateMonthlyStatement(
             @PathVariable Long userId,
             @RequestParam int year,
             @RequestParam int month) {
@@ -88,7 +96,7 @@ public class ReportController {
             log.info("Generating monthly statement for user: {}, year: {}, month: {}", 
                     userId, year, month);
             
-            ByteArrayResource resource = reportService.generateMonthlyStatement(userId, year, month);
+            Resource resource = reportService.generateMonthlyStatement(userId, year, month);
             
             HttpHeaders headers = new HttpHeaders();
             headers.add(HttpHeaders.CONTENT_DISPOSITION, 
@@ -112,16 +120,16 @@ public class ReportController {
      * Generate Loan Statement PDF
      * 
      * @param loanId Loan ID
-     * @return PDF file as ByteArrayResource
+     * @return PDF file, streamed from memory or a spool file
      */
     @GetMapping("/loan-statement/{loanId}")
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('TELLER') or hasRole('LOAN_OFFICER') or hasRole('ADMIN')")
-    public ResponseEntity<ByteArrayResource> generateLoanStatement(@PathVariable Long loanId) {
+    public ResponseEntity<Resource> generateLoanStatement(@PathVariable Long loanId) {
         
         try {
             log.info("Generating loan statement for loan: {}", loanId);
             
-            ByteArrayResource resource = reportService.generateLoanStatement(loanId);
+            Resource resource = reportService.generateLoanStatement(loanId);
             
             HttpHeaders headers = new HttpHeaders();
             headers.add(HttpHeaders.CONTENT_DISPOSITION, 
@@ -147,11 +155,11 @@ public class ReportController {
      * @param cardId Card ID
      * @param year Year (e.g., 2025)
      * @param month Month (1-12)
-     * @return PDF file as ByteArrayResource
+     * @return PDF file, streamed from memory or a spool file
      */
     @GetMapping("/credit-card-statement/{cardId}")
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('TELLER') or hasRole('ADMIN')")
-    public ResponseEntity<ByteArrayResource> generateCreditCardStatement(
+    public ResponseEntity<Resource> generateCreditCardStatement(
             @PathVariable Long cardId,
             @RequestParam int year,
             @RequestParam int month) {
@@ -160,7 +168,7 @@ public class ReportController {
             log.info("Generating credit card statement for card: {}, year: {}, month: {}", 
                     cardId, year, month);
             
-            ByteArrayResource resource = reportService.generateCreditCardStatement(cardId, year, month);
+            Resource resource = reportService.generateCreditCardStatement(cardId, year, month);
             
             HttpHeaders headers = new HttpHeaders();
             headers.add(HttpHeaders.CONTENT_DISPOSITION, 
@@ -185,11 +193,11 @@ public class ReportController {
      * 
      * @param year Year for the report
      * @param month Month for the report (optional)
-     * @return PDF file as ByteArrayResource
+     * @return PDF file, streamed from memory or a spool file
      */
     @GetMapping("/bank-summary")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<ByteArrayResource> generateBankSummaryReport(
+    public ResponseEntity<Resource> generateBankSummaryReport(
             @RequestParam int year,
             @RequestParam(required = false) Integer month) {
         
@@ -220,6 +228,70 @@ public class ReportController {
         }
     }
 
+    /**
+     * Queue a report for background generation
+     * 
+     * @param request Report type and parameters
+     * @return The job, or the job already generating the same report; poll it for status
+     */
+    @PostMapping("/jobs")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('TELLER') or hasRole('LOAN_OFFICER') or hasRole('ADMIN')")
+    public ResponseEntity<ReportJobResponse> submitReportJob(@Valid @RequestBody ReportJobRequest request) {
+        try {
+            return ResponseEntity.accepted().body(reportJobService.submit(request));
+        } catch (InvalidOperationException e) {
+            log.warn("Rejected report job request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            log.warn("Report job queue is full, rejecting {} for {}", request.getReportType(), request.getTargetId());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+    }
+
+    /**
+     * Report job status
+     * 
+     * @param jobId Job ID
+     * @return The job's status, and its size and expiry once completed
+     */
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('TELLER') or hasRole('LOAN_OFFICER') or hasRole('ADMIN')")
+    public ResponseEntity<ReportJobResponse> getReportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(reportJobService.getJob(jobId));
+    }
+
+    /**
+     * Download the PDF of a completed report job. Supports Range requests, so an interrupted
+     * download can be resumed.
+     * 
+     * @param jobId Job ID
+     * @return PDF file, or the requested byte ranges of it
+     */
+    @GetMapping("/jobs/{jobId}/download")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('TELLER') or hasRole('LOAN_OFFICER') or hasRole('ADMIN')")
+    public ResponseEntity<Resource> downloadReportJob(@PathVariable String jobId) {
+        try {
+            ReportJobResponse job = reportJobService.getJob(jobId);
+            Resource resource = new FileSystemResource(reportJobService.getResult(jobId));
+            
+            HttpHeaders headers = new HttpHeaders();
+            headers.add(HttpHeaders.CONTENT_DISPOSITION, 
+                    "attachment; filename=" + job.getReportType().name().toLowerCase() + "_" + job.getTargetId() + ".pdf");
+            headers.add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_PDF_VALUE);
+            headers.add(HttpHeaders.ACCEPT_RANGES, "bytes");
+            
+            // Content-Length and any Range header are handled by the resource message converters
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(resource);
+                    
+        } catch (InvalidOperationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
     /**
      * Health check for reports service
      */
@@ -1,10 +1,13 @@
 package com.bankingsystem.controller;
 
-import com.bankingsystem.dto.request.TransferRequest;
+import com.bankingsystem.dto.request.BatchPostingRequest;
+import com.bankingsystem.dto.response.BatchPostingResponse;
+import com.bankingsystem.dto.response.CursorPageResponse;
 import com.bankingsystem.dto.response.TransactionResponse;
+import com.bankingsystem.enums.TransactionStatus;
 import com.bankingsystem.enums.TransactionType;
+import com.bankingsystem.security.CurrentUser;
 import com.bankingsystem.service.TransactionService;
-import com.bankingsystem.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,12 +16,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -29,41 +29,13 @@ import java.util.List;
 public class TransactionController {
 
     private final TransactionService transactionService;
-    private final UserService userService;
 
-    @PostMapping("/deposit")
-    @Operation(summary = "Deposit money", description = "Deposit money to an account")
+    @PostMapping("/batch")
+    @Operation(summary = "Post transfer batch", description = "Post up to 5000 transfer legs in one commit, all-or-nothing or best-effort")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'TELLER')")
-    public ResponseEntity<TransactionResponse> deposit(
-            @Parameter(description = "Account ID") @RequestParam Long accountId,
-            @Parameter(description = "Amount to deposit") @RequestParam BigDecimal amount,
-            @Parameter(description = "Description") @RequestParam(required = false) String description) {
-        TransactionResponse transaction = transactionService.deposit(accountId, amount, description);
-        return ResponseEntity.ok(transaction);
-    }
-
-    @PostMapping("/withdraw")
-    @Operation(summary = "Withdraw money", description = "Withdraw money from an account")
-    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'TELLER')")
-    public ResponseEntity<TransactionResponse> withdraw(
-            @Parameter(description = "Account ID") @RequestParam Long accountId,
-            @Parameter(description = "Amount to withdraw") @RequestParam BigDecimal amount,
-            @Parameter(description = "Description") @RequestParam(required = false) String description) {
-        TransactionResponse transaction = transactionService.withdraw(accountId, amount, description);
-        return ResponseEntity.ok(transaction);
-    }
-
-    @PostMapping("/transfer")
-    @Operation(summary = "Transfer money", description = "Transfer money between accounts")
-    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'TELLER')")
-    public ResponseEntity<List<TransactionResponse>> transfer(@Valid @RequestBody TransferRequest request) {
-        List<TransactionResponse> transactions = transactionService.transfer(
-                request.getFromAccountId(),
-                request.getToAccountId(),
-                request.getAmount(),
-                request.getDescription()
-        );
-        return ResponseEntity.ok(transactions);
+    public ResponseEntity<BatchPostingResponse> postBatch(@Valid @RequestBody BatchPostingRequest request) {
+        BatchPostingResponse response = transactionService.postBatch(request.getLegs(), request.getMode());
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/account/{accountId}")
@@ -76,11 +48,21 @@ public class TransactionController {
         return ResponseEntity.ok(transactions);
     }
 
+    @GetMapping("/account/{accountId}/history")
+    @Operation(summary = "Get account transaction history", description = "Cursor-paginated account history, newest first; pass nextCursor to get the next page")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'MANAGER', 'TELLER')")
+    public ResponseEntity<CursorPageResponse<TransactionResponse>> getAccountTransactionHistory(
+            @Parameter(description = "Account ID") @PathVariable Long accountId,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 200)") @RequestParam(defaultValue = "50") int size) {
+        CursorPageResponse<TransactionResponse> history = transactionService.getTransactionHistory(accountId, cursor, size);
+        return ResponseEntity.ok(history);
+    }
+
     @GetMapping("/user")
     @Operation(summary = "Get user transactions", description = "Get all transactions for the authenticated user")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'MANAGER', 'TELLER')")
-    public ResponseEntity<Page<TransactionResponse>> getUserTransactions(Pageable pageable) {
-        Long userId = getCurrentUserId();
+    public ResponseEntity<Page<TransactionResponse>> getUserTransactions(Pageable pageable, @CurrentUser Long userId) {
         Page<TransactionResponse> transactions = transactionService.getTransactionsByUserId(userId, pageable);
         return ResponseEntity.ok(transactions);
     }
@@ -95,12 +77,15 @@ public class TransactionController {
     }
 
     @GetMapping("/type/{type}")
-    @Operation(summary = "Get transactions by type", description = "Get transactions filtered by type")
+    @Operation(summary = "Get transactions by type", description = "Get transactions filtered by type, optionally by status and date range")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TELLER')")
     public ResponseEntity<Page<TransactionResponse>> getTransactionsByType(
             @Parameter(description = "Transaction type") @PathVariable TransactionType type,
+            @Parameter(description = "Transaction status") @RequestParam(required = false) TransactionStatus status,
+            @Parameter(description = "Start date") @RequestParam(required = false) LocalDateTime startDate,
+            @Parameter(description = "End date") @RequestParam(required = false) LocalDateTime endDate,
             Pageable pageable) {
-        Page<TransactionResponse> transactions = transactionService.getTransactionsByType(type, pageable);
+        Page<TransactionResponse> transactions = transactionService.getTransactionsByType(type, status, startDate, endDate, pageable);
         return ResponseEntity.ok(transactions);
     }
 
@@ -114,10 +99,4 @@ public class TransactionController {
         List<TransactionResponse> transactions = transactionService.getTransactionsByDateRange(accountId, startDate, endDate);
         return ResponseEntity.ok(transactions);
     }
-
-    private Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userService.getUserByUsername(username).getId();
-    }
 }
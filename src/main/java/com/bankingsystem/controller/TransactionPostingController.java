@@ -0,0 +1,67 @@
+package com.bankingsystem.controller;
+
+import com.bankingsystem.dto.request.TransferRequest;
+import com.bankingsystem.dto.response.TransactionResponse;
+import com.bankingsystem.service.TransactionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Deposit, withdraw and transfer endpoints posted synchronously through {@link TransactionService}.
+ * Registered unless the ledger engine is enabled, when {@link LedgerPostingController} serves the
+ * same paths.
+ */
+@RestController
+@RequestMapping("/api/v1/transactions")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "banking.ledger.engine.enabled", havingValue = "false", matchIfMissing = true)
+@Tag(name = "Transaction Management", description = "APIs for managing banking transactions")
+public class TransactionPostingController {
+
+    private final TransactionService transactionService;
+
+    @PostMapping("/deposit")
+    @Operation(summary = "Deposit money", description = "Deposit money to an account")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'TELLER')")
+    public ResponseEntity<TransactionResponse> deposit(
+            @Parameter(description = "Account ID") @RequestParam Long accountId,
+            @Parameter(description = "Amount to deposit") @RequestParam BigDecimal amount,
+            @Parameter(description = "Description") @RequestParam(required = false) String description) {
+        TransactionResponse transaction = transactionService.deposit(accountId, amount, description);
+        return ResponseEntity.ok(transaction);
+    }
+
+    @PostMapping("/withdraw")
+    @Operation(summary = "Withdraw money", description = "Withdraw money from an account")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'TELLER')")
+    public ResponseEntity<TransactionResponse> withdraw(
+            @Parameter(description = "Account ID") @RequestParam Long accountId,
+            @Parameter(description = "Amount to withdraw") @RequestParam BigDecimal amount,
+            @Parameter(description = "Description") @RequestParam(required = false) String description) {
+        TransactionResponse transaction = transactionService.withdraw(accountId, amount, description);
+        return ResponseEntity.ok(transaction);
+    }
+
+    @PostMapping("/transfer")
+    @Operation(summary = "Transfer money", description = "Transfer money between accounts")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN', 'TELLER')")
+    public ResponseEntity<List<TransactionResponse>> transfer(@Valid @RequestBody TransferRequest request) {
+        List<TransactionResponse> transactions = transactionService.transfer(
+                request.getFromAccountId(),
+                request.getToAccountId(),
+                request.getAmount(),
+                request.getDescription()
+        );
+        return ResponseEntity.ok(transactions);
+    }
+}
@@ -0,0 +1,24 @@
+package com.bankingsystem.dto.request;
+
+import com.bankingsystem.enums.BatchPostingMode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for posting many transfer legs in a single request.
+ */
+@Data
+public class BatchPostingRequest {
+
+    @NotNull(message = "Batch mode is required")
+    private BatchPostingMode mode = BatchPostingMode.ALL_OR_NOTHING;
+
+    @NotEmpty(message = "At least one leg is required")
+    @Size(max = 5000, message = "A batch cannot contain more than 5000 legs")
+    private List<@Valid TransferRequest> legs;
+}
@@ -0,0 +1,34 @@
+package com.bankingsystem.dto.request;
+
+import com.bankingsystem.enums.ReportType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for queueing a report job. {@code targetId} is the account, user, loan or card the report is
+ * for, depending on the report type. Account statements take a date range, monthly and credit card
+ * statements a year and month.
+ */
+@Data
+public class ReportJobRequest {
+
+    @NotNull(message = "Report type is required")
+    private ReportType reportType;
+
+    @NotNull(message = "Target id is required")
+    private Long targetId;
+
+    private LocalDate fromDate;
+
+    private LocalDate toDate;
+
+    private Integer year;
+
+    @Min(value = 1, message = "Month must be between 1 and 12")
+    @Max(value = 12, message = "Month must be between 1 and 12")
+    private Integer month;
+}
@@ -0,0 +1,39 @@
+package com.bankingsystem.dto.response;
+
+import com.bankingsystem.enums.TransactionType;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for a delta-sync page of an account's ledger entries. Entries are in seq order with no gaps;
+ * pass lastSeq back as sinceSeq to fetch the next page. Once hasMore is false the client is caught
+ * up to latestSeq, and the last entry's runningBalance equals the account balance at that point.
+ */
+@Data
+public class AccountEntriesResponse {
+
+    private Long accountId;
+    private Long sinceSeq;
+    private Long lastSeq;
+    private Long latestSeq;
+    private boolean hasMore;
+    private List<Entry> entries = new ArrayList<>();
+
+    /**
+     * One posted entry. Amount is positive for credits and negative for debits.
+     */
+    @Data
+    public static class Entry {
+        private Long seq;
+        private TransactionType type;
+        private BigDecimal amount;
+        private BigDecimal runningBalance;
+        private String reference;
+        private String description;
+        private LocalDateTime postedAt;
+    }
+}
@@ -0,0 +1,31 @@
+package com.bankingsystem.dto.response;
+
+import com.bankingsystem.enums.BatchPostingMode;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for batch posting response with one result per leg.
+ */
+@Data
+public class BatchPostingResponse {
+
+    private BatchPostingMode mode;
+    private int totalLegs;
+    private int postedLegs;
+    private int rejectedLegs;
+    private List<LegResult> results = new ArrayList<>();
+
+    /**
+     * Outcome of a single leg, in request order.
+     */
+    @Data
+    public static class LegResult {
+        private int index;
+        private boolean posted;
+        private String errorMessage;
+        private List<TransactionResponse> transactions;
+    }
+}
@@ -0,0 +1,19 @@
+package com.bankingsystem.dto.response;
+
+import lombok.Data;
+
+/**
+ * DTO for the outcome of a card clearing file import. Counts cover the whole file, including
+ * chunks committed by earlier, interrupted runs.
+ */
+@Data
+public class ClearingImportResponse {
+
+    private String fileName;
+    private long linesProcessed;
+    private long settled;
+    private long unmatched;
+    private long resumedFromLine;
+    private boolean completed;
+    private String reconciliationReport;
+}
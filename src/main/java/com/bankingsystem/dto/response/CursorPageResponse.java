@@ -0,0 +1,20 @@
+package com.bankingsystem.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for one page of a cursor-paginated listing. Pass nextCursor back to fetch the following page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
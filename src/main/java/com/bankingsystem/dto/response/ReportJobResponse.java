@@ -0,0 +1,26 @@
+package com.bankingsystem.dto.response;
+
+import com.bankingsystem.enums.ReportJobStatus;
+import com.bankingsystem.enums.ReportType;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the state of a report job. The size and expiry are set once the report is ready to
+ * download; the error once the job has failed.
+ */
+@Data
+public class ReportJobResponse {
+
+    private String jobId;
+    private ReportType reportType;
+    private Long targetId;
+    private ReportJobStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime expiresAt;
+    private Long sizeBytes;
+    private String error;
+}
@@ -8,6 +8,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -69,6 +70,10 @@ public class Account extends BaseEntity {
     @Column(name = "monthly_maintenance_fee", precision = 19, scale = 2)
     private BigDecimal monthlyMaintenanceFee = BigDecimal.ZERO;
 
+    @ColumnDefault("0")
+    @Column(name = "entry_sequence", nullable = false)
+    private Long entrySequence = 0L; // Seq of the last AccountEntry posted to this account
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -0,0 +1,65 @@
+package com.bankingsystem.entity;
+
+import com.bankingsystem.enums.TransactionType;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One side of a posting: a signed change to a single account's balance. Entries are numbered per
+ * account in posting order, so an account's history is one (account_id, seq) index range.
+ */
+@Entity
+@Table(name = "account_entries", indexes = {
+        @Index(name = "uk_account_entries_account_seq", columnList = "account_id, seq", unique = true),
+        @Index(name = "idx_account_entries_account_posted", columnList = "account_id, posted_at")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountEntry extends SequenceBaseEntity {
+
+    @NotNull(message = "Account is required")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    @NotNull(message = "Sequence is required")
+    @Column(nullable = false)
+    private Long seq;
+
+    @NotNull(message = "Entry type is required")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false)
+    private TransactionType entryType;
+
+    @NotNull(message = "Amount is required")
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount; // Positive for credits, negative for debits
+
+    @NotNull(message = "Running balance is required")
+    @Column(name = "running_balance", nullable = false, precision = 19, scale = 2)
+    private BigDecimal runningBalance;
+
+    @Size(max = 100, message = "Reference cannot exceed 100 characters")
+    @Column(length = 100)
+    private String reference;
+
+    @Size(max = 500, message = "Description cannot exceed 500 characters")
+    private String description;
+
+    @Column(name = "posted_at", nullable = false)
+    private LocalDateTime postedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "transaction_id")
+    private Transaction transaction;
+}
@@ -19,7 +19,7 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
 @AllArgsConstructor
-public class AuditLog extends BaseEntity {
+public class AuditLog extends SequenceBaseEntity {
 
     @NotNull(message = "Action is required")
     @Size(max = 100, message = "Action cannot exceed 100 characters")
@@ -0,0 +1,43 @@
+package com.bankingsystem.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An account's balance as of a cutoff time: the sum of all its entries posted before checkpointAt,
+ * the last of which is {@code seq}. Point-in-time balances replay only the entries after it.
+ */
+@Entity
+@Table(name = "balance_checkpoints", indexes = {
+        @Index(name = "uk_balance_checkpoints_account_at", columnList = "account_id, checkpoint_at", unique = true)
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceCheckpoint extends SequenceBaseEntity {
+
+    @NotNull(message = "Account is required")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    @NotNull(message = "Checkpoint time is required")
+    @Column(name = "checkpoint_at", nullable = false)
+    private LocalDateTime checkpointAt;
+
+    @NotNull(message = "Sequence is required")
+    @Column(nullable = false)
+    private Long seq;
+
+    @NotNull(message = "Balance is required")
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+}
@@ -22,7 +22,7 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
 @AllArgsConstructor
-public class CardTransaction extends BaseEntity {
+public class CardTransaction extends SequenceBaseEntity {
 
     @NotNull(message = "Transaction reference is required")
     @Column(name = "transaction_reference", unique = true, nullable = false)
@@ -47,6 +47,13 @@ public class CardTransaction extends BaseEntity {
     @Column(name = "processed_date")
     private LocalDateTime processedDate;
 
+    // Amount held against the account or credit line while the transaction is pending
+    @Column(name = "authorized_amount", precision = 19, scale = 2)
+    private BigDecimal authorizedAmount;
+
+    @Column(name = "hold_expires_at")
+    private LocalDateTime holdExpiresAt;
+
     @Size(max = 200, message = "Merchant name cannot exceed 200 characters")
     @Column(name = "merchant_name")
     private String merchantName;
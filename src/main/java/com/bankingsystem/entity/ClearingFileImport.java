@@ -0,0 +1,55 @@
+package com.bankingsystem.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a card clearing file import. Updated in the same transaction as each chunk of
+ * settlements, so {@code linesProcessed} is the point an interrupted import resumes from.
+ * {@code claimedBy} identifies the import currently running, and {@code claimedAt} is refreshed
+ * with every chunk; a claim older than the claim timeout belongs to an import that died.
+ */
+@Entity
+@Table(name = "clearing_file_imports")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClearingFileImport extends SequenceBaseEntity {
+
+    @NotNull(message = "File name is required")
+    @Column(name = "file_name", unique = true, nullable = false)
+    private String fileName;
+
+    @NotNull(message = "File size is required")
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    @Column(name = "lines_processed", nullable = false)
+    private Long linesProcessed = 0L;
+
+    @Column(name = "settled_count", nullable = false)
+    private Long settledCount = 0L;
+
+    @Column(name = "unmatched_count", nullable = false)
+    private Long unmatchedCount = 0L;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "claimed_by", length = 36)
+    private String claimedBy;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    public boolean isCompleted() {
+        return completedAt != null;
+    }
+}
@@ -0,0 +1,47 @@
+package com.bankingsystem.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A request made with an Idempotency-Key and, once it finished, the response it produced.
+ * A record without a response status is still being processed.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires", columnList = "expires_at")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord extends SequenceBaseEntity {
+
+    @NotNull(message = "Key is required")
+    @Column(name = "cache_key", unique = true, nullable = false)
+    private String cacheKey; // user id, method, path and the client's key
+
+    @NotNull(message = "Request hash is required")
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Lob
+    @Column(name = "response_body")
+    private byte[] responseBody;
+
+    @NotNull(message = "Expiry is required")
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
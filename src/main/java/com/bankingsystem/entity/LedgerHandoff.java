@@ -0,0 +1,43 @@
+package com.bankingsystem.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Credit leg of a cross-shard transfer whose debit has committed. Written in the debit's
+ * transaction and deleted in the transaction that applies the credit or reverses the debit, so a
+ * row exists exactly while the transfer is half done and is replayed if the engine stops first.
+ */
+@Entity
+@Table(name = "ledger_handoffs")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerHandoff extends SequenceBaseEntity {
+
+    @NotNull(message = "Transfer reference is required")
+    @Column(name = "transfer_reference", nullable = false)
+    private String transferReference;
+
+    @NotNull(message = "Account is required")
+    @Column(name = "account_id", nullable = false)
+    private Long accountId; // Account to credit
+
+    @NotNull(message = "Counterparty is required")
+    @Column(name = "counterparty_id", nullable = false)
+    private Long counterpartyId; // Account that was debited
+
+    @NotNull(message = "Amount is required")
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(length = 500)
+    private String description;
+}
@@ -19,7 +19,7 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
 @AllArgsConstructor
-public class LoginAttempt extends BaseEntity {
+public class LoginAttempt extends SequenceBaseEntity {
 
     @NotNull(message = "Username is required")
     @Size(max = 50, message = "Username cannot exceed 50 characters")
@@ -20,7 +20,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Notification extends BaseEntity {
+public class Notification extends SequenceBaseEntity {
 
     @NotNull(message = "Title is required")
     @Size(max = 200, message = "Title cannot exceed 200 characters")
@@ -21,7 +21,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Payment extends BaseEntity {
+public class Payment extends SequenceBaseEntity {
 
     @NotNull(message = "Payment reference is required")
     @Column(name = "payment_reference", unique = true, nullable = false)
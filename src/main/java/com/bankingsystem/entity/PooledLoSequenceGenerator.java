@@ -0,0 +1,32 @@
+package com.bankingsystem.entity;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Sequence generator using one sequence per entity ({@code <table>_seq}) and the pooled-lo optimizer.
+ * The allocation size is read from the {@value #ALLOCATION_SIZE_SETTING} Hibernate property
+ * ({@code spring.jpa.properties.banking.id.allocation_size}) and must match the sequence increment.
+ */
+public class PooledLoSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String NAME = "pooled_lo_sequence";
+    public static final String ALLOCATION_SIZE_SETTING = "banking.id.allocation_size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) {
+        int allocationSize = serviceRegistry.getService(ConfigurationService.class)
+                .getSetting(ALLOCATION_SIZE_SETTING, StandardConverters.INTEGER, DEFAULT_ALLOCATION_SIZE);
+        params.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize));
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        params.setProperty(SEQUENCE_PARAM, params.getProperty(TABLE) + "_seq");
+        super.configure(type, params, serviceRegistry);
+    }
+}
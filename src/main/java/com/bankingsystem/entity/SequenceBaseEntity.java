@@ -0,0 +1,21 @@
+package com.bankingsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.GenericGenerator;
+
+/**
+ * Base entity for high-volume tables. Ids come from a per-entity sequence with a pooled-lo
+ * optimizer, so Hibernate knows the id before the INSERT and can batch inserts over JDBC.
+ */
+@MappedSuperclass
+@Data
+@EqualsAndHashCode(callSuper = true)
+public abstract class SequenceBaseEntity extends AbstractEntity {
+
+    @Id
+    @GeneratedValue(generator = PooledLoSequenceGenerator.NAME)
+    @GenericGenerator(name = PooledLoSequenceGenerator.NAME, type = PooledLoSequenceGenerator.class)
+    private Long id;
+}
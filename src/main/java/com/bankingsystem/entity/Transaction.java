@@ -18,12 +18,14 @@ import java.time.LocalDateTime;
  * Transaction entity representing all financial transactions.
  */
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_type_date", columnList = "transaction_type, transaction_date, id")
+})
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
 @AllArgsConstructor
-public class Transaction extends BaseEntity {
+public class Transaction extends SequenceBaseEntity {
 
     @NotNull(message = "Transaction reference is required")
     @Column(name = "transaction_reference", unique = true, nullable = false)
@@ -0,0 +1,9 @@
+package com.bankingsystem.enums;
+
+/**
+ * Enum representing how a batch posting treats legs that fail validation.
+ */
+public enum BatchPostingMode {
+    ALL_OR_NOTHING,
+    BEST_EFFORT
+}
@@ -0,0 +1,21 @@
+package com.bankingsystem.enums;
+
+/**
+ * Enumeration for report job status.
+ */
+public enum ReportJobStatus {
+    QUEUED("Queued"),
+    RUNNING("Running"),
+    COMPLETED("Completed"),
+    FAILED("Failed");
+
+    private final String displayName;
+
+    ReportJobStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
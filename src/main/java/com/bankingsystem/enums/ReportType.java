@@ -0,0 +1,21 @@
+package com.bankingsystem.enums;
+
+/**
+ * Enumeration for the reports that can be generated as background jobs.
+ */
+public enum ReportType {
+    ACCOUNT_STATEMENT("Account Statement"),
+    MONTHLY_STATEMENT("Monthly Statement"),
+    LOAN_STATEMENT("Loan Statement"),
+    CREDIT_CARD_STATEMENT("Credit Card Statement");
+
+    private final String displayName;
+
+    ReportType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
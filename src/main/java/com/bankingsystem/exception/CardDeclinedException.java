@@ -0,0 +1,11 @@
+package com.bankingsystem.exception;
+
+/**
+ * Exception thrown when a card authorization is declined by fraud screening.
+ */
+public class CardDeclinedException extends BankingSystemException {
+
+    public CardDeclinedException(String message) {
+        super(message, "CARD_DECLINED");
+    }
+}
@@ -0,0 +1,126 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.entity.AccountEntry;
+import com.bankingsystem.enums.AccountType;
+import com.bankingsystem.enums.TransactionType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for AccountEntry entity operations.
+ */
+@Repository
+public interface AccountEntryRepository extends JpaRepository<AccountEntry, Long> {
+
+    /**
+     * Entries of an account below {@code beforeSeq}, newest first, with their transaction rows.
+     * Entries without a transaction row (payments, card and loan postings) are skipped.
+     */
+    @Query("SELECT e FROM AccountEntry e JOIN FETCH e.transaction " +
+           "WHERE e.account.id = :accountId AND e.seq < :beforeSeq ORDER BY e.seq DESC")
+    List<AccountEntry> findHistoryBefore(@Param("accountId") Long accountId,
+                                         @Param("beforeSeq") Long beforeSeq,
+                                         Pageable pageable);
+
+    /**
+     * Entries of an account with {@code sinceSeq < seq <= upToSeq}, oldest first.
+     */
+    @Query("SELECT e FROM AccountEntry e WHERE e.account.id = :accountId " +
+           "AND e.seq > :sinceSeq AND e.seq <= :upToSeq ORDER BY e.seq")
+    List<AccountEntry> findEntriesAfter(@Param("accountId") Long accountId,
+                                        @Param("sinceSeq") Long sinceSeq,
+                                        @Param("upToSeq") Long upToSeq,
+                                        Pageable pageable);
+
+    /**
+     * Sum of the account's entries after {@code afterSeq} posted up to {@code at}, or null if none.
+     */
+    @Query("SELECT SUM(e.amount) FROM AccountEntry e WHERE e.account.id = :accountId " +
+           "AND e.seq > :afterSeq AND e.postedAt <= :at")
+    BigDecimal sumAmountAfterSeq(@Param("accountId") Long accountId,
+                                 @Param("afterSeq") Long afterSeq,
+                                 @Param("at") LocalDateTime at);
+
+    /**
+     * Per-account total and last seq of the entries posted before {@code cutoff} that no checkpoint
+     * covers yet. Accounts without such entries are left out.
+     */
+    @Query("SELECT e.account.id AS accountId, MAX(e.seq) AS lastSeq, SUM(e.amount) AS amount " +
+           "FROM AccountEntry e WHERE e.account.id IN :accountIds AND e.postedAt < :cutoff " +
+           "AND e.seq > COALESCE((SELECT MAX(c.seq) FROM BalanceCheckpoint c WHERE c.account.id = e.account.id), 0) " +
+           "GROUP BY e.account.id")
+    List<UncheckpointedTotal> findUncheckpointedTotals(@Param("accountIds") Collection<Long> accountIds,
+                                                       @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Per-account totals of the debits of the given types posted since {@code monthStart}, and of
+     * those since {@code dayStart}, as positive amounts.
+     */
+    @Query("SELECT e.account.id AS ownerId, " +
+           "SUM(CASE WHEN e.postedAt >= :dayStart THEN -e.amount ELSE 0 END) AS dayTotal, " +
+           "SUM(-e.amount) AS monthTotal " +
+           "FROM AccountEntry e WHERE e.entryType IN :types AND e.amount < 0 AND e.postedAt >= :monthStart " +
+           "GROUP BY e.account.id")
+    List<PeriodTotal> sumDebitsByAccountSince(@Param("types") Collection<TransactionType> types,
+                                              @Param("monthStart") LocalDateTime monthStart,
+                                              @Param("dayStart") LocalDateTime dayStart);
+
+    interface UncheckpointedTotal {
+        Long getAccountId();
+
+        Long getLastSeq();
+
+        BigDecimal getAmount();
+    }
+
+    /**
+     * Every account of the user with the number of entries posted in {@code [from, to)} and their
+     * debit and credit totals, both as positive amounts. Accounts without entries in the period
+     * have zero totals.
+     */
+    @Query("SELECT a.id AS accountId, a.accountNumber AS accountNumber, a.accountType AS accountType, " +
+           "a.balance AS balance, COUNT(e.id) AS entryCount, " +
+           "COALESCE(SUM(CASE WHEN e.amount < 0 THEN -e.amount ELSE 0 END), 0) AS debitTotal, " +
+           "COALESCE(SUM(CASE WHEN e.amount > 0 THEN e.amount ELSE 0 END), 0) AS creditTotal " +
+           "FROM Account a LEFT JOIN AccountEntry e ON e.account = a AND e.postedAt >= :from AND e.postedAt < :to " +
+           "WHERE a.user.id = :userId " +
+           "GROUP BY a.id, a.accountNumber, a.accountType, a.balance ORDER BY a.id")
+    List<AccountPeriodSummary> summarizeAccountsByUser(@Param("userId") Long userId,
+                                                       @Param("from") LocalDateTime from,
+                                                       @Param("to") LocalDateTime to);
+
+    interface AccountPeriodSummary {
+        Long getAccountId();
+
+        String getAccountNumber();
+
+        AccountType getAccountType();
+
+        BigDecimal getBalance();
+
+        Long getEntryCount();
+
+        BigDecimal getDebitTotal();
+
+        BigDecimal getCreditTotal();
+    }
+
+    /**
+     * Total debited from the account by postings of one type in the date range, as a positive amount.
+     */
+    @Query("SELECT SUM(-e.amount) FROM AccountEntry e WHERE e.account.id = :accountId " +
+           "AND e.entryType = :transactionType AND e.amount < 0 " +
+           "AND e.postedAt BETWEEN :startDate AND :endDate")
+    BigDecimal sumAmountByAccountAndTypeAndDateRange(@Param("accountId") Long accountId,
+                                                     @Param("transactionType") TransactionType transactionType,
+                                                     @Param("startDate") LocalDateTime startDate,
+                                                     @Param("endDate") LocalDateTime endDate);
+}
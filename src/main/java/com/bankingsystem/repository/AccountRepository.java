@@ -3,7 +3,11 @@ package com.bankingsystem.repository;
 import com.bankingsystem.entity.Account;
 import com.bankingsystem.entity.User;
 import com.bankingsystem.enums.AccountType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -48,4 +52,109 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     BigDecimal getTotalBalanceByUserId(@Param("userId") Long userId);
     
     boolean existsByAccountNumber(String accountNumber);
+
+    @Query("SELECT a.id FROM Account a WHERE a.id > :afterId ORDER BY a.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id = :accountId")
+    Optional<Account> findByIdForUpdate(@Param("accountId") Long accountId);
+
+    /**
+     * Accounts that have never had a ledger entry posted, in id order, locked for the entry backfill.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.entrySequence = 0 AND a.id > :afterId ORDER BY a.id")
+    List<Account> findWithoutEntriesAfterForUpdate(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Debits the account in a single conditional UPDATE. The row is only touched when the
+     * resulting available balance (the balance less card authorization holds) stays at or above
+     * {@code floor}, so concurrent withdrawals neither lose updates nor fail on version conflicts.
+     * Returns the number of rows updated (0 or 1).
+     */
+    default int debitIfSufficient(Long accountId, BigDecimal amount, BigDecimal floor) {
+        return debitIfSufficient(accountId, amount, floor, 1);
+    }
+
+    /**
+     * Same as {@link #debitIfSufficient(Long, BigDecimal, BigDecimal)} for a net amount made of
+     * {@code entries} postings; reserves that many entry sequence numbers.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Account a SET a.balance = a.balance - :amount, " +
+           "a.availableBalance = a.availableBalance - :amount, " +
+           "a.entrySequence = a.entrySequence + :entries, a.version = a.version + 1 " +
+           "WHERE a.id = :accountId AND a.availableBalance - :amount >= :floor")
+    int debitIfSufficient(@Param("accountId") Long accountId,
+                          @Param("amount") BigDecimal amount,
+                          @Param("floor") BigDecimal floor,
+                          @Param("entries") long entries);
+
+    /**
+     * Credits the account in a single UPDATE. Returns the number of rows updated (0 or 1).
+     */
+    default int credit(Long accountId, BigDecimal amount) {
+        return credit(accountId, amount, 1);
+    }
+
+    /**
+     * Same as {@link #credit(Long, BigDecimal)} for a net amount made of {@code entries} postings;
+     * reserves that many entry sequence numbers.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Account a SET a.balance = a.balance + :amount, " +
+           "a.availableBalance = a.availableBalance + :amount, " +
+           "a.entrySequence = a.entrySequence + :entries, a.version = a.version + 1 " +
+           "WHERE a.id = :accountId")
+    int credit(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount, @Param("entries") long entries);
+
+    /**
+     * Places an authorization hold: only the available balance goes down, and only if it stays at
+     * or above {@code floor}. Returns the number of rows updated (0 or 1).
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Account a SET a.availableBalance = a.availableBalance - :amount, a.version = a.version + 1 " +
+           "WHERE a.id = :accountId AND a.availableBalance - :amount >= :floor")
+    int holdIfAvailable(@Param("accountId") Long accountId,
+                        @Param("amount") BigDecimal amount,
+                        @Param("floor") BigDecimal floor);
+
+    /**
+     * Settles a hold of {@code heldAmount} for {@code clearedAmount}: the balance is debited and
+     * the hold is swapped for the cleared amount. Reserves one entry sequence number. Clearing more
+     * than was held only succeeds if the available balance covers the excess; returns 0 otherwise.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Account a SET a.balance = a.balance - :clearedAmount, " +
+           "a.availableBalance = a.availableBalance + :heldAmount - :clearedAmount, " +
+           "a.entrySequence = a.entrySequence + 1, a.version = a.version + 1 " +
+           "WHERE a.id = :accountId " +
+           "AND (:clearedAmount <= :heldAmount OR a.availableBalance + :heldAmount - :clearedAmount >= 0)")
+    int settleHold(@Param("accountId") Long accountId,
+                   @Param("heldAmount") BigDecimal heldAmount,
+                   @Param("clearedAmount") BigDecimal clearedAmount);
+
+    /**
+     * Gives a held amount back to the available balance.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Account a SET a.availableBalance = a.availableBalance + :amount, a.version = a.version + 1 " +
+           "WHERE a.id = :accountId")
+    int releaseHold(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount);
+
+    @Query("SELECT a.balance FROM Account a WHERE a.id = :accountId")
+    BigDecimal findBalanceById(@Param("accountId") Long accountId);
+
+    /**
+     * Balance and last entry sequence as left by this transaction's last UPDATE of the account.
+     */
+    @Query("SELECT a.balance AS balance, a.entrySequence AS entrySequence FROM Account a WHERE a.id = :accountId")
+    LedgerPosition findLedgerPositionById(@Param("accountId") Long accountId);
+
+    interface LedgerPosition {
+        BigDecimal getBalance();
+
+        Long getEntrySequence();
+    }
 }
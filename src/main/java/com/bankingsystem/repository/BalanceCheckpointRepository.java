@@ -0,0 +1,26 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.entity.BalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for BalanceCheckpoint entity operations.
+ */
+@Repository
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, Long> {
+
+    Optional<BalanceCheckpoint> findFirstByAccountIdAndCheckpointAtLessThanEqualOrderByCheckpointAtDesc(
+            Long accountId, LocalDateTime at);
+
+    @Query("SELECT c FROM BalanceCheckpoint c WHERE c.account.id IN :accountIds AND c.checkpointAt = " +
+           "(SELECT MAX(c2.checkpointAt) FROM BalanceCheckpoint c2 WHERE c2.account.id = c.account.id)")
+    List<BalanceCheckpoint> findLatestByAccountIds(@Param("accountIds") Collection<Long> accountIds);
+}
@@ -6,10 +6,12 @@ import com.bankingsystem.entity.User;
 import com.bankingsystem.enums.CardStatus;
 import com.bankingsystem.enums.CardType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +23,16 @@ import java.util.Optional;
 public interface CardRepository extends JpaRepository<Card, Long> {
 
     Optional<Card> findByCardNumber(String cardNumber);
+
+    /**
+     * What card authorization needs to know about a card, without loading the card, its account or its user.
+     */
+    @Query("SELECT c.id AS id, c.version AS version, c.cardType AS cardType, c.status AS status, " +
+           "c.expiryDate AS expiryDate, c.dailyLimit AS dailyLimit, c.monthlyLimit AS monthlyLimit, " +
+           "c.contactlessEnabled AS contactlessEnabled, c.onlineTransactionsEnabled AS onlineTransactionsEnabled, " +
+           "c.internationalTransactionsEnabled AS internationalTransactionsEnabled, " +
+           "c.account.id AS accountId, c.user.id AS userId FROM Card c WHERE c.cardNumber = :cardNumber")
+    Optional<AuthorizationView> findAuthorizationViewByCardNumber(@Param("cardNumber") String cardNumber);
     
     List<Card> findByUser(User user);
     
@@ -56,4 +68,47 @@ public interface CardRepository extends JpaRepository<Card, Long> {
     Long countActiveCardsByUserId(@Param("userId") Long userId);
     
     boolean existsByCardNumber(String cardNumber);
+
+    /**
+     * Draws down the card's available credit in a single conditional UPDATE.
+     * Returns the number of rows updated (0 when the credit is insufficient).
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Card c SET c.availableCredit = c.availableCredit - :amount, c.version = c.version + 1 " +
+           "WHERE c.id = :cardId AND c.availableCredit >= :amount")
+    int debitAvailableCreditIfSufficient(@Param("cardId") Long cardId, @Param("amount") BigDecimal amount);
+
+    /**
+     * Adds to the available credit; a negative amount takes credit away without a check.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Card c SET c.availableCredit = c.availableCredit + :amount, c.version = c.version + 1 " +
+           "WHERE c.id = :cardId")
+    int addAvailableCredit(@Param("cardId") Long cardId, @Param("amount") BigDecimal amount);
+
+    interface AuthorizationView {
+        Long getId();
+
+        Long getVersion();
+
+        CardType getCardType();
+
+        CardStatus getStatus();
+
+        LocalDate getExpiryDate();
+
+        BigDecimal getDailyLimit();
+
+        BigDecimal getMonthlyLimit();
+
+        Boolean getContactlessEnabled();
+
+        Boolean getOnlineTransactionsEnabled();
+
+        Boolean getInternationalTransactionsEnabled();
+
+        Long getAccountId();
+
+        Long getUserId();
+    }
 }
@@ -1,10 +1,19 @@
 package com.bankingsystem.repository;
 
 import com.bankingsystem.entity.CardTransaction;
+import com.bankingsystem.enums.TransactionStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for CardTransaction entity.
@@ -15,4 +24,51 @@ public interface CardTransactionRepository extends JpaRepository<CardTransaction
     List<CardTransaction> findByCardIdOrderByTransactionDateDesc(Long cardId);
     
     List<CardTransaction> findByCardUserIdOrderByTransactionDateDesc(Long userId);
+
+    @Query("SELECT t FROM CardTransaction t WHERE t.card.id = :cardId AND t.status IN :statuses " +
+           "ORDER BY t.transactionDate DESC")
+    List<CardTransaction> findRecentByCardId(@Param("cardId") Long cardId,
+                                             @Param("statuses") Collection<TransactionStatus> statuses,
+                                             Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM CardTransaction t WHERE t.id = :id")
+    Optional<CardTransaction> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM CardTransaction t WHERE t.transactionReference = :reference")
+    Optional<CardTransaction> findByTransactionReferenceForUpdate(@Param("reference") String reference);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM CardTransaction t JOIN FETCH t.card WHERE t.transactionReference IN :references")
+    List<CardTransaction> findByTransactionReferenceInForUpdate(@Param("references") Collection<String> references);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM CardTransaction t JOIN FETCH t.card " +
+           "WHERE t.authorizationCode IN :codes AND t.status = :status")
+    List<CardTransaction> findByAuthorizationCodeInForUpdate(@Param("codes") Collection<String> codes,
+                                                             @Param("status") TransactionStatus status);
+
+    @Query("SELECT t.id AS id, t.holdExpiresAt AS holdExpiresAt FROM CardTransaction t " +
+           "WHERE t.status = :status AND t.holdExpiresAt IS NOT NULL")
+    List<HoldExpiry> findHoldExpiries(@Param("status") TransactionStatus status);
+
+    /**
+     * Per-card totals of the transactions with the given statuses since {@code monthStart}, and of
+     * those since {@code dayStart}.
+     */
+    @Query("SELECT t.card.id AS ownerId, " +
+           "SUM(CASE WHEN t.transactionDate >= :dayStart THEN t.amount ELSE 0 END) AS dayTotal, " +
+           "SUM(t.amount) AS monthTotal " +
+           "FROM CardTransaction t WHERE t.status IN :statuses AND t.transactionDate >= :monthStart " +
+           "GROUP BY t.card.id")
+    List<PeriodTotal> sumByCardSince(@Param("statuses") Collection<TransactionStatus> statuses,
+                                     @Param("monthStart") LocalDateTime monthStart,
+                                     @Param("dayStart") LocalDateTime dayStart);
+
+    interface HoldExpiry {
+        Long getId();
+
+        LocalDateTime getHoldExpiresAt();
+    }
 }
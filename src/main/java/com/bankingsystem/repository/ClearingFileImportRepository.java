@@ -0,0 +1,26 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.entity.ClearingFileImport;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for ClearingFileImport entity operations.
+ */
+@Repository
+public interface ClearingFileImportRepository extends JpaRepository<ClearingFileImport, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM ClearingFileImport i WHERE i.fileName = :fileName")
+    Optional<ClearingFileImport> findByFileNameForUpdate(@Param("fileName") String fileName);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM ClearingFileImport i WHERE i.id = :id")
+    Optional<ClearingFileImport> findByIdForUpdate(@Param("id") Long id);
+}
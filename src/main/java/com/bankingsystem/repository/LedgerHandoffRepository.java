@@ -0,0 +1,16 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.entity.LedgerHandoff;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for LedgerHandoff entity operations.
+ */
+@Repository
+public interface LedgerHandoffRepository extends JpaRepository<LedgerHandoff, Long> {
+
+    List<LedgerHandoff> findAllByOrderByIdAsc();
+}
@@ -45,4 +45,14 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
                                                      @Param("endDate") LocalDateTime endDate);
     
     boolean existsByPaymentReference(String paymentReference);
+
+    /**
+     * Per-account totals of the payments made since {@code monthStart}, and of those since {@code dayStart}.
+     */
+    @Query("SELECT p.fromAccount.id AS ownerId, " +
+           "SUM(CASE WHEN p.createdAt >= :dayStart THEN p.amount ELSE 0 END) AS dayTotal, " +
+           "SUM(p.amount) AS monthTotal " +
+           "FROM Payment p WHERE p.createdAt >= :monthStart GROUP BY p.fromAccount.id")
+    List<PeriodTotal> sumByFromAccountSince(@Param("monthStart") LocalDateTime monthStart,
+                                            @Param("dayStart") LocalDateTime dayStart);
 }
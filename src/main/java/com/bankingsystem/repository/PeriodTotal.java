@@ -0,0 +1,15 @@
+package com.bankingsystem.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Day-to-date and month-to-date totals of one account or card, as loaded into the limits engine.
+ */
+public interface PeriodTotal {
+
+    Long getOwnerId();
+
+    BigDecimal getDayTotal();
+
+    BigDecimal getMonthTotal();
+}
@@ -0,0 +1,14 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One line of an account statement: only the columns the statement template prints. The amount is
+ * signed, negative for debits.
+ */
+public record StatementLine(String transactionReference, LocalDateTime transactionDate, String description,
+                            BigDecimal amount, TransactionType transactionType) {
+}
@@ -4,17 +4,22 @@ import com.bankingsystem.entity.Account;
 import com.bankingsystem.entity.Transaction;
 import com.bankingsystem.enums.TransactionStatus;
 import com.bankingsystem.enums.TransactionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Transaction entity operations.
@@ -32,7 +37,20 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     
     List<Transaction> findByStatus(TransactionStatus status);
     
-    List<Transaction> findByTransactionType(TransactionType transactionType);
+    @Query(value = "SELECT t FROM Transaction t LEFT JOIN FETCH t.fromAccount LEFT JOIN FETCH t.toAccount " +
+                   "LEFT JOIN FETCH t.initiatedBy WHERE t.transactionType = :transactionType " +
+                   "AND (:status IS NULL OR t.status = :status) " +
+                   "AND (:startDate IS NULL OR t.transactionDate >= :startDate) " +
+                   "AND (:endDate IS NULL OR t.transactionDate <= :endDate)",
+           countQuery = "SELECT COUNT(t) FROM Transaction t WHERE t.transactionType = :transactionType " +
+                        "AND (:status IS NULL OR t.status = :status) " +
+                        "AND (:startDate IS NULL OR t.transactionDate >= :startDate) " +
+                        "AND (:endDate IS NULL OR t.transactionDate <= :endDate)")
+    Page<Transaction> findByTransactionType(@Param("transactionType") TransactionType transactionType,
+                                            @Param("status") TransactionStatus status,
+                                            @Param("startDate") LocalDateTime startDate,
+                                            @Param("endDate") LocalDateTime endDate,
+                                            Pageable pageable);
     
     @Query("SELECT t FROM Transaction t WHERE t.fromAccount.id = :accountId OR t.toAccount.id = :accountId ORDER BY t.transactionDate DESC")
     Page<Transaction> findByAccountId(@Param("accountId") Long accountId, Pageable pageable);
@@ -40,14 +58,33 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     @Query("SELECT t FROM Transaction t WHERE t.initiatedBy.id = :userId ORDER BY t.transactionDate DESC")
     Page<Transaction> findByUserId(@Param("userId") Long userId, Pageable pageable);
 
-    @Query("SELECT t FROM Transaction t WHERE (t.fromAccount.id = :accountId OR t.toAccount.id = :accountId) " +
-           "AND t.transactionDate BETWEEN :fromDate AND :toDate ORDER BY t.transactionDate DESC")
+    /**
+     * The account's own side of each transaction in the date range, newest first, read through
+     * its ledger entries.
+     */
+    @Query("SELECT t FROM AccountEntry e JOIN e.transaction t WHERE e.account.id = :accountId " +
+           "AND e.postedAt BETWEEN :fromDate AND :toDate ORDER BY e.seq DESC")
     List<Transaction> findByAccountAndDateRange(@Param("accountId") Long accountId, 
                                               @Param("fromDate") LocalDateTime fromDate, 
                                               @Param("toDate") LocalDateTime toDate);
+
+    /**
+     * Every entry of the account in the date range, newest first, as a flat statement line with the
+     * signed amount, so the lines add up from the opening to the closing balance. Entries without a
+     * transaction row (card, payment, loan and fee postings) use their own reference and description.
+     * Read through a forward-only cursor; must be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.bankingsystem.repository.StatementLine(COALESCE(t.transactionReference, e.reference), " +
+           "COALESCE(t.transactionDate, e.postedAt), COALESCE(t.description, e.description), e.amount, e.entryType) " +
+           "FROM AccountEntry e LEFT JOIN e.transaction t WHERE e.account.id = :accountId " +
+           "AND e.postedAt BETWEEN :fromDate AND :toDate ORDER BY e.seq DESC")
+    Stream<StatementLine> streamStatementLines(@Param("accountId") Long accountId,
+                                              @Param("fromDate") LocalDateTime fromDate,
+                                              @Param("toDate") LocalDateTime toDate);
     
-    @Query("SELECT t FROM Transaction t WHERE (t.fromAccount.id = :accountId OR t.toAccount.id = :accountId) " +
-           "AND t.transactionDate BETWEEN :startDate AND :endDate ORDER BY t.transactionDate DESC")
+    @Query("SELECT t FROM AccountEntry e JOIN e.transaction t WHERE e.account.id = :accountId " +
+           "AND e.postedAt BETWEEN :startDate AND :endDate ORDER BY e.seq DESC")
     List<Transaction> findByAccountIdAndDateRange(@Param("accountId") Long accountId, 
                                                   @Param("startDate") LocalDateTime startDate,
                                                   @Param("endDate") LocalDateTime endDate);
@@ -58,14 +95,6 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     @Query("SELECT t FROM Transaction t WHERE t.status = 'PENDING' AND t.transactionDate < :cutoffTime")
     List<Transaction> findPendingTransactionsOlderThan(@Param("cutoffTime") LocalDateTime cutoffTime);
     
-    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.fromAccount.id = :accountId " +
-           "AND t.transactionType = :transactionType AND t.status = 'COMPLETED' " +
-           "AND t.transactionDate BETWEEN :startDate AND :endDate")
-    BigDecimal sumAmountByAccountAndTypeAndDateRange(@Param("accountId") Long accountId,
-                                                     @Param("transactionType") TransactionType transactionType,
-                                                     @Param("startDate") LocalDateTime startDate,
-                                                     @Param("endDate") LocalDateTime endDate);
-    
     @Query("SELECT COUNT(t) FROM Transaction t WHERE t.fromAccount.id = :accountId " +
            "AND t.transactionDate BETWEEN :startDate AND :endDate")
     Long countTransactionsByAccountAndDateRange(@Param("accountId") Long accountId,
@@ -73,4 +102,34 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
                                                 @Param("endDate") LocalDateTime endDate);
     
     boolean existsByTransactionReference(String transactionReference);
+
+    /**
+     * Completed transactions touching any of the accounts, oldest first, for building the ledger
+     * entries of history written before accounts had entries.
+     */
+    @Query("SELECT t.id AS id, t.transactionReference AS reference, t.transactionType AS type, t.amount AS amount, " +
+           "t.description AS description, t.transactionDate AS transactionDate, " +
+           "f.id AS fromAccountId, r.id AS toAccountId " +
+           "FROM Transaction t LEFT JOIN t.fromAccount f LEFT JOIN t.toAccount r " +
+           "WHERE t.status = com.bankingsystem.enums.TransactionStatus.COMPLETED " +
+           "AND (f.id IN :accountIds OR r.id IN :accountIds) ORDER BY t.transactionDate, t.id")
+    List<Posting> findCompletedPostings(@Param("accountIds") Collection<Long> accountIds);
+
+    interface Posting {
+        Long getId();
+
+        String getReference();
+
+        TransactionType getType();
+
+        BigDecimal getAmount();
+
+        String getDescription();
+
+        LocalDateTime getTransactionDate();
+
+        Long getFromAccountId();
+
+        Long getToAccountId();
+    }
 }
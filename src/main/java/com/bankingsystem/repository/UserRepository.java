@@ -18,6 +18,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
     
+    @Query("SELECT CASE WHEN u.isEnabled = true AND u.isAccountNonLocked = true THEN true ELSE false END " +
+           "FROM User u WHERE u.id = :userId")
+    Optional<Boolean> isActiveById(@Param("userId") Long userId);
+    
     Optional<User> findByEmail(String email);
     
     boolean existsByUsername(String username);
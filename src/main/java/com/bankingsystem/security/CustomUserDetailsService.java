@@ -1,6 +1,7 @@
 package com.bankingsystem.security;
 
 import com.bankingsystem.entity.User;
+import com.bankingsystem.enums.UserRole;
 import com.bankingsystem.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
@@ -31,50 +32,70 @@ public class CustomUserDetailsService implements UserDetailsService {
     }
 
     /**
-     * Custom UserDetails implementation.
+     * Custom UserDetails implementation. Built either from a loaded User or, for authenticated
+     * requests, straight from the access token claims, in which case no User entity is attached.
      */
     public static class CustomUserPrincipal implements UserDetails {
         private final User user;
+        private final Long userId;
+        private final String username;
+        private final UserRole role;
+        private final boolean enabled;
+        private final boolean accountNonLocked;
 
         public CustomUserPrincipal(User user) {
             this.user = user;
+            this.userId = user.getId();
+            this.username = user.getUsername();
+            this.role = user.getRole();
+            this.enabled = Boolean.TRUE.equals(user.getIsEnabled());
+            this.accountNonLocked = Boolean.TRUE.equals(user.getIsAccountNonLocked());
+        }
+
+        public CustomUserPrincipal(Long userId, String username, UserRole role, boolean active) {
+            this.user = null;
+            this.userId = userId;
+            this.username = username;
+            this.role = role;
+            this.enabled = active;
+            this.accountNonLocked = active;
         }
 
         @Override
         public String getUsername() {
-            return user.getUsername();
+            return username;
         }
 
         @Override
         public String getPassword() {
-            return user.getPassword();
+            return user != null ? user.getPassword() : null;
         }
 
         @Override
         public List<GrantedAuthority> getAuthorities() {
             List<GrantedAuthority> authorities = new ArrayList<>();
-            authorities.add(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role.name()));
             return authorities;
         }
 
         @Override
         public boolean isAccountNonExpired() {
-            return user.getIsAccountNonExpired();
+            return user == null || user.getIsAccountNonExpired();
         }
 
         @Override
         public boolean isAccountNonLocked() {
-            return user.getIsAccountNonLocked();
+            return accountNonLocked;
         }
 
         @Override
         public boolean isCredentialsNonExpired() {
-            return user.getIsCredentialsNonExpired();
+            return user == null || user.getIsCredentialsNonExpired();
         }
 
         @Override
         public boolean isEnabled() {
-            return user.getIsEnabled();
+            return enabled;
         }
 
         public User getUser() {
@@ -82,15 +103,19 @@ public class CustomUserDetailsService implements UserDetailsService {
         }
 
         public Long getUserId() {
-            return user.getId();
+            return userId;
+        }
+
+        public UserRole getRole() {
+            return role;
         }
 
         public String getEmail() {
-            return user.getEmail();
+            return user != null ? user.getEmail() : null;
         }
 
         public String getFullName() {
-            return user.getFullName();
+            return user != null ? user.getFullName() : null;
         }
     }
 }
@@ -0,0 +1,271 @@
+package com.bankingsystem.security;
+
+import com.bankingsystem.exception.GlobalExceptionHandler;
+import com.bankingsystem.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Honours the Idempotency-Key header on the money-moving endpoints.
+ *
+ * The first request with a key executes and its response is stored; a retry with the same key
+ * and body gets the stored response back without reaching the controller. Reusing a key with a
+ * different body is rejected with 422, and a retry arriving while the first attempt is still
+ * held by another instance gets 409. Keys are scoped to the authenticated user.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotency-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final String STATE_ATTRIBUTE = IdempotencyFilter.class.getName() + ".STATE";
+
+    // Relative to the context path
+    private static final Set<String> IDEMPOTENT_PATHS = Set.of(
+            "/api/v1/transactions/deposit",
+            "/api/v1/transactions/withdraw",
+            "/api/v1/transactions/transfer",
+            "/api/v1/transactions/batch",
+            "/api/v1/payments/internal-transfer",
+            "/api/v1/payments/external-transfer",
+            "/api/v1/cards/transactions");
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private record State(String cacheKey, String requestHash, ContentCachingResponseWrapper response) {
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !IDEMPOTENT_PATHS.contains(pathWithinContext(request));
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // The deferred response of async controller methods is written during the async dispatch
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+
+        if (isAsyncDispatch(request)) {
+            State state = (State) request.getAttribute(STATE_ATTRIBUTE);
+            if (state == null) {
+                chain.doFilter(request, response);
+                return;
+            }
+            proceed(request, response, chain, state);
+            return;
+        }
+
+        String key = request.getHeader(HEADER);
+        Long userId = currentUserId();
+        if (key == null || key.isBlank() || userId == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST, "Bad Request",
+                    HEADER + " must be at most " + MAX_KEY_LENGTH + " characters", "IDEMPOTENCY_KEY_INVALID");
+            return;
+        }
+
+        // Parameters first: for form posts this parses the body before it is cached
+        Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String path = pathWithinContext(request);
+        String cacheKey = userId + ":" + request.getMethod() + ":" + path + ":" + key;
+        String requestHash = hash(request.getMethod(), path, parameters, cachedRequest.body);
+
+        IdempotencyService.Claim claim = idempotencyService.claim(cacheKey, requestHash);
+        switch (claim.decision()) {
+            case REPLAY -> {
+                IdempotencyService.StoredResponse stored = claim.response();
+                response.setStatus(stored.status());
+                if (stored.contentType() != null) {
+                    response.setContentType(stored.contentType());
+                }
+                response.setHeader(REPLAYED_HEADER, "true");
+                if (stored.body() != null) {
+                    response.setContentLength(stored.body().length);
+                    response.getOutputStream().write(stored.body());
+                }
+            }
+            case MISMATCH -> writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY, "Unprocessable Entity",
+                    HEADER + " was already used with a different request", "IDEMPOTENCY_KEY_REUSED");
+            case IN_PROGRESS -> writeError(request, response, HttpStatus.CONFLICT, "Conflict",
+                    "A request with this " + HEADER + " is still being processed", "IDEMPOTENCY_KEY_IN_PROGRESS");
+            case PROCEED -> {
+                State state = new State(cacheKey, requestHash, new ContentCachingResponseWrapper(response));
+                proceed(cachedRequest, state.response(), chain, state);
+            }
+        }
+    }
+
+    private void proceed(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                         State state) throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            request.removeAttribute(STATE_ATTRIBUTE);
+            idempotencyService.abandon(state.cacheKey());
+            throw e;
+        }
+
+        if (request.isAsyncStarted()) {
+            request.setAttribute(STATE_ATTRIBUTE, state);
+            return;
+        }
+        request.removeAttribute(STATE_ATTRIBUTE);
+
+        ContentCachingResponseWrapper wrapper = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (wrapper == null) {
+            wrapper = state.response();
+        }
+        int status = wrapper.getStatus();
+        if (status >= 500) {
+            // Server errors are not final, so the client may retry with the same key
+            idempotencyService.abandon(state.cacheKey());
+        } else {
+            idempotencyService.complete(state.cacheKey(), state.requestHash(), status,
+                    wrapper.getContentType(), wrapper.getContentAsByteArray());
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                            String error, String message, String errorCode) throws IOException {
+        GlobalExceptionHandler.ErrorResponse errorResponse = GlobalExceptionHandler.ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(error)
+                .message(message)
+                .errorCode(errorCode)
+                .path(request.getRequestURI())
+                .build();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null
+                && authentication.getPrincipal() instanceof CustomUserDetailsService.CustomUserPrincipal principal) {
+            return principal.getUserId();
+        }
+        return null;
+    }
+
+    private static String pathWithinContext(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String hash(String method, String path, Map<String, String[]> parameters, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder head = new StringBuilder(method).append('\n').append(path).append('\n');
+            parameters.forEach((name, values) -> head.append(name).append('=')
+                    .append(String.join(",", values)).append('\n'));
+            digest.update(head.toString().getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Request whose body has been read up front, so it can be hashed before the controller reads it.
+     */
+    static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // The whole body is already in memory, so it is ready to read straight away
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
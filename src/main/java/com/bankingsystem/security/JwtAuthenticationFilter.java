@@ -28,32 +28,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private UserStatusCache userStatusCache;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                     FilterChain chain) throws ServletException, IOException {
         
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwtToken = null;
+        JwtUtil.ParsedToken token = null;
 
         // JWT Token is in the form "Bearer token"
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
+            String jwtToken = requestTokenHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwtToken);
+                // Verified once per request; rejects bad signatures and expired tokens
+                token = jwtUtil.parse(jwtToken);
             } catch (Exception e) {
                 logger.warn("Unable to get JWT Token: " + e.getMessage());
             }
         }
 
-        // Validate token and set authentication
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        // Build the principal from the token claims and set authentication
+        if (token != null && token.subject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+
+            UserDetails userDetails = jwtUtil.extractPrincipal(token);
+            if (userDetails == null) {
+                // Token issued before user claims were added
+                userDetails = this.userDetailsService.loadUserByUsername(token.subject());
+            } else if (!userStatusCache.isActive(((CustomUserDetailsService.CustomUserPrincipal) userDetails).getUserId())) {
+                userDetails = null;
+            }
 
-            // If token is valid configure Spring Security to manually set authentication
-            if (jwtUtil.validateToken(jwtToken, userDetails)) {
+            if (userDetails != null && userDetails.isEnabled() && userDetails.isAccountNonLocked()) {
                 UsernamePasswordAuthenticationToken authToken = 
                     new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
@@ -0,0 +1,65 @@
+package com.bankingsystem.security;
+
+import com.bankingsystem.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived in-memory cache of whether a user may still authenticate (enabled and not locked).
+ *
+ * Tokens carry the user's status at issue time; this cache lets a disabled or locked user be
+ * rejected within the TTL without querying the users table on every request. Status changes made through
+ * UserService evict the entry on this node.
+ */
+@Component
+public class UserStatusCache {
+
+    private static final int MAX_ENTRIES = 100_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.security.user-status-cache-ttl:30000}")
+    private long ttlMillis;
+
+    private final Map<Long, CachedStatus> statuses = new ConcurrentHashMap<>();
+
+    public boolean isActive(Long userId) {
+        long now = System.currentTimeMillis();
+        CachedStatus cached = statuses.get(userId);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.active();
+        }
+        boolean active = userRepository.isActiveById(userId).orElse(false);
+        if (statuses.size() >= MAX_ENTRIES) {
+            statuses.values().removeIf(status -> status.expiresAt() <= now);
+        }
+        statuses.put(userId, new CachedStatus(active, now + ttlMillis));
+        return active;
+    }
+
+    /**
+     * Drop the cached status now and, inside a transaction, again after commit so a concurrent
+     * request cannot re-cache the old status in between.
+     */
+    public void evict(Long userId) {
+        statuses.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    statuses.remove(userId);
+                }
+            });
+        }
+    }
+
+    private record CachedStatus(boolean active, long expiresAt) {
+    }
+}
@@ -0,0 +1,191 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.entity.AccountEntry;
+import com.bankingsystem.entity.Transaction;
+import com.bankingsystem.enums.TransactionType;
+import com.bankingsystem.repository.AccountEntryRepository;
+import com.bankingsystem.repository.AccountRepository;
+import com.bankingsystem.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates ledger entries for accounts whose history predates them.
+ *
+ * History, date-range queries, statements, point-in-time balances and the limits counters all read
+ * {@code account_entries}. An account that has never had an entry posted gets, in one transaction
+ * with its row locked, an opening-balance entry followed by one entry per completed transaction in
+ * date order, and its entry sequence is moved past them. The opening entry is the current balance
+ * less those transactions, so it also covers postings that left no transaction row, and the running
+ * balance of the last entry equals the balance. A transfer's -DEBIT row is the source account's
+ * side and its -CREDIT row the destination's.
+ *
+ * Runs at startup, before requests are served, so no account is posted to while it is backfilled.
+ * Accounts without transactions or balance are left alone; their first posting starts the ledger.
+ */
+@Component
+@Slf4j
+public class AccountEntryBackfillJob {
+
+    private final AccountRepository accountRepository;
+    private final AccountEntryRepository accountEntryRepository;
+    private final TransactionRepository transactionRepository;
+    private final LimitsEngine limitsEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int pageSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public AccountEntryBackfillJob(AccountRepository accountRepository,
+                                   AccountEntryRepository accountEntryRepository,
+                                   TransactionRepository transactionRepository,
+                                   LimitsEngine limitsEngine,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${banking.ledger.backfill.enabled:true}") boolean enabled,
+                                   @Value("${banking.ledger.backfill.page-size:200}") int pageSize) {
+        this.accountRepository = accountRepository;
+        this.accountEntryRepository = accountEntryRepository;
+        this.transactionRepository = transactionRepository;
+        this.limitsEngine = limitsEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.pageSize = pageSize;
+    }
+
+    @PostConstruct
+    public void backfillOnStartup() {
+        if (enabled) {
+            backfill();
+        }
+    }
+
+    /**
+     * Backfills every account that has no entries yet, a page of accounts per transaction.
+     *
+     * @return the number of accounts backfilled
+     */
+    public int backfill() {
+        long start = System.currentTimeMillis();
+        int backfilled = 0;
+        Long afterId = 0L;
+        List<Long> lastIds;
+        do {
+            Long pageAfter = afterId;
+            lastIds = new ArrayList<>();
+            List<Long> seen = lastIds;
+            backfilled += transactionTemplate.execute(status -> backfillPage(pageAfter, seen));
+            if (!lastIds.isEmpty()) {
+                afterId = lastIds.get(lastIds.size() - 1);
+            }
+        } while (lastIds.size() == pageSize);
+
+        if (backfilled > 0) {
+            // The counters were loaded before these entries existed
+            limitsEngine.rebuild();
+            log.info("Backfilled ledger entries for {} accounts in {} ms", backfilled, System.currentTimeMillis() - start);
+        }
+        return backfilled;
+    }
+
+    private int backfillPage(Long afterId, List<Long> seen) {
+        List<Account> accounts = accountRepository.findWithoutEntriesAfterForUpdate(afterId, PageRequest.of(0, pageSize));
+        Map<Long, Account> byId = new HashMap<>();
+        for (Account account : accounts) {
+            seen.add(account.getId());
+            byId.put(account.getId(), account);
+        }
+        if (accounts.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, List<AccountEntry>> history = new HashMap<>();
+        for (TransactionRepository.Posting posting : transactionRepository.findCompletedPostings(byId.keySet())) {
+            String reference = posting.getReference();
+            if (byId.containsKey(posting.getFromAccountId()) && !reference.endsWith("-CREDIT")) {
+                history.computeIfAbsent(posting.getFromAccountId(), id -> new ArrayList<>())
+                        .add(newEntry(posting, posting.getAmount().negate()));
+            }
+            if (byId.containsKey(posting.getToAccountId()) && !reference.endsWith("-DEBIT")) {
+                history.computeIfAbsent(posting.getToAccountId(), id -> new ArrayList<>())
+                        .add(newEntry(posting, posting.getAmount()));
+            }
+        }
+
+        int backfilled = 0;
+        List<AccountEntry> entries = new ArrayList<>();
+        for (Account account : accounts) {
+            List<AccountEntry> postings = history.getOrDefault(account.getId(), List.of());
+            BigDecimal balance = account.getBalance() != null ? account.getBalance() : BigDecimal.ZERO;
+            if (postings.isEmpty() && balance.signum() == 0) {
+                continue;
+            }
+            BigDecimal opening = balance;
+            for (AccountEntry entry : postings) {
+                opening = opening.subtract(entry.getAmount());
+            }
+
+            AccountEntry openingEntry = new AccountEntry();
+            openingEntry.setEntryType(opening.signum() < 0 ? TransactionType.CHARGE : TransactionType.DEPOSIT);
+            openingEntry.setAmount(opening);
+            openingEntry.setReference(account.getAccountNumber());
+            openingEntry.setDescription("Opening balance");
+            openingEntry.setPostedAt(openedAt(account, postings));
+
+            long seq = 0;
+            BigDecimal runningBalance = BigDecimal.ZERO;
+            List<AccountEntry> ledger = new ArrayList<>(postings.size() + 1);
+            ledger.add(openingEntry);
+            ledger.addAll(postings);
+            for (AccountEntry entry : ledger) {
+                runningBalance = runningBalance.add(entry.getAmount());
+                entry.setAccount(account);
+                entry.setSeq(++seq);
+                entry.setRunningBalance(runningBalance);
+                entries.add(entry);
+            }
+            account.setEntrySequence(seq);
+            backfilled++;
+        }
+        accountEntryRepository.saveAll(entries);
+        return backfilled;
+    }
+
+    private AccountEntry newEntry(TransactionRepository.Posting posting, BigDecimal signedAmount) {
+        AccountEntry entry = new AccountEntry();
+        entry.setEntryType(posting.getType());
+        entry.setAmount(signedAmount);
+        entry.setReference(posting.getReference());
+        entry.setDescription(posting.getDescription());
+        entry.setPostedAt(posting.getTransactionDate());
+        entry.setTransaction(entityManager.getReference(Transaction.class, posting.getId()));
+        return entry;
+    }
+
+    /**
+     * When the account was opened, or its first transaction if that is recorded as earlier.
+     */
+    private static LocalDateTime openedAt(Account account, List<AccountEntry> postings) {
+        LocalDateTime openedAt = account.getOpenedDate() != null ? account.getOpenedDate() : account.getCreatedAt();
+        if (!postings.isEmpty() && (openedAt == null || postings.get(0).getPostedAt().isBefore(openedAt))) {
+            return postings.get(0).getPostedAt();
+        }
+        return openedAt != null ? openedAt : LocalDateTime.now();
+    }
+}
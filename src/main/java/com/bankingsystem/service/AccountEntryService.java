@@ -0,0 +1,161 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.dto.response.AccountEntriesResponse;
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.entity.AccountEntry;
+import com.bankingsystem.entity.Transaction;
+import com.bankingsystem.enums.TransactionType;
+import com.bankingsystem.exception.InvalidTransactionException;
+import com.bankingsystem.exception.ResourceNotFoundException;
+import com.bankingsystem.repository.AccountEntryRepository;
+import com.bankingsystem.repository.AccountRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Builds and saves per-account ledger entries.
+ *
+ * Callers first change the balance with {@link AccountRepository#credit} or
+ * {@link AccountRepository#debitIfSufficient}, which also reserve one entry sequence number per
+ * posting under the row lock. The entries are then numbered and given running balances from the
+ * balance and sequence that UPDATE left behind, so no extra locking is needed.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountEntryService {
+
+    public static final int MAX_SYNC_PAGE_SIZE = 500;
+
+    private final AccountRepository accountRepository;
+    private final AccountEntryRepository accountEntryRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * New entry carrying only the posting details; {@link #sequence} fills in the rest.
+     */
+    public AccountEntry newEntry(TransactionType type, BigDecimal signedAmount, String reference, String description) {
+        AccountEntry entry = new AccountEntry();
+        entry.setEntryType(type);
+        entry.setAmount(signedAmount);
+        entry.setReference(reference);
+        entry.setDescription(description);
+        return entry;
+    }
+
+    /**
+     * New entry for one account's side of a transaction row, linked to that row.
+     */
+    public AccountEntry newEntry(Transaction transaction, BigDecimal signedAmount) {
+        AccountEntry entry = newEntry(transaction.getTransactionType(), signedAmount,
+                transaction.getTransactionReference(), transaction.getDescription());
+        entry.setTransaction(transaction);
+        return entry;
+    }
+
+    /**
+     * Numbers an entry that was just applied to the account by a single-posting UPDATE.
+     */
+    public AccountEntry sequence(Long accountId, AccountEntry entry) {
+        sequence(accountId, List.of(entry));
+        return entry;
+    }
+
+    /**
+     * Numbers entries, in posting order, that were applied to the account by one net UPDATE
+     * reserving {@code entries.size()} sequence numbers, and fills in their running balances.
+     */
+    public List<AccountEntry> sequence(Long accountId, List<AccountEntry> entries) {
+        AccountRepository.LedgerPosition position = accountRepository.findLedgerPositionById(accountId);
+        Account account = entityManager.getReference(Account.class, accountId);
+        LocalDateTime now = LocalDateTime.now();
+
+        // Walk back from the balance after the last posting
+        long seq = position.getEntrySequence();
+        BigDecimal balance = position.getBalance();
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            AccountEntry entry = entries.get(i);
+            entry.setAccount(account);
+            entry.setSeq(seq--);
+            entry.setRunningBalance(balance);
+            entry.setPostedAt(now);
+            balance = balance.subtract(entry.getAmount());
+        }
+        return entries;
+    }
+
+    /**
+     * Builds and saves the entry for a posting that has no transaction row.
+     */
+    public AccountEntry record(Long accountId, TransactionType type, BigDecimal signedAmount,
+                               String reference, String description) {
+        return accountEntryRepository.save(sequence(accountId, newEntry(type, signedAmount, reference, description)));
+    }
+
+    /**
+     * Saves entries. Any transaction rows they reference must be saved first.
+     */
+    public List<AccountEntry> saveAll(List<AccountEntry> entries) {
+        return accountEntryRepository.saveAll(entries);
+    }
+
+    public AccountEntry save(AccountEntry entry) {
+        return accountEntryRepository.save(entry);
+    }
+
+    /**
+     * Entries posted to the account after {@code sinceSeq}, oldest first, at most {@code limit} of them.
+     * The page stops at the sequence the account had when the request started, so it never contains
+     * a gap left by a posting that has not committed yet.
+     */
+    @Transactional(readOnly = true)
+    public AccountEntriesResponse getEntriesSince(Long accountId, long sinceSeq, int limit) {
+        if (sinceSeq < 0) {
+            throw new InvalidTransactionException("sinceSeq cannot be negative");
+        }
+        if (limit < 1 || limit > MAX_SYNC_PAGE_SIZE) {
+            throw new InvalidTransactionException("Limit must be between 1 and " + MAX_SYNC_PAGE_SIZE);
+        }
+        AccountRepository.LedgerPosition position = accountRepository.findLedgerPositionById(accountId);
+        if (position == null) {
+            throw new ResourceNotFoundException("Account", accountId.toString());
+        }
+
+        AccountEntriesResponse response = new AccountEntriesResponse();
+        response.setAccountId(accountId);
+        response.setSinceSeq(sinceSeq);
+        response.setLatestSeq(position.getEntrySequence());
+        response.setLastSeq(sinceSeq);
+        if (sinceSeq >= position.getEntrySequence()) {
+            return response;
+        }
+
+        List<AccountEntry> entries = accountEntryRepository.findEntriesAfter(accountId, sinceSeq,
+                position.getEntrySequence(), PageRequest.of(0, limit));
+        for (AccountEntry entry : entries) {
+            AccountEntriesResponse.Entry item = new AccountEntriesResponse.Entry();
+            item.setSeq(entry.getSeq());
+            item.setType(entry.getEntryType());
+            item.setAmount(entry.getAmount());
+            item.setRunningBalance(entry.getRunningBalance());
+            item.setReference(entry.getReference());
+            item.setDescription(entry.getDescription());
+            item.setPostedAt(entry.getPostedAt());
+            response.getEntries().add(item);
+        }
+        if (!entries.isEmpty()) {
+            response.setLastSeq(entries.get(entries.size() - 1).getSeq());
+        }
+        response.setHasMore(response.getLastSeq() < position.getEntrySequence());
+        return response;
+    }
+}
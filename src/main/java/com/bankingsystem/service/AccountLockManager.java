@@ -0,0 +1,153 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.exception.BankingSystemException;
+import com.bankingsystem.exception.ResourceNotFoundException;
+import com.bankingsystem.repository.AccountRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Locks the accounts touched by a transfer in a deadlock-free order.
+ *
+ * Accounts are first serialized on an in-JVM striped lock table so that contention between
+ * requests on the same node is settled before it reaches the database, and then their rows are
+ * locked with PESSIMISTIC_WRITE in ascending id order. Stripe locks are held until the
+ * surrounding transaction completes.
+ */
+@Slf4j
+@Service
+public class AccountLockManager {
+
+    private final AccountRepository accountRepository;
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long lockTimeoutMillis;
+    private final AtomicLongArray contendedAcquisitions;
+    private final AtomicLongArray waitNanos;
+    private final Timer lockWaitTimer;
+
+    public AccountLockManager(AccountRepository accountRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${banking.transfer.lock-stripes:64}") int stripeCount,
+                              @Value("${banking.transfer.lock-timeout-ms:5000}") long lockTimeoutMillis) {
+        this.accountRepository = accountRepository;
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.lockTimeoutMillis = lockTimeoutMillis;
+        this.contendedAcquisitions = new AtomicLongArray(size);
+        this.waitNanos = new AtomicLongArray(size);
+        this.lockWaitTimer = Timer.builder("banking.transfer.lock.wait")
+                .description("Time spent waiting for account stripe locks")
+                .register(meterRegistry);
+        for (int i = 0; i < size; i++) {
+            final int stripe = i;
+            FunctionCounter.builder("banking.transfer.lock.contention", contendedAcquisitions,
+                            counts -> counts.get(stripe))
+                    .description("Stripe lock acquisitions that had to wait")
+                    .tag("stripe", String.valueOf(stripe))
+                    .register(meterRegistry);
+            FunctionCounter.builder("banking.transfer.lock.wait.seconds", waitNanos,
+                            nanos -> nanos.get(stripe) / 1_000_000_000.0)
+                    .description("Total time spent waiting on the stripe lock")
+                    .tag("stripe", String.valueOf(stripe))
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Locks the given accounts for the rest of the current transaction and returns them keyed by id,
+     * in ascending id order.
+     */
+    public Map<Long, Account> lockAccounts(Long... accountIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Account locks can only be taken inside a transaction");
+        }
+
+        TreeSet<Long> orderedIds = new TreeSet<>();
+        for (Long accountId : accountIds) {
+            orderedIds.add(accountId);
+        }
+
+        lockStripes(orderedIds);
+
+        Map<Long, Account> accounts = new LinkedHashMap<>();
+        for (Long accountId : orderedIds) {
+            Account account = accountRepository.findByIdForUpdate(accountId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Account not found with ID: " + accountId));
+            accounts.put(accountId, account);
+        }
+        return accounts;
+    }
+
+    private void lockStripes(TreeSet<Long> orderedIds) {
+        TreeSet<Integer> stripeIndexes = new TreeSet<>();
+        for (Long accountId : orderedIds) {
+            stripeIndexes.add(stripeFor(accountId));
+        }
+
+        // Release in afterCompletion so the stripes cover the commit as well as the row locks
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (Integer index : stripeIndexes.descendingSet()) {
+                    if (stripes[index].isHeldByCurrentThread()) {
+                        stripes[index].unlock();
+                    }
+                }
+            }
+        });
+
+        for (Integer index : stripeIndexes) {
+            acquire(index);
+        }
+    }
+
+    private void acquire(int index) {
+        ReentrantLock lock = stripes[index];
+        if (lock.tryLock()) {
+            return;
+        }
+
+        contendedAcquisitions.incrementAndGet(index);
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BankingSystemException("Interrupted while waiting for account lock", "ACCOUNT_LOCK_INTERRUPTED", e);
+        } finally {
+            long waited = System.nanoTime() - start;
+            waitNanos.addAndGet(index, waited);
+            lockWaitTimer.record(waited, TimeUnit.NANOSECONDS);
+        }
+
+        if (!acquired) {
+            log.warn("Timed out after {} ms waiting for account lock stripe {}", lockTimeoutMillis, index);
+            throw new BankingSystemException("Timed out waiting for account lock", "ACCOUNT_LOCK_TIMEOUT");
+        }
+    }
+
+    private int stripeFor(Long accountId) {
+        long h = accountId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
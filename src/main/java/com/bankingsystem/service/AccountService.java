@@ -3,11 +3,16 @@ package com.bankingsystem.service;
 import com.bankingsystem.dto.request.AccountCreationRequest;
 import com.bankingsystem.dto.response.AccountResponse;
 import com.bankingsystem.entity.Account;
+import com.bankingsystem.entity.BalanceCheckpoint;
 import com.bankingsystem.entity.User;
 import com.bankingsystem.enums.AccountType;
+import com.bankingsystem.enums.TransactionType;
 import com.bankingsystem.exception.ResourceNotFoundException;
+import com.bankingsystem.repository.AccountEntryRepository;
 import com.bankingsystem.repository.AccountRepository;
+import com.bankingsystem.repository.BalanceCheckpointRepository;
 import com.bankingsystem.repository.UserRepository;
+import com.bankingsystem.util.EntityDiff;
 import com.bankingsystem.util.NumberGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -35,6 +40,15 @@ public class AccountService {
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private AccountEntryService accountEntryService;
+
+    @Autowired
+    private AccountEntryRepository accountEntryRepository;
+
+    @Autowired
+    private BalanceCheckpointRepository balanceCheckpointRepository;
+
     @Value("${banking.account.minimum-balance.checking:100.00}")
     private BigDecimal checkingMinBalance;
 
@@ -67,7 +81,15 @@ public class AccountService {
         // Set default interest rates and fees based on account type
         setDefaultAccountSettings(account);
 
+        boolean openingDeposit = request.getInitialBalance() != null && request.getInitialBalance().signum() > 0;
+        if (openingDeposit) {
+            account.setEntrySequence(1L);
+        }
         Account savedAccount = accountRepository.save(account);
+        if (openingDeposit) {
+            accountEntryService.record(savedAccount.getId(), TransactionType.DEPOSIT, request.getInitialBalance(),
+                    accountNumber, "Opening balance");
+        }
 
         // Log account creation
         auditService.logUserAction(userId, "ACCOUNT_CREATED", 
@@ -110,15 +132,16 @@ public class AccountService {
         Account account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new ResourceNotFoundException("Account", accountId.toString()));
 
-        String oldValues = account.toString();
+        EntityDiff.Snapshot before = EntityDiff.snapshot(account);
         
         account.setOverdraftLimit(request.getOverdraftLimit());
         
         Account updatedAccount = accountRepository.save(account);
 
         // Log account update
+        EntityDiff.Changes changes = before.diff(updatedAccount);
         auditService.logEntityChange("ACCOUNT_UPDATED", "Account", accountId.toString(), 
-                oldValues, updatedAccount.toString(), "Account settings updated", "ACCOUNT", 
+                changes.oldValuesJson(), changes.newValuesJson(), "Account settings updated", "ACCOUNT", 
                 account.getUser().getId());
 
         return convertToAccountResponse(updatedAccount);
@@ -177,6 +200,26 @@ public class AccountService {
         return total != null ? total : BigDecimal.ZERO;
     }
 
+    /**
+     * Balance of the account at the given time: the nearest checkpoint at or before it plus the
+     * entries posted between the two. Without a checkpoint the entries are summed from zero, which
+     * relies on every account's entries adding up to its balance; for history that predates the
+     * ledger, {@link AccountEntryBackfillJob} provides this with an opening-balance entry.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getBalanceAt(Long accountId, LocalDateTime at) {
+        if (!accountRepository.existsById(accountId)) {
+            throw new ResourceNotFoundException("Account", accountId.toString());
+        }
+        BalanceCheckpoint checkpoint = balanceCheckpointRepository
+                .findFirstByAccountIdAndCheckpointAtLessThanEqualOrderByCheckpointAtDesc(accountId, at)
+                .orElse(null);
+        BigDecimal balance = checkpoint != null ? checkpoint.getBalance() : BigDecimal.ZERO;
+        BigDecimal replayed = accountEntryRepository.sumAmountAfterSeq(accountId,
+                checkpoint != null ? checkpoint.getSeq() : 0L, at);
+        return replayed != null ? balance.add(replayed) : balance;
+    }
+
     private BigDecimal getMinimumBalanceForAccountType(AccountType accountType) {
         return switch (accountType) {
             case CHECKING -> checkingMinBalance;
@@ -1,12 +1,12 @@
 package com.bankingsystem.service;
 
 import com.bankingsystem.entity.AuditLog;
-import com.bankingsystem.entity.User;
 import com.bankingsystem.repository.AuditLogRepository;
-import com.bankingsystem.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,11 +22,10 @@ public class AuditService {
     private AuditLogRepository auditLogRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private AuditWriter auditWriter;
 
     public void logUserAction(Long userId, String action, String description, String module) {
-        User user = userRepository.findById(userId).orElse(null);
-        logAction(action, "USER", userId.toString(), null, null, description, module, "LOW", user);
+        logAction(action, "USER", userId.toString(), null, null, description, module, "LOW", userId);
     }
 
     public void logSystemAction(String action, String description, String module, String severity) {
@@ -36,31 +35,33 @@ public class AuditService {
     public void logEntityChange(String action, String entityType, String entityId, 
                                 String oldValues, String newValues, String description, 
                                 String module, Long userId) {
-        User user = userId != null ? userRepository.findById(userId).orElse(null) : null;
-        logAction(action, entityType, entityId, oldValues, newValues, description, module, "MEDIUM", user);
+        logAction(action, entityType, entityId, oldValues, newValues, description, module, "MEDIUM", userId);
     }
 
     public void logSecurityEvent(String action, String description, String module, String severity, Long userId) {
-        User user = userId != null ? userRepository.findById(userId).orElse(null) : null;
-        logAction(action, "SECURITY", userId != null ? userId.toString() : null, null, null, description, module, severity, user);
+        logAction(action, "SECURITY", userId != null ? userId.toString() : null, null, null, description, module, severity, userId);
     }
 
+    /**
+     * Hands the record to the background writer. Inside a transaction the record is only queued once
+     * the transaction commits, so rolled back work is not audited as if it had happened.
+     */
     private void logAction(String action, String entityType, String entityId, 
                           String oldValues, String newValues, String description, 
-                          String module, String severity, User user) {
-        AuditLog auditLog = new AuditLog();
-        auditLog.setAction(action);
-        auditLog.setEntityType(entityType);
-        auditLog.setEntityId(entityId);
-        auditLog.setOldValues(oldValues);
-        auditLog.setNewValues(newValues);
-        auditLog.setDescription(description);
-        auditLog.setModule(module);
-        auditLog.setSeverity(severity);
-        auditLog.setUser(user);
-        auditLog.setTimestamp(LocalDateTime.now());
-        
-        auditLogRepository.save(auditLog);
+                          String module, String severity, Long userId) {
+        AuditWriter.AuditRecord record = new AuditWriter.AuditRecord(action, entityType, entityId,
+                oldValues, newValues, description, module, severity, userId, LocalDateTime.now());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    auditWriter.enqueue(record);
+                }
+            });
+        } else {
+            auditWriter.enqueue(record);
+        }
     }
 
     @Transactional(readOnly = true)
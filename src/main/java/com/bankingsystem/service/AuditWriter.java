@@ -0,0 +1,360 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.entity.AuditLog;
+import com.bankingsystem.entity.User;
+import com.bankingsystem.repository.AuditLogRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background writer for audit records.
+ *
+ * Records are appended to a spill file and placed on a bounded queue; a single writer thread
+ * drains the queue and inserts the rows as JDBC batches once the batch size or the flush interval
+ * is reached. The spill file is truncated whenever everything written to it has been persisted or
+ * has failed, and the failed records are written back to it; it is replayed on startup so records
+ * queued before a crash, or not writable before it, are not lost. When the queue is full
+ * the caller waits up to the offer timeout and then writes its record itself.
+ */
+@Slf4j
+@Service
+public class AuditWriter {
+
+    private final AuditLogRepository auditLogRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<AuditRecord> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long offerTimeoutMillis;
+    private final Path spillFile;
+    private final Timer flushTimer;
+    private final Counter overflowCounter;
+    private final Counter failedCounter;
+    private final Object spillLock = new Object();
+    private final List<AuditRecord> failedRecords = new ArrayList<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private FileChannel spillChannel;
+    private Writer spillWriter;
+    private long spilledRecords;
+    private long persistedRecords;
+    private long retainedBytes;
+    private Thread writerThread;
+    private volatile boolean running = true;
+
+    public AuditWriter(AuditLogRepository auditLogRepository,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${banking.audit.queue-capacity:10000}") int queueCapacity,
+                       @Value("${banking.audit.batch-size:200}") int batchSize,
+                       @Value("${banking.audit.flush-interval-ms:500}") long flushIntervalMillis,
+                       @Value("${banking.audit.offer-timeout-ms:20}") long offerTimeoutMillis,
+                       @Value("${banking.audit.spill-file:}") String spillFile) {
+        this.auditLogRepository = auditLogRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.spillFile = spillFile.isBlank() ? null : Path.of(spillFile);
+        Gauge.builder("banking.audit.queue.depth", queue, BlockingQueue::size)
+                .description("Audit records waiting to be written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("banking.audit.flush")
+                .description("Time taken to write one batch of audit records")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("banking.audit.overflow")
+                .description("Audit records written by the caller because the queue was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("banking.audit.failed")
+                .description("Audit records that could not be written")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (spillFile != null) {
+            replaySpillFile();
+            spillChannel = FileChannel.open(spillFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            spillWriter = Channels.newWriter(spillChannel, StandardCharsets.UTF_8);
+        }
+        writerThread = new Thread(this::run, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        synchronized (spillLock) {
+            if (spillWriter != null) {
+                try {
+                    spillWriter.close();
+                } catch (IOException e) {
+                    log.warn("Failed to close audit spill file", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues a record for writing. Blocks for at most the offer timeout when the queue is full,
+     * after which the record is written on the calling thread.
+     */
+    public void enqueue(AuditRecord record) {
+        spill(record);
+        try {
+            if (queue.offer(record, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        overflowCounter.increment();
+        flush(List.of(record));
+    }
+
+    private void run() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditRecord first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    AuditRecord next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutdown: drain whatever is left and write it before exiting
+                queue.drainTo(batch);
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<AuditRecord> records) {
+        List<AuditRecord> failed = new ArrayList<>();
+        flushTimer.record(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> auditLogRepository.saveAll(toEntities(records)));
+            } catch (RuntimeException e) {
+                log.warn("Audit batch of {} records failed, writing them one by one", records.size(), e);
+                for (AuditRecord record : records) {
+                    if (!flushSingle(record)) {
+                        failed.add(record);
+                    }
+                }
+            }
+        });
+        markPersisted(records.size() - failed.size(), failed);
+    }
+
+    /**
+     * Writes one record, without its user link if the linked write fails.
+     *
+     * @return whether the record was saved
+     */
+    private boolean flushSingle(AuditRecord record) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> auditLogRepository.save(toEntity(record, true)));
+            return true;
+        } catch (RuntimeException e) {
+            try {
+                // The referenced user may be gone; keep the record without the link
+                transactionTemplate.executeWithoutResult(status -> auditLogRepository.save(toEntity(record, false)));
+                return true;
+            } catch (RuntimeException retryFailure) {
+                failedCounter.increment();
+                log.error("Failed to write audit record {}", record, retryFailure);
+                return false;
+            }
+        }
+    }
+
+    private List<AuditLog> toEntities(List<AuditRecord> records) {
+        List<AuditLog> auditLogs = new ArrayList<>(records.size());
+        for (AuditRecord record : records) {
+            auditLogs.add(toEntity(record, true));
+        }
+        return auditLogs;
+    }
+
+    private AuditLog toEntity(AuditRecord record, boolean linkUser) {
+        AuditLog auditLog = new AuditLog();
+        auditLog.setAction(record.action());
+        auditLog.setEntityType(record.entityType());
+        auditLog.setEntityId(record.entityId());
+        auditLog.setOldValues(record.oldValues());
+        auditLog.setNewValues(record.newValues());
+        auditLog.setDescription(record.description());
+        auditLog.setModule(record.module());
+        auditLog.setSeverity(record.severity());
+        auditLog.setTimestamp(record.timestamp());
+        if (linkUser && record.userId() != null) {
+            auditLog.setUser(entityManager.getReference(User.class, record.userId()));
+        }
+        return auditLog;
+    }
+
+    private void spill(AuditRecord record) {
+        if (spillWriter == null) {
+            return;
+        }
+        synchronized (spillLock) {
+            try {
+                appendToSpillFile(record);
+                spillWriter.flush();
+                spilledRecords++;
+            } catch (IOException e) {
+                log.warn("Failed to append audit record to spill file", e);
+            }
+        }
+    }
+
+    private void appendToSpillFile(AuditRecord record) throws IOException {
+        spillWriter.write(objectMapper.writeValueAsString(record));
+        spillWriter.write('\n');
+    }
+
+    /**
+     * Accounts for a flushed batch. Once every spilled record is either saved or failed, the spill
+     * file is truncated down to the failed records, which stay there for the next startup. Records
+     * that failed earlier are already at the head of the file, so only the new failures are
+     * appended and none of them are kept in memory.
+     */
+    private void markPersisted(int saved, List<AuditRecord> failed) {
+        if (spillWriter == null) {
+            return;
+        }
+        synchronized (spillLock) {
+            persistedRecords += saved;
+            failedRecords.addAll(failed);
+            if (persistedRecords + failedRecords.size() >= spilledRecords) {
+                try {
+                    spillChannel.truncate(retainedBytes);
+                    for (AuditRecord record : failedRecords) {
+                        appendToSpillFile(record);
+                    }
+                    spillWriter.flush();
+                    spillChannel.force(false);
+                    retainedBytes = spillChannel.size();
+                } catch (IOException e) {
+                    log.warn("Failed to truncate audit spill file", e);
+                }
+                persistedRecords = 0;
+                spilledRecords = 0;
+                failedRecords.clear();
+            } else {
+                try {
+                    spillChannel.force(false);
+                } catch (IOException e) {
+                    log.warn("Failed to sync audit spill file", e);
+                }
+            }
+        }
+    }
+
+    private void replaySpillFile() throws IOException {
+        if (!Files.exists(spillFile)) {
+            Path parent = spillFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            return;
+        }
+        List<AuditRecord> records = new ArrayList<>();
+        for (String line : Files.readAllLines(spillFile, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                records.add(objectMapper.readValue(line, AuditRecord.class));
+            } catch (IOException e) {
+                // A torn last line from a crash mid-write
+                log.warn("Skipping unreadable audit spill entry");
+            }
+        }
+        if (!records.isEmpty()) {
+            log.info("Replaying {} audit records from {}", records.size(), spillFile);
+            for (int i = 0; i < records.size(); i += batchSize) {
+                List<AuditRecord> batch = records.subList(i, Math.min(records.size(), i + batchSize));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> auditLogRepository.saveAll(toEntities(batch)));
+                } catch (RuntimeException e) {
+                    for (AuditRecord record : batch) {
+                        if (!flushSingle(record)) {
+                            failedRecords.add(record);
+                        }
+                    }
+                }
+            }
+        }
+        List<String> retained = new ArrayList<>(failedRecords.size());
+        for (AuditRecord record : failedRecords) {
+            retained.add(objectMapper.writeValueAsString(record));
+        }
+        Files.write(spillFile, retained, StandardCharsets.UTF_8);
+        retainedBytes = Files.size(spillFile);
+        failedRecords.clear();
+    }
+
+    /**
+     * Lightweight audit record carrying only the user id, so no User lookup is needed to queue it.
+     */
+    public record AuditRecord(String action, String entityType, String entityId, String oldValues,
+                              String newValues, String description, String module, String severity,
+                              Long userId, LocalDateTime timestamp) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.entity.BalanceCheckpoint;
+import com.bankingsystem.repository.AccountEntryRepository;
+import com.bankingsystem.repository.AccountRepository;
+import com.bankingsystem.repository.BalanceCheckpointRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes daily balance checkpoints. Each run takes the accounts in id order, a page per transaction,
+ * and for every account with entries posted since its last checkpoint adds one at the cutoff:
+ * the previous checkpoint balance plus those entries. Accounts without new entries keep their last
+ * checkpoint, which is still exact. An account's first checkpoint starts from zero: its entries,
+ * including the opening-balance entry {@link AccountEntryBackfillJob} writes for history that
+ * predates the ledger, add up to its balance.
+ */
+@Component
+@Slf4j
+public class BalanceCheckpointJob {
+
+    private final AccountRepository accountRepository;
+    private final AccountEntryRepository accountEntryRepository;
+    private final BalanceCheckpointRepository balanceCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int pageSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public BalanceCheckpointJob(AccountRepository accountRepository,
+                                AccountEntryRepository accountEntryRepository,
+                                BalanceCheckpointRepository balanceCheckpointRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${banking.balance-checkpoint.page-size:500}") int pageSize) {
+        this.accountRepository = accountRepository;
+        this.accountEntryRepository = accountEntryRepository;
+        this.balanceCheckpointRepository = balanceCheckpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pageSize = pageSize;
+    }
+
+    @Scheduled(cron = "${banking.balance-checkpoint.cron:0 15 0 * * *}")
+    public void checkpointDaily() {
+        createCheckpoints(LocalDate.now().atStartOfDay());
+    }
+
+    /**
+     * Checkpoints every account at {@code cutoff}. Cutoffs must not go backwards.
+     *
+     * @return the number of checkpoints written
+     */
+    public int createCheckpoints(LocalDateTime cutoff) {
+        long start = System.currentTimeMillis();
+        int written = 0;
+        Long afterId = 0L;
+        List<Long> accountIds;
+        do {
+            accountIds = accountRepository.findIdsAfter(afterId, PageRequest.of(0, pageSize));
+            if (accountIds.isEmpty()) {
+                break;
+            }
+            List<Long> page = accountIds;
+            written += transactionTemplate.execute(status -> checkpointPage(page, cutoff));
+            afterId = accountIds.get(accountIds.size() - 1);
+        } while (accountIds.size() == pageSize);
+
+        log.info("Wrote {} balance checkpoints at {} in {} ms", written, cutoff, System.currentTimeMillis() - start);
+        return written;
+    }
+
+    private int checkpointPage(List<Long> accountIds, LocalDateTime cutoff) {
+        Map<Long, BalanceCheckpoint> latest = new HashMap<>();
+        for (BalanceCheckpoint checkpoint : balanceCheckpointRepository.findLatestByAccountIds(accountIds)) {
+            latest.put(checkpoint.getAccount().getId(), checkpoint);
+        }
+
+        List<BalanceCheckpoint> checkpoints = new ArrayList<>();
+        for (AccountEntryRepository.UncheckpointedTotal total : accountEntryRepository.findUncheckpointedTotals(accountIds, cutoff)) {
+            BalanceCheckpoint previous = latest.get(total.getAccountId());
+            if (previous != null && !previous.getCheckpointAt().isBefore(cutoff)) {
+                continue;
+            }
+            BalanceCheckpoint checkpoint = new BalanceCheckpoint();
+            checkpoint.setAccount(entityManager.getReference(Account.class, total.getAccountId()));
+            checkpoint.setCheckpointAt(cutoff);
+            checkpoint.setSeq(total.getLastSeq());
+            checkpoint.setBalance((previous != null ? previous.getBalance() : BigDecimal.ZERO).add(total.getAmount()));
+            checkpoints.add(checkpoint);
+        }
+        balanceCheckpointRepository.saveAll(checkpoints);
+        return checkpoints.size();
+    }
+}
@@ -0,0 +1,254 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.entity.Card;
+import com.bankingsystem.entity.CardTransaction;
+import com.bankingsystem.enums.CardType;
+import com.bankingsystem.enums.TransactionStatus;
+import com.bankingsystem.enums.TransactionType;
+import com.bankingsystem.exception.InsufficientFundsException;
+import com.bankingsystem.exception.InvalidOperationException;
+import com.bankingsystem.exception.ResourceNotFoundException;
+import com.bankingsystem.repository.AccountRepository;
+import com.bankingsystem.repository.CardRepository;
+import com.bankingsystem.repository.CardTransactionRepository;
+import com.bankingsystem.util.TimingWheel;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Authorization holds for card transactions.
+ *
+ * An authorization only holds the amount: a debit card's available balance goes down, a credit
+ * card's available credit goes down, and the transaction is saved as PENDING. Clearing settles
+ * the hold for the final amount, posting it to the account ledger; a void or the expiry of the
+ * hold gives the amount back and cancels the transaction.
+ *
+ * Hold deadlines are kept in a hierarchical timing wheel that is loaded from the pending
+ * transactions at startup and swept every tick. Expiry locks the transaction row and checks it is
+ * still pending, so a hold cleared in the meantime, or already expired by another instance, is left alone.
+ */
+@Slf4j
+@Service
+public class CardHoldService {
+
+    private static final int WHEEL_LEVELS = 3;
+    private static final long RETRY_MILLIS = Duration.ofMinutes(5).toMillis();
+
+    private final CardTransactionRepository cardTransactionRepository;
+    private final AccountRepository accountRepository;
+    private final CardRepository cardRepository;
+    private final AccountEntryService accountEntryService;
+    private final LimitsEngine limitsEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration holdDuration;
+    private final TimingWheel<Long> expiries;
+
+    public CardHoldService(CardTransactionRepository cardTransactionRepository,
+                           AccountRepository accountRepository,
+                           CardRepository cardRepository,
+                           AccountEntryService accountEntryService,
+                           LimitsEngine limitsEngine,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${banking.card.hold-expiry-days:7}") int holdExpiryDays,
+                           @Value("${banking.card.hold-tick-ms:60000}") long tickMillis) {
+        this.cardTransactionRepository = cardTransactionRepository;
+        this.accountRepository = accountRepository;
+        this.cardRepository = cardRepository;
+        this.accountEntryService = accountEntryService;
+        this.limitsEngine = limitsEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.holdDuration = Duration.ofDays(holdExpiryDays);
+        this.expiries = new TimingWheel<>(tickMillis, WHEEL_LEVELS, System.currentTimeMillis());
+    }
+
+    @PostConstruct
+    public void loadPendingHolds() {
+        List<CardTransactionRepository.HoldExpiry> holds = cardTransactionRepository.findHoldExpiries(TransactionStatus.PENDING);
+        for (CardTransactionRepository.HoldExpiry hold : holds) {
+            expiries.schedule(hold.getId(), toMillis(hold.getHoldExpiresAt()));
+        }
+        log.info("Loaded {} pending card authorization holds", holds.size());
+    }
+
+    /**
+     * Holds the amount of a new authorization and saves it as a pending transaction. Throws if the
+     * account or credit line cannot cover it.
+     */
+    public CardTransaction hold(CardTransaction transaction, CardType cardType, Long accountId) {
+        BigDecimal amount = transaction.getAmount();
+        if (cardType == CardType.DEBIT) {
+            if (accountRepository.holdIfAvailable(accountId, amount, BigDecimal.ZERO) == 0) {
+                throw new InvalidOperationException("Insufficient funds");
+            }
+        } else if (cardType == CardType.CREDIT) {
+            if (cardRepository.debitAvailableCreditIfSufficient(transaction.getCard().getId(), amount) == 0) {
+                throw new InvalidOperationException("Insufficient credit");
+            }
+        }
+
+        transaction.setStatus(TransactionStatus.PENDING);
+        transaction.setAuthorizedAmount(amount);
+        transaction.setHoldExpiresAt(transaction.getTransactionDate().plus(holdDuration));
+        CardTransaction saved = cardTransactionRepository.save(transaction);
+        scheduleAfterCommit(saved.getId(), saved.getHoldExpiresAt());
+        return saved;
+    }
+
+    /**
+     * Settles a pending authorization for {@code clearedAmount}, or for the authorized amount when null.
+     */
+    @Transactional
+    public CardTransaction clear(String transactionReference, BigDecimal clearedAmount) {
+        CardTransaction transaction = cardTransactionRepository.findByTransactionReferenceForUpdate(transactionReference)
+                .orElseThrow(() -> new ResourceNotFoundException("Card transaction", transactionReference));
+        return clear(transaction, clearedAmount);
+    }
+
+    /**
+     * Same as {@link #clear(String, BigDecimal)} for a transaction already locked by the caller.
+     * Clearing more than the authorized amount takes the excess from the available balance or
+     * credit, and throws {@link InsufficientFundsException} before anything is written when that
+     * does not cover it, so the caller's transaction can go on with the hold still pending.
+     */
+    @Transactional(noRollbackFor = InsufficientFundsException.class)
+    public CardTransaction clear(CardTransaction transaction, BigDecimal clearedAmount) {
+        if (!transaction.isPending()) {
+            throw new InvalidOperationException("Card transaction is not pending: " + transaction.getStatus());
+        }
+        BigDecimal held = transaction.getAuthorizedAmount();
+        BigDecimal amount = clearedAmount != null ? clearedAmount : held;
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new InvalidOperationException("Cleared amount must be positive");
+        }
+
+        Card card = transaction.getCard();
+        if (card.getCardType() == CardType.DEBIT) {
+            Long accountId = card.getAccount().getId();
+            if (accountRepository.settleHold(accountId, held, amount) == 0) {
+                throw new InsufficientFundsException("Insufficient funds to clear " + amount
+                        + " against an authorization of " + held);
+            }
+            accountEntryService.record(accountId, TransactionType.CARD_PAYMENT, amount.negate(),
+                    transaction.getTransactionReference(), "Card payment at " + transaction.getMerchantName());
+        } else if (card.getCardType() == CardType.CREDIT) {
+            if (amount.compareTo(held) > 0) {
+                if (cardRepository.debitAvailableCreditIfSufficient(card.getId(), amount.subtract(held)) == 0) {
+                    throw new InsufficientFundsException("Insufficient credit to clear " + amount
+                            + " against an authorization of " + held);
+                }
+            } else if (amount.compareTo(held) < 0) {
+                cardRepository.addAvailableCredit(card.getId(), held.subtract(amount));
+            }
+        }
+        if (held.compareTo(amount) != 0) {
+            limitsEngine.adjust(LimitsEngine.Scope.CARD, card.getId(), amount.subtract(held),
+                    transaction.getTransactionDate().toLocalDate());
+        }
+
+        transaction.setAmount(amount);
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setProcessedDate(LocalDateTime.now());
+        return cardTransactionRepository.save(transaction);
+    }
+
+    /**
+     * Voids a pending authorization and gives the held amount back.
+     */
+    @Transactional
+    public CardTransaction release(String transactionReference) {
+        CardTransaction transaction = cardTransactionRepository.findByTransactionReferenceForUpdate(transactionReference)
+                .orElseThrow(() -> new ResourceNotFoundException("Card transaction", transactionReference));
+        if (!transaction.isPending()) {
+            throw new InvalidOperationException("Card transaction is not pending: " + transaction.getStatus());
+        }
+        return releaseHold(transaction);
+    }
+
+    /**
+     * Releases the hold if it is still pending and past its deadline at {@code now}.
+     *
+     * @return true if the hold was released
+     */
+    @Transactional
+    public boolean expire(Long transactionId, LocalDateTime now) {
+        CardTransaction transaction = cardTransactionRepository.findByIdForUpdate(transactionId).orElse(null);
+        if (transaction == null || !transaction.isPending() || transaction.getHoldExpiresAt() == null) {
+            return false;
+        }
+        if (transaction.getHoldExpiresAt().isAfter(now)) {
+            scheduleAfterCommit(transactionId, transaction.getHoldExpiresAt());
+            return false;
+        }
+        releaseHold(transaction);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${banking.card.hold-tick-ms:60000}")
+    public void expireDueHolds() {
+        long now = System.currentTimeMillis();
+        List<Long> due = expiries.advance(now);
+        int released = 0;
+        for (Long transactionId : due) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> expire(transactionId, LocalDateTime.now())))) {
+                    released++;
+                }
+            } catch (RuntimeException e) {
+                // Try again on a later tick rather than losing the deadline
+                log.warn("Could not expire card authorization hold {}: {}", transactionId, e.getMessage());
+                expiries.schedule(transactionId, now + RETRY_MILLIS);
+            }
+        }
+        if (released > 0) {
+            log.info("Released {} expired card authorization holds", released);
+        }
+    }
+
+    private CardTransaction releaseHold(CardTransaction transaction) {
+        BigDecimal held = transaction.getAuthorizedAmount();
+        Card card = transaction.getCard();
+        if (card.getCardType() == CardType.DEBIT) {
+            accountRepository.releaseHold(card.getAccount().getId(), held);
+        } else if (card.getCardType() == CardType.CREDIT) {
+            cardRepository.addAvailableCredit(card.getId(), held);
+        }
+        limitsEngine.adjust(LimitsEngine.Scope.CARD, card.getId(), held.negate(),
+                transaction.getTransactionDate().toLocalDate());
+
+        transaction.setStatus(TransactionStatus.CANCELLED);
+        transaction.setProcessedDate(LocalDateTime.now());
+        return cardTransactionRepository.save(transaction);
+    }
+
+    private void scheduleAfterCommit(Long transactionId, LocalDateTime expiresAt) {
+        long deadline = toMillis(expiresAt);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            expiries.schedule(transactionId, deadline);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                expiries.schedule(transactionId, deadline);
+            }
+        });
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -11,12 +11,15 @@ import com.bankingsystem.entity.User;
 import com.bankingsystem.enums.CardStatus;
 import com.bankingsystem.enums.CardType;
 import com.bankingsystem.enums.TransactionStatus;
+import com.bankingsystem.exception.CardDeclinedException;
 import com.bankingsystem.exception.ResourceNotFoundException;
 import com.bankingsystem.exception.InvalidOperationException;
 import com.bankingsystem.repository.AccountRepository;
 import com.bankingsystem.repository.CardRepository;
 import com.bankingsystem.repository.CardTransactionRepository;
 import com.bankingsystem.repository.UserRepository;
+import com.bankingsystem.service.fraud.CardAuthorization;
+import com.bankingsystem.service.fraud.FraudScoringService;
 import com.bankingsystem.util.NumberGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -52,6 +55,18 @@ public class CardService {
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private LimitsEngine limitsEngine;
+
+    @Autowired
+    private FraudScoringService fraudScoringService;
+
+    @Autowired
+    private CardSnapshotCache cardSnapshotCache;
+
+    @Autowired
+    private CardHoldService cardHoldService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -116,6 +131,7 @@ public class CardService {
         card.setStatus(CardStatus.ACTIVE);
         card.setActivatedDate(LocalDateTime.now());
         Card savedCard = cardRepository.save(card);
+        cardSnapshotCache.update(savedCard);
 
         auditService.logSecurityEvent("CARD_ACTIVATED", 
             "Card activated: ending in " + card.getCardNumber().substring(card.getCardNumber().length() - 4), 
@@ -135,6 +151,7 @@ public class CardService {
         card.setStatus(CardStatus.BLOCKED);
         card.setBlockedDate(LocalDateTime.now());
         Card savedCard = cardRepository.save(card);
+        cardSnapshotCache.update(savedCard);
 
         auditService.logSecurityEvent("CARD_BLOCKED", 
             "Card blocked: ending in " + card.getCardNumber().substring(card.getCardNumber().length() - 4) + 
@@ -154,6 +171,7 @@ public class CardService {
         card.setStatus(CardStatus.ACTIVE);
         card.setBlockedDate(null);
         Card savedCard = cardRepository.save(card);
+        cardSnapshotCache.update(savedCard);
 
         auditService.logSecurityEvent("CARD_UNBLOCKED", 
             "Card unblocked: ending in " + card.getCardNumber().substring(card.getCardNumber().length() - 4), 
@@ -162,39 +180,62 @@ public class CardService {
         return convertToResponse(savedCard);
     }
 
+    public CardResponse updateCardLimits(Long cardId, BigDecimal dailyLimit, BigDecimal monthlyLimit) {
+        Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> new ResourceNotFoundException("Card", cardId.toString()));
+
+        if (dailyLimit != null && dailyLimit.compareTo(BigDecimal.ZERO) < 0
+                || monthlyLimit != null && monthlyLimit.compareTo(BigDecimal.ZERO) < 0) {
+            throw new InvalidOperationException("Card limits cannot be negative");
+        }
+        BigDecimal newDailyLimit = dailyLimit != null ? dailyLimit : card.getDailyLimit();
+        BigDecimal newMonthlyLimit = monthlyLimit != null ? monthlyLimit : card.getMonthlyLimit();
+        if (newDailyLimit != null && newMonthlyLimit != null && newDailyLimit.compareTo(newMonthlyLimit) > 0) {
+            throw new InvalidOperationException("Daily limit cannot exceed monthly limit");
+        }
+
+        card.setDailyLimit(newDailyLimit);
+        card.setMonthlyLimit(newMonthlyLimit);
+        Card savedCard = cardRepository.save(card);
+        cardSnapshotCache.update(savedCard);
+
+        auditService.logUserAction(card.getUser().getId(), "CARD_LIMITS_UPDATED",
+            "Card limits updated: ending in " + card.getCardNumber().substring(card.getCardNumber().length() - 4) +
+            " - daily " + newDailyLimit + ", monthly " + newMonthlyLimit, "CARD");
+
+        return convertToResponse(savedCard);
+    }
+
+    /**
+     * Authorizes a card transaction and holds its amount until it clears or the hold expires. The
+     * card is read from the snapshot cache and the limit and fraud checks are in memory, so the only
+     * statements are the hold UPDATE and the insert of the pending transaction.
+     */
+    // A fraud decline commits so the declined attempt and its audit record are kept
+    @Transactional(noRollbackFor = CardDeclinedException.class)
     public CardTransactionResponse processCardTransaction(CardTransactionRequest request) {
-        Card card = cardRepository.findByCardNumber(request.getCardNumber())
+        CardSnapshotCache.CardSnapshot card = cardSnapshotCache.get(request.getCardNumber())
                 .orElseThrow(() -> new ResourceNotFoundException("Card", "Card not found"));
 
-        if (card.getStatus() != CardStatus.ACTIVE) {
+        if (card.status() != CardStatus.ACTIVE) {
             throw new InvalidOperationException("Card is not active");
         }
 
-        if (card.getExpiryDate().isBefore(LocalDate.now())) {
+        if (card.expiryDate().isBefore(LocalDate.now())) {
             throw new InvalidOperationException("Card has expired");
         }
 
-        // Validate transaction amount against limits
-        if (request.getAmount().compareTo(card.getDailyLimit()) > 0) {
-            throw new InvalidOperationException("Transaction exceeds daily limit");
+        if (Boolean.TRUE.equals(request.getIsOnline()) && !card.onlineTransactionsEnabled()) {
+            throw new InvalidOperationException("Online transactions are disabled for this card");
         }
 
-        Account account = card.getAccount();
-
-        // Check if sufficient funds/credit available
-        if (card.getCardType() == CardType.DEBIT) {
-            if (account.getAvailableBalance().compareTo(request.getAmount()) < 0) {
-                throw new InvalidOperationException("Insufficient funds");
-            }
-        } else if (card.getCardType() == CardType.CREDIT) {
-            if (card.getAvailableCredit().compareTo(request.getAmount()) < 0) {
-                throw new InvalidOperationException("Insufficient credit");
-            }
+        if (Boolean.TRUE.equals(request.getIsContactless()) && !card.contactlessEnabled()) {
+            throw new InvalidOperationException("Contactless transactions are disabled for this card");
         }
 
         // Create card transaction
         CardTransaction transaction = new CardTransaction();
-        transaction.setCard(card);
+        transaction.setCard(cardRepository.getReferenceById(card.cardId()));
         transaction.setAmount(request.getAmount());
         transaction.setMerchantName(request.getMerchantName());
         transaction.setMerchantCategory(request.getMerchantCategory());
@@ -202,32 +243,62 @@ public class CardService {
         transaction.setTransactionDate(LocalDateTime.now());
         transaction.setTransactionType(request.getTransactionType());
         transaction.setDescription(request.getDescription());
-        transaction.setStatus(TransactionStatus.COMPLETED);
         transaction.setTransactionReference(NumberGenerator.generateTransactionReference());
         transaction.setAuthorizationCode(NumberGenerator.generateAuthorizationCode());
         transaction.setIsContactless(request.getIsContactless());
         transaction.setIsOnline(request.getIsOnline());
         transaction.setIsInternational(request.getIsInternational());
-        transaction.setProcessedDate(LocalDateTime.now());
-
-        // Update account/card balances
-        if (card.getCardType() == CardType.DEBIT) {
-            account.setBalance(account.getBalance().subtract(request.getAmount()));
-            account.setAvailableBalance(account.getAvailableBalance().subtract(request.getAmount()));
-            accountRepository.save(account);
-        } else if (card.getCardType() == CardType.CREDIT) {
-            card.setAvailableCredit(card.getAvailableCredit().subtract(request.getAmount()));
-            cardRepository.save(card);
+
+        // Fraud screening comes before anything is reserved or debited, so a decline can commit
+        CardAuthorization authorization = FraudScoringService.authorization(card.cardId(), request.getAmount(),
+                request.getMerchantCategory(), request.getLocation(), Boolean.TRUE.equals(request.getIsOnline()),
+                Boolean.TRUE.equals(request.getIsInternational()), card.internationalTransactionsEnabled());
+        int fraudScore = fraudScoringService.score(authorization);
+        FraudScoringService.Decision decision = fraudScoringService.decide(fraudScore);
+        if (decision == FraudScoringService.Decision.DECLINE) {
+            transaction.setStatus(TransactionStatus.FAILED);
+            transaction.setProcessedDate(LocalDateTime.now());
+            transaction.setDescription("Declined by fraud screening (score " + fraudScore + ")");
+            cardTransactionRepository.save(transaction);
+            auditService.logSecurityEvent("CARD_FRAUD_DECLINED",
+                "Card transaction of " + request.getAmount() + " at " + request.getMerchantName()
+                    + " declined, fraud score " + fraudScore, "CARD", "HIGH", card.userId());
+            throw new CardDeclinedException("Transaction declined");
+        }
+        if (decision == FraudScoringService.Decision.REVIEW) {
+            auditService.logSecurityEvent("CARD_FRAUD_REVIEW",
+                "Card transaction of " + request.getAmount() + " at " + request.getMerchantName()
+                    + " approved for review, fraud score " + fraudScore, "CARD", "MEDIUM", card.userId());
         }
 
-        CardTransaction savedTransaction = cardTransactionRepository.save(transaction);
+        // Count the amount against the card's daily and monthly limits
+        limitsEngine.reserve(LimitsEngine.Scope.CARD, card.cardId(), request.getAmount(),
+                card.dailyLimit(), card.monthlyLimit());
 
-        auditService.logUserAction(card.getUser().getId(), "CARD_TRANSACTION", 
+        // Hold the amount; the account or credit line is only charged when the transaction clears
+        CardTransaction savedTransaction = cardHoldService.hold(transaction, card.cardType(), card.accountId());
+        fraudScoringService.recordApproved(authorization);
+
+        // Queued for the background audit writer after commit, off the critical path
+        auditService.logUserAction(card.userId(), "CARD_TRANSACTION", 
             "Card transaction: " + request.getAmount() + " at " + request.getMerchantName(), "CARD");
 
         return convertToTransactionResponse(savedTransaction);
     }
 
+    public CardTransactionResponse clearCardTransaction(String transactionReference, BigDecimal amount) {
+        return convertToTransactionResponse(cardHoldService.clear(transactionReference, amount));
+    }
+
+    public CardTransactionResponse releaseCardTransaction(String transactionReference) {
+        CardTransaction transaction = cardHoldService.release(transactionReference);
+
+        auditService.logUserAction(transaction.getCard().getUser().getId(), "CARD_AUTHORIZATION_RELEASED",
+            "Card authorization released: " + transaction.getAuthorizedAmount() + " at " + transaction.getMerchantName(), "CARD");
+
+        return convertToTransactionResponse(transaction);
+    }
+
     @Transactional(readOnly = true)
     public CardResponse getCardById(Long cardId) {
         Card card = cardRepository.findById(cardId)
@@ -0,0 +1,140 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.entity.Card;
+import com.bankingsystem.enums.CardStatus;
+import com.bankingsystem.enums.CardType;
+import com.bankingsystem.repository.CardRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory snapshots of the card fields that authorization decisions need, keyed by a SHA-256
+ * hash of the card number so that card numbers are not kept in memory.
+ *
+ * Card status and limit changes made through CardService write the new snapshot through after
+ * commit. A snapshot only replaces one with an equal or higher entity version, so an authorization
+ * that read the card before the change cannot put the old state back. Entries also expire after
+ * the TTL, which bounds how long a change made on another node goes unseen. The cache holds at
+ * most banking.card.snapshot-cache-size entries and evicts the least recently used one beyond that.
+ */
+@Component
+public class CardSnapshotCache {
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Value("${banking.card.snapshot-ttl-ms:60000}")
+    private long ttlMillis;
+
+    @Value("${banking.card.snapshot-cache-size:100000}")
+    private int maxEntries;
+
+    private final Map<String, CardSnapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CardSnapshot> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * Immutable view of a card for authorization. Monetary state (available credit, account
+     * balance) is deliberately left out; it is checked by the conditional UPDATE that moves the money.
+     */
+    public record CardSnapshot(Long cardId, long version, CardType cardType, CardStatus status, LocalDate expiryDate,
+                               BigDecimal dailyLimit, BigDecimal monthlyLimit, boolean contactlessEnabled,
+                               boolean onlineTransactionsEnabled, boolean internationalTransactionsEnabled,
+                               Long accountId, Long userId, long expiresAt) {
+    }
+
+    public Optional<CardSnapshot> get(String cardNumber) {
+        String key = hash(cardNumber);
+        long now = System.currentTimeMillis();
+        CardSnapshot cached;
+        synchronized (snapshots) {
+            cached = snapshots.get(key);
+        }
+        if (cached != null && cached.expiresAt() > now) {
+            return Optional.of(cached);
+        }
+        Optional<CardSnapshot> loaded = cardRepository.findAuthorizationViewByCardNumber(cardNumber)
+                .map(view -> new CardSnapshot(view.getId(), view.getVersion(), view.getCardType(), view.getStatus(),
+                        view.getExpiryDate(), view.getDailyLimit(), view.getMonthlyLimit(),
+                        Boolean.TRUE.equals(view.getContactlessEnabled()),
+                        Boolean.TRUE.equals(view.getOnlineTransactionsEnabled()),
+                        Boolean.TRUE.equals(view.getInternationalTransactionsEnabled()),
+                        view.getAccountId(), view.getUserId(), now + ttlMillis));
+        loaded.ifPresent(snapshot -> put(key, snapshot));
+        return loaded;
+    }
+
+    /**
+     * Writes the card's new state through once the surrounding transaction commits; until then the
+     * cached entry is dropped so no authorization on this node uses the old state.
+     */
+    public void update(Card card) {
+        String key = hash(card.getCardNumber());
+        remove(key);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    put(key, snapshotOf(card));
+                } else {
+                    remove(key);
+                }
+            }
+        });
+    }
+
+    private CardSnapshot snapshotOf(Card card) {
+        return new CardSnapshot(card.getId(), card.getVersion(), card.getCardType(), card.getStatus(),
+                card.getExpiryDate(), card.getDailyLimit(), card.getMonthlyLimit(),
+                Boolean.TRUE.equals(card.getContactlessEnabled()),
+                Boolean.TRUE.equals(card.getOnlineTransactionsEnabled()),
+                Boolean.TRUE.equals(card.getInternationalTransactionsEnabled()),
+                card.getAccount().getId(), card.getUser().getId(), System.currentTimeMillis() + ttlMillis);
+    }
+
+    private void put(String key, CardSnapshot snapshot) {
+        synchronized (snapshots) {
+            snapshots.merge(key, snapshot, (cached, fresh) -> fresh.version() >= cached.version() ? fresh : cached);
+        }
+    }
+
+    private void remove(String key) {
+        synchronized (snapshots) {
+            snapshots.remove(key);
+        }
+    }
+
+    int size() {
+        synchronized (snapshots) {
+            return snapshots.size();
+        }
+    }
+
+    private static String hash(String cardNumber) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(cardNumber.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
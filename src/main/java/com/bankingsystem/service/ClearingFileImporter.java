@@ -0,0 +1,340 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.dto.response.ClearingImportResponse;
+import com.bankingsystem.entity.CardTransaction;
+import com.bankingsystem.entity.ClearingFileImport;
+import com.bankingsystem.enums.TransactionStatus;
+import com.bankingsystem.exception.InsufficientFundsException;
+import com.bankingsystem.exception.InvalidOperationException;
+import com.bankingsystem.repository.CardTransactionRepository;
+import com.bankingsystem.repository.ClearingFileImportRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Imports card clearing files from acquirers and settles the matching authorizations.
+ *
+ * A clearing file is CSV with one presentment per line:
+ * {@code transaction_reference,authorization_code,amount}, where either the reference or the
+ * authorization code may be empty and an optional first line holds the column names. The file is
+ * read line by line and settled in chunks, one transaction per chunk, so memory use does not
+ * depend on the file size. Each chunk loads and locks its authorizations with two queries and
+ * advances the file's checkpoint in the same transaction, so an interrupted import can be run
+ * again and resumes after the last committed chunk.
+ *
+ * Presentments that cannot be settled are written, with the reason, to a reconciliation report
+ * next to the file ({@code <file>.unmatched.csv}) once their chunk commits. That includes a
+ * presentment for more than was authorized whose excess the account or credit line cannot cover.
+ *
+ * Only one import of a file runs at a time, on any node: an import claims the file's progress row
+ * under a row lock and every chunk checks and refreshes the claim. An import of a file claimed
+ * within the last banking.card.clearing.claim-timeout-ms is rejected; an older claim is taken over.
+ */
+@Slf4j
+@Component
+public class ClearingFileImporter {
+
+    private static final String HEADER_PREFIX = "transaction_reference";
+
+    private final CardTransactionRepository cardTransactionRepository;
+    private final ClearingFileImportRepository clearingFileImportRepository;
+    private final CardHoldService cardHoldService;
+    private final TransactionTemplate transactionTemplate;
+    private final Path directory;
+    private final int chunkSize;
+    private final Duration claimTimeout;
+
+    public ClearingFileImporter(CardTransactionRepository cardTransactionRepository,
+                                ClearingFileImportRepository clearingFileImportRepository,
+                                CardHoldService cardHoldService,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${banking.card.clearing.directory:clearing}") String directory,
+                                @Value("${banking.card.clearing.chunk-size:1000}") int chunkSize,
+                                @Value("${banking.card.clearing.claim-timeout-ms:300000}") long claimTimeoutMillis) {
+        this.cardTransactionRepository = cardTransactionRepository;
+        this.clearingFileImportRepository = clearingFileImportRepository;
+        this.cardHoldService = cardHoldService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.chunkSize = chunkSize;
+        this.claimTimeout = Duration.ofMillis(claimTimeoutMillis);
+    }
+
+    private record Presentment(long line, String raw, String reference, String authorizationCode,
+                               BigDecimal amount, String error) {
+    }
+
+    private record Unmatched(Presentment presentment, String reason) {
+    }
+
+    /**
+     * Imports a file from the banking.card.clearing.directory.
+     */
+    public ClearingImportResponse importFile(String fileName) {
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            throw new InvalidOperationException("Clearing file not found: " + fileName);
+        }
+        return importFile(file);
+    }
+
+    public ClearingImportResponse importFile(Path file) {
+        String fileName = file.getFileName().toString();
+        Path report = file.resolveSibling(fileName + ".unmatched.csv");
+        long start = System.currentTimeMillis();
+        String claim = UUID.randomUUID().toString();
+        ClearingFileImport progress;
+        try {
+            long fileSize = Files.size(file);
+            progress = transactionTemplate.execute(status -> startOrResume(fileName, fileSize, claim));
+        } catch (DataIntegrityViolationException e) {
+            // Another import inserted the progress row first
+            throw new InvalidOperationException("Clearing file " + fileName + " is already being imported");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not import clearing file " + fileName, e);
+        }
+        long resumeFrom = progress.getLinesProcessed();
+        if (progress.isCompleted()) {
+            return toResponse(progress, resumeFrom, report);
+        }
+
+        Long importId = progress.getId();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             BufferedWriter writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8,
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     resumeFrom == 0 ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND)) {
+            if (resumeFrom == 0) {
+                writer.write("line,reason,presentment");
+                writer.newLine();
+            }
+            List<Presentment> chunk = new ArrayList<>(chunkSize);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= resumeFrom || line.isBlank()
+                        || lineNumber == 1 && line.startsWith(HEADER_PREFIX)) {
+                    continue;
+                }
+                chunk.add(parse(lineNumber, line));
+                if (chunk.size() == chunkSize) {
+                    progress = applyChunk(importId, claim, chunk, lineNumber, false, writer);
+                    chunk.clear();
+                }
+            }
+            progress = applyChunk(importId, claim, chunk, lineNumber, true, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not import clearing file " + fileName, e);
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> release(importId, claim));
+        }
+
+        log.info("Imported clearing file {} from line {}: {} settled, {} unmatched in {} ms", fileName,
+                resumeFrom + 1, progress.getSettledCount(), progress.getUnmatchedCount(),
+                System.currentTimeMillis() - start);
+        return toResponse(progress, resumeFrom, report);
+    }
+
+    /**
+     * Loads the file's progress, creating it on the first import, and claims it unless the file is
+     * already completed.
+     */
+    private ClearingFileImport startOrResume(String fileName, long fileSize, String claim) {
+        LocalDateTime now = LocalDateTime.now();
+        ClearingFileImport progress = clearingFileImportRepository.findByFileNameForUpdate(fileName).orElse(null);
+        if (progress == null) {
+            progress = new ClearingFileImport();
+            progress.setFileName(fileName);
+            progress.setFileSize(fileSize);
+            progress.setClaimedBy(claim);
+            progress.setClaimedAt(now);
+            return clearingFileImportRepository.saveAndFlush(progress);
+        }
+        if (!progress.getFileSize().equals(fileSize)) {
+            throw new InvalidOperationException("Clearing file " + fileName + " has changed since it was last imported");
+        }
+        if (progress.isCompleted()) {
+            return progress;
+        }
+        if (progress.getClaimedBy() != null && progress.getClaimedAt().isAfter(now.minus(claimTimeout))) {
+            throw new InvalidOperationException("Clearing file " + fileName + " is already being imported");
+        }
+        if (progress.getClaimedBy() != null) {
+            log.warn("Taking over clearing file {} from an import last seen at {}", fileName, progress.getClaimedAt());
+        }
+        progress.setClaimedBy(claim);
+        progress.setClaimedAt(now);
+        return clearingFileImportRepository.save(progress);
+    }
+
+    private void release(Long importId, String claim) {
+        ClearingFileImport progress = clearingFileImportRepository.findByIdForUpdate(importId).orElseThrow();
+        if (claim.equals(progress.getClaimedBy())) {
+            progress.setClaimedBy(null);
+            progress.setClaimedAt(null);
+            clearingFileImportRepository.save(progress);
+        }
+    }
+
+    /**
+     * Settles a chunk and moves the checkpoint to {@code lastLine} in one transaction, then writes
+     * the chunk's unmatched presentments to the report.
+     */
+    private ClearingFileImport applyChunk(Long importId, String claim, List<Presentment> chunk, long lastLine,
+                                          boolean last, BufferedWriter writer) throws IOException {
+        List<Unmatched> unmatched = new ArrayList<>();
+        ClearingFileImport progress = transactionTemplate.execute(status -> {
+            ClearingFileImport current = clearingFileImportRepository.findByIdForUpdate(importId).orElseThrow();
+            if (!claim.equals(current.getClaimedBy())) {
+                throw new InvalidOperationException("Import of clearing file " + current.getFileName()
+                        + " was taken over by another import");
+            }
+            long settled = settle(chunk, unmatched);
+            current.setClaimedAt(LocalDateTime.now());
+            current.setLinesProcessed(lastLine);
+            current.setSettledCount(current.getSettledCount() + settled);
+            current.setUnmatchedCount(current.getUnmatchedCount() + unmatched.size());
+            if (last) {
+                current.setCompletedAt(LocalDateTime.now());
+            }
+            return clearingFileImportRepository.save(current);
+        });
+
+        for (Unmatched record : unmatched) {
+            writer.write(record.presentment().line() + "," + record.reason() + "," + quote(record.presentment().raw()));
+            writer.newLine();
+        }
+        writer.flush();
+        return progress;
+    }
+
+    private long settle(List<Presentment> chunk, List<Unmatched> unmatched) {
+        Set<String> references = new HashSet<>();
+        Set<String> codes = new HashSet<>();
+        for (Presentment presentment : chunk) {
+            if (presentment.error() == null) {
+                if (presentment.reference() != null) {
+                    references.add(presentment.reference());
+                } else {
+                    codes.add(presentment.authorizationCode());
+                }
+            }
+        }
+        Map<String, CardTransaction> byReference = new HashMap<>();
+        if (!references.isEmpty()) {
+            for (CardTransaction transaction : cardTransactionRepository.findByTransactionReferenceInForUpdate(references)) {
+                byReference.put(transaction.getTransactionReference(), transaction);
+            }
+        }
+        Map<String, List<CardTransaction>> byCode = new HashMap<>();
+        if (!codes.isEmpty()) {
+            for (CardTransaction transaction : cardTransactionRepository.findByAuthorizationCodeInForUpdate(codes, TransactionStatus.PENDING)) {
+                byCode.computeIfAbsent(transaction.getAuthorizationCode(), code -> new ArrayList<>()).add(transaction);
+            }
+        }
+
+        long settled = 0;
+        for (Presentment presentment : chunk) {
+            if (presentment.error() != null) {
+                unmatched.add(new Unmatched(presentment, presentment.error()));
+                continue;
+            }
+            CardTransaction transaction;
+            if (presentment.reference() != null) {
+                transaction = byReference.get(presentment.reference());
+                if (transaction != null && presentment.authorizationCode() != null
+                        && !presentment.authorizationCode().equals(transaction.getAuthorizationCode())) {
+                    unmatched.add(new Unmatched(presentment, "AUTHORIZATION_CODE_MISMATCH"));
+                    continue;
+                }
+            } else {
+                List<CardTransaction> candidates = byCode.getOrDefault(presentment.authorizationCode(), List.of());
+                if (candidates.size() > 1) {
+                    unmatched.add(new Unmatched(presentment, "AMBIGUOUS_AUTHORIZATION_CODE"));
+                    continue;
+                }
+                transaction = candidates.isEmpty() ? null : candidates.get(0);
+            }
+            if (transaction == null) {
+                unmatched.add(new Unmatched(presentment, "NOT_FOUND"));
+            } else if (!transaction.isPending()) {
+                unmatched.add(new Unmatched(presentment, "NOT_PENDING_" + transaction.getStatus()));
+            } else {
+                try {
+                    cardHoldService.clear(transaction, presentment.amount());
+                    settled++;
+                } catch (InsufficientFundsException e) {
+                    unmatched.add(new Unmatched(presentment, "INSUFFICIENT_FUNDS"));
+                }
+            }
+        }
+        return settled;
+    }
+
+    private static Presentment parse(long lineNumber, String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length < 3) {
+            return new Presentment(lineNumber, line, null, null, null, "MALFORMED");
+        }
+        String reference = blankToNull(fields[0]);
+        String code = blankToNull(fields[1]);
+        if (reference == null && code == null) {
+            return new Presentment(lineNumber, line, null, null, null, "MISSING_REFERENCE");
+        }
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(fields[2].trim());
+        } catch (NumberFormatException e) {
+            return new Presentment(lineNumber, line, reference, code, null, "INVALID_AMOUNT");
+        }
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            return new Presentment(lineNumber, line, reference, code, amount, "INVALID_AMOUNT");
+        }
+        return new Presentment(lineNumber, line, reference, code, amount, null);
+    }
+
+    private static ClearingImportResponse toResponse(ClearingFileImport progress, long resumeFrom, Path report) {
+        ClearingImportResponse response = new ClearingImportResponse();
+        response.setFileName(progress.getFileName());
+        response.setLinesProcessed(progress.getLinesProcessed());
+        response.setSettled(progress.getSettledCount());
+        response.setUnmatched(progress.getUnmatchedCount());
+        response.setResumedFromLine(resumeFrom);
+        response.setCompleted(progress.isCompleted());
+        response.setReconciliationReport(report.toString());
+        return response;
+    }
+
+    private static String blankToNull(String value) {
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
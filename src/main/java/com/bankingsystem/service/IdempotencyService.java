@@ -0,0 +1,234 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.entity.IdempotencyRecord;
+import com.bankingsystem.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Store for responses to requests made with an Idempotency-Key.
+ *
+ * Finished responses live in the idempotency_keys table until their TTL runs out, with the most
+ * recent ones also in a bounded in-memory LRU. A key is claimed by inserting a pending row, so
+ * only one instance executes a request; duplicates arriving at the same instance while it runs
+ * wait for its response instead of executing again.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public enum Decision {
+        /** Caller owns the key and must execute, then {@link #complete} or {@link #abandon}. */
+        PROCEED,
+        /** A response is stored for the key; send it back. */
+        REPLAY,
+        /** The key was used before with a different request. */
+        MISMATCH,
+        /** Another instance, or a slow execution here, still holds the key. */
+        IN_PROGRESS
+    }
+
+    public record StoredResponse(String requestHash, int status, String contentType, byte[] body,
+                                 LocalDateTime expiresAt) {
+
+        boolean isExpired() {
+            return expiresAt.isBefore(LocalDateTime.now());
+        }
+    }
+
+    public record Claim(Decision decision, StoredResponse response) {
+    }
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration pendingTimeout;
+    private final long waitTimeoutMs;
+    private final Map<String, StoredResponse> recent;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${banking.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${banking.idempotency.pending-timeout-ms:60000}") long pendingTimeoutMs,
+                              @Value("${banking.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs,
+                              @Value("${banking.idempotency.cache-size:10000}") int cacheSize) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.pendingTimeout = Duration.ofMillis(pendingTimeoutMs);
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Claims the key for a request with the given hash, or returns what to answer instead.
+     */
+    public Claim claim(String cacheKey, String requestHash) {
+        while (true) {
+            StoredResponse stored = cached(cacheKey);
+            if (stored != null) {
+                return replay(stored, requestHash);
+            }
+
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(cacheKey, mine);
+            if (running != null) {
+                // Same key already executing here: wait for its response
+                try {
+                    stored = running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    return new Claim(Decision.IN_PROGRESS, null);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return new Claim(Decision.IN_PROGRESS, null);
+                } catch (ExecutionException e) {
+                    stored = null;
+                }
+                if (stored != null) {
+                    return replay(stored, requestHash);
+                }
+                continue; // The owner gave up without a response; try to claim the key again
+            }
+
+            Claim claim;
+            try {
+                claim = claimPersistent(cacheKey, requestHash);
+            } catch (RuntimeException e) {
+                release(cacheKey, mine, null);
+                throw e;
+            }
+            if (claim.decision() != Decision.PROCEED) {
+                release(cacheKey, mine, claim.response());
+            }
+            return claim;
+        }
+    }
+
+    /**
+     * Stores the response of a claimed key and hands it to any waiting duplicates.
+     */
+    public void complete(String cacheKey, String requestHash, int status, String contentType, byte[] body) {
+        StoredResponse stored = new StoredResponse(requestHash, status, contentType, body, LocalDateTime.now().plus(ttl));
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                IdempotencyRecord record = idempotencyRecordRepository.findByCacheKey(cacheKey)
+                        .orElseGet(IdempotencyRecord::new);
+                record.setCacheKey(cacheKey);
+                record.setRequestHash(requestHash);
+                record.setResponseStatus(status);
+                record.setContentType(contentType);
+                record.setResponseBody(body);
+                record.setExpiresAt(stored.expiresAt());
+                idempotencyRecordRepository.save(record);
+            });
+        } catch (RuntimeException e) {
+            // The response already went out; a later retry may execute again, so say so loudly
+            log.error("Failed to store idempotent response for key {}", cacheKey, e);
+        }
+        synchronized (recent) {
+            recent.put(cacheKey, stored);
+        }
+        release(cacheKey, inFlight.get(cacheKey), stored);
+    }
+
+    /**
+     * Releases a claimed key without storing a response, so the request can be retried.
+     */
+    public void abandon(String cacheKey) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> idempotencyRecordRepository.deleteByCacheKey(cacheKey));
+        } catch (RuntimeException e) {
+            log.warn("Failed to release idempotency key {}, it frees up after the pending timeout", cacheKey, e);
+        }
+        release(cacheKey, inFlight.get(cacheKey), null);
+    }
+
+    @Scheduled(fixedDelayString = "${banking.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Integer deleted = transactionTemplate.execute(tx -> idempotencyRecordRepository.deleteExpired(LocalDateTime.now()));
+        synchronized (recent) {
+            recent.values().removeIf(StoredResponse::isExpired);
+        }
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private Claim claimPersistent(String cacheKey, String requestHash) {
+        try {
+            return transactionTemplate.execute(tx -> {
+                IdempotencyRecord existing = idempotencyRecordRepository.findByCacheKey(cacheKey).orElse(null);
+                if (existing != null) {
+                    if (!existing.getExpiresAt().isBefore(LocalDateTime.now())) {
+                        if (existing.getResponseStatus() == null) {
+                            return new Claim(Decision.IN_PROGRESS, null);
+                        }
+                        StoredResponse stored = new StoredResponse(existing.getRequestHash(), existing.getResponseStatus(),
+                                existing.getContentType(), existing.getResponseBody(), existing.getExpiresAt());
+                        synchronized (recent) {
+                            recent.put(cacheKey, stored);
+                        }
+                        return replay(stored, requestHash);
+                    }
+                    // Expired, or left pending by a crashed instance
+                    idempotencyRecordRepository.delete(existing);
+                    idempotencyRecordRepository.flush();
+                }
+                IdempotencyRecord pending = new IdempotencyRecord();
+                pending.setCacheKey(cacheKey);
+                pending.setRequestHash(requestHash);
+                pending.setExpiresAt(LocalDateTime.now().plus(pendingTimeout));
+                idempotencyRecordRepository.saveAndFlush(pending);
+                return new Claim(Decision.PROCEED, null);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance inserted the key first
+            return new Claim(Decision.IN_PROGRESS, null);
+        }
+    }
+
+    private StoredResponse cached(String cacheKey) {
+        synchronized (recent) {
+            StoredResponse stored = recent.get(cacheKey);
+            if (stored != null && stored.isExpired()) {
+                recent.remove(cacheKey);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    private Claim replay(StoredResponse stored, String requestHash) {
+        return stored.requestHash().equals(requestHash)
+                ? new Claim(Decision.REPLAY, stored)
+                : new Claim(Decision.MISMATCH, null);
+    }
+
+    private void release(String cacheKey, CompletableFuture<StoredResponse> future, StoredResponse stored) {
+        if (future != null) {
+            inFlight.remove(cacheKey, future);
+            future.complete(stored);
+        }
+    }
+}
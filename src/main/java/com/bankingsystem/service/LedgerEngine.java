@@ -0,0 +1,553 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.dto.response.TransactionResponse;
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.entity.AccountEntry;
+import com.bankingsystem.entity.LedgerHandoff;
+import com.bankingsystem.entity.Transaction;
+import com.bankingsystem.enums.TransactionStatus;
+import com.bankingsystem.enums.TransactionType;
+import com.bankingsystem.exception.BankingSystemException;
+import com.bankingsystem.exception.InsufficientFundsException;
+import com.bankingsystem.exception.InvalidTransactionException;
+import com.bankingsystem.exception.ResourceNotFoundException;
+import com.bankingsystem.mapper.TransactionMapper;
+import com.bankingsystem.repository.AccountRepository;
+import com.bankingsystem.repository.LedgerHandoffRepository;
+import com.bankingsystem.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optional single-writer ledger engine for deposits, withdrawals and transfers.
+ *
+ * Account ids are hashed onto a fixed number of shards. Each shard owns a bounded ring-buffer
+ * inbox and one worker thread, which drains commands in batches, applies the balance mutations
+ * in memory and group-commits them: one account lookup, one UPDATE per touched account and one
+ * batch of transaction rows per batch. Cross-shard transfers are handed off in two phases:
+ * the source shard debits and forwards a credit to the destination shard, which reverses the
+ * debit if the credit cannot be applied. The credit is recorded as a {@link LedgerHandoff} in the
+ * debit's transaction and removed in the transaction that credits or reverses, so hand-offs still
+ * pending when the engine stops, or crashes, are replayed when it next starts.
+ *
+ * Enabled with {@code banking.ledger.engine.enabled=true}; the synchronous
+ * {@link TransactionService} path stays the default. While enabled, the engine assumes it is
+ * the only writer for the deposit, withdrawal and transfer endpoints. It starts after
+ * {@link AccountEntryBackfillJob}, so replayed hand-offs post onto backfilled ledgers.
+ */
+@Slf4j
+@Service
+@DependsOn("accountEntryBackfillJob")
+@ConditionalOnProperty(name = "banking.ledger.engine.enabled", havingValue = "true")
+public class LedgerEngine {
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerHandoffRepository ledgerHandoffRepository;
+    private final AuditService auditService;
+    private final AccountEntryService accountEntryService;
+    private final TransactionMapper transactionMapper;
+    private final LimitsEngine limitsEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final Shard[] shards;
+    private final int batchSize;
+    private final long drainTimeoutMillis;
+    private final AtomicInteger pendingCommands = new AtomicInteger();
+    private volatile boolean accepting = true;
+
+    public LedgerEngine(AccountRepository accountRepository,
+                        TransactionRepository transactionRepository,
+                        LedgerHandoffRepository ledgerHandoffRepository,
+                        AuditService auditService,
+                        AccountEntryService accountEntryService,
+                        TransactionMapper transactionMapper,
+                        LimitsEngine limitsEngine,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${banking.ledger.engine.shards:4}") int shardCount,
+                        @Value("${banking.ledger.engine.inbox-capacity:4096}") int inboxCapacity,
+                        @Value("${banking.ledger.engine.batch-size:128}") int batchSize,
+                        @Value("${banking.ledger.engine.drain-timeout-ms:5000}") long drainTimeoutMillis) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.ledgerHandoffRepository = ledgerHandoffRepository;
+        this.auditService = auditService;
+        this.accountEntryService = accountEntryService;
+        this.transactionMapper = transactionMapper;
+        this.limitsEngine = limitsEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.drainTimeoutMillis = drainTimeoutMillis;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, inboxCapacity);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        // Credits whose debit committed before the engine last stopped
+        List<LedgerHandoff> pending = ledgerHandoffRepository.findAllByOrderByIdAsc();
+        for (LedgerHandoff handoff : pending) {
+            LedgerCommand credit = new LedgerCommand(CommandType.TRANSFER_CREDIT, handoff.getAccountId(),
+                    handoff.getCounterpartyId(), handoff.getAmount(), handoff.getDescription());
+            credit.transferRef = handoff.getTransferReference();
+            credit.handoffId = handoff.getId();
+            handOff(credit);
+        }
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+        log.info("Ledger engine started with {} shards, replaying {} transfer hand-offs", shards.length, pending.size());
+    }
+
+    /**
+     * Stops taking commands and gives the shards up to banking.ledger.engine.drain-timeout-ms to
+     * finish queued commands and hand-offs. Each shard then completes the batch it is committing and
+     * stops; hand-offs still pending stay in the outbox for the next start.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        accepting = false;
+        long deadline = System.currentTimeMillis() + drainTimeoutMillis;
+        while (pendingCommands.get() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        for (Shard shard : shards) {
+            shard.running = false;
+        }
+        for (Shard shard : shards) {
+            shard.thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void handOff(LedgerCommand command) {
+        pendingCommands.incrementAndGet();
+        shardFor(command.accountId).handoffs.add(command);
+    }
+
+    public CompletableFuture<TransactionResponse> deposit(Long accountId, BigDecimal amount, String description) {
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            return CompletableFuture.failedFuture(
+                    new InvalidTransactionException("Deposit amount must be greater than zero"));
+        }
+        LedgerCommand command = new LedgerCommand(CommandType.DEPOSIT, accountId, null, amount, description);
+        return submit(command).thenApply(responses -> responses.get(0));
+    }
+
+    public CompletableFuture<TransactionResponse> withdraw(Long accountId, BigDecimal amount, String description) {
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            return CompletableFuture.failedFuture(
+                    new InvalidTransactionException("Withdrawal amount must be greater than zero"));
+        }
+        LedgerCommand command = new LedgerCommand(CommandType.WITHDRAWAL, accountId, null, amount, description);
+        return submitDebit(command).thenApply(responses -> responses.get(0));
+    }
+
+    public CompletableFuture<List<TransactionResponse>> transfer(Long fromAccountId, Long toAccountId,
+                                                                 BigDecimal amount, String description) {
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            return CompletableFuture.failedFuture(
+                    new InvalidTransactionException("Transfer amount must be greater than zero"));
+        }
+        if (fromAccountId.equals(toAccountId)) {
+            return CompletableFuture.failedFuture(
+                    new InvalidTransactionException("Cannot transfer to the same account"));
+        }
+        return submitDebit(new LedgerCommand(CommandType.TRANSFER_DEBIT, fromAccountId, toAccountId, amount, description));
+    }
+
+    /**
+     * Counts the debit against the account's limits before it is queued; shards commit on their own
+     * threads, so the amount is released here if the command fails.
+     */
+    private CompletableFuture<List<TransactionResponse>> submitDebit(LedgerCommand command) {
+        LimitsEngine.Reservation reservation;
+        try {
+            reservation = limitsEngine.reserveAccountDebit(command.accountId, command.amount);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return submit(command).whenComplete((responses, failure) -> {
+            if (failure != null) {
+                limitsEngine.release(reservation);
+            }
+        });
+    }
+
+    private CompletableFuture<List<TransactionResponse>> submit(LedgerCommand command) {
+        if (!accepting) {
+            command.future.completeExceptionally(new BankingSystemException("Ledger engine stopped", "LEDGER_STOPPED"));
+            return command.future;
+        }
+        pendingCommands.incrementAndGet();
+        if (!shardFor(command.accountId).inbox.offer(command)) {
+            pendingCommands.decrementAndGet();
+            command.future.completeExceptionally(
+                    new BankingSystemException("Ledger engine is overloaded, retry later", "LEDGER_BACKPRESSURE"));
+        }
+        return command.future;
+    }
+
+    private Shard shardFor(Long accountId) {
+        return shards[Math.floorMod(Long.hashCode(accountId * 0x9E3779B97F4A7C15L), shards.length)];
+    }
+
+    private enum CommandType {
+        DEPOSIT, WITHDRAWAL, TRANSFER_DEBIT, TRANSFER_CREDIT, TRANSFER_REVERSAL
+    }
+
+    /**
+     * A balance mutation owned by the shard of {@code accountId}.
+     */
+    private static final class LedgerCommand {
+        private final CommandType type;
+        private final Long accountId;
+        private final Long counterpartyId;
+        private final BigDecimal amount;
+        private final String description;
+        private final CompletableFuture<List<TransactionResponse>> future;
+        private String transferRef;
+        private Long handoffId;
+        private TransactionResponse debitResponse;
+        private Throwable reversalCause;
+
+        private LedgerCommand(CommandType type, Long accountId, Long counterpartyId,
+                              BigDecimal amount, String description) {
+            this(type, accountId, counterpartyId, amount, description, new CompletableFuture<>());
+        }
+
+        private LedgerCommand(CommandType type, Long accountId, Long counterpartyId, BigDecimal amount,
+                              String description, CompletableFuture<List<TransactionResponse>> future) {
+            this.type = type;
+            this.accountId = accountId;
+            this.counterpartyId = counterpartyId;
+            this.amount = amount;
+            this.description = description;
+            this.future = future;
+        }
+    }
+
+    /**
+     * Per-batch state: balances computed in memory and the work to run once the batch commits.
+     * Debits are checked against the available balance, which card holds keep below the balance,
+     * so the batch rejects exactly what the conditional debit in {@link Shard#commit} would.
+     */
+    private static final class Batch {
+        private final Map<Long, Account> accounts = new HashMap<>();
+        private final Map<Long, BigDecimal> balances = new HashMap<>();
+        private final Map<Long, BigDecimal> availableBalances = new HashMap<>();
+        private final Map<Long, BigDecimal> deltas = new HashMap<>();
+        private final Map<Long, List<AccountEntry>> entries = new TreeMap<>();
+        private final List<Transaction> rows = new ArrayList<>();
+        private final List<LedgerHandoff> handoffs = new ArrayList<>();
+        private final List<Long> completedHandoffs = new ArrayList<>();
+        private final List<Runnable> afterCommit = new ArrayList<>();
+
+        private BigDecimal balanceOf(Long accountId) {
+            return balances.computeIfAbsent(accountId, id -> accounts.get(id).getBalance());
+        }
+
+        private BigDecimal availableBalanceOf(Long accountId) {
+            return availableBalances.computeIfAbsent(accountId, id -> accounts.get(id).getAvailableBalance());
+        }
+
+        private BigDecimal apply(Long accountId, AccountEntry entry) {
+            BigDecimal newBalance = balanceOf(accountId).add(entry.getAmount());
+            balances.put(accountId, newBalance);
+            availableBalances.put(accountId, availableBalanceOf(accountId).add(entry.getAmount()));
+            deltas.merge(accountId, entry.getAmount(), BigDecimal::add);
+            entries.computeIfAbsent(accountId, id -> new ArrayList<>()).add(entry);
+            return newBalance;
+        }
+    }
+
+    private final class Shard implements Runnable {
+        private final int index;
+        private final ArrayBlockingQueue<LedgerCommand> inbox;
+        private final ConcurrentLinkedQueue<LedgerCommand> handoffs = new ConcurrentLinkedQueue<>();
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        private Shard(int index, int inboxCapacity) {
+            this.index = index;
+            this.inbox = new ArrayBlockingQueue<>(inboxCapacity);
+            this.thread = new Thread(this, "ledger-shard-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<LedgerCommand> batch = new ArrayList<>(batchSize);
+            while (running) {
+                try {
+                    LedgerCommand handoff;
+                    while (batch.size() < batchSize && (handoff = handoffs.poll()) != null) {
+                        batch.add(handoff);
+                    }
+                    if (batch.isEmpty()) {
+                        LedgerCommand first = inbox.poll(10, TimeUnit.MILLISECONDS);
+                        if (first == null) {
+                            continue;
+                        }
+                        batch.add(first);
+                    }
+                    inbox.drainTo(batch, batchSize - batch.size());
+                    process(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (RuntimeException e) {
+                    log.error("Ledger shard {} failed to process batch", index, e);
+                } finally {
+                    pendingCommands.addAndGet(-batch.size());
+                    batch.clear();
+                }
+            }
+            failPending();
+        }
+
+        private void process(List<LedgerCommand> commands) {
+            Batch batch = new Batch();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    loadAccounts(commands, batch);
+                    for (LedgerCommand command : commands) {
+                        apply(command, batch);
+                    }
+                    commit(batch);
+                });
+            } catch (RuntimeException e) {
+                if (commands.size() == 1) {
+                    fail(commands.get(0), e);
+                    return;
+                }
+                // Isolate the offending command by replaying the batch one command at a time
+                log.warn("Ledger shard {} batch of {} failed, retrying individually: {}", index, commands.size(), e.getMessage());
+                for (LedgerCommand command : commands) {
+                    process(List.of(command));
+                }
+                return;
+            }
+            batch.afterCommit.forEach(Runnable::run);
+        }
+
+        private void loadAccounts(List<LedgerCommand> commands, Batch batch) {
+            Set<Long> ids = new HashSet<>();
+            for (LedgerCommand command : commands) {
+                ids.add(command.accountId);
+                if (command.counterpartyId != null) {
+                    ids.add(command.counterpartyId);
+                }
+            }
+            for (Account account : accountRepository.findAllById(ids)) {
+                batch.accounts.put(account.getId(), account);
+            }
+        }
+
+        private void apply(LedgerCommand command, Batch batch) {
+            Account account = batch.accounts.get(command.accountId);
+            if (account == null) {
+                rejectOrReverse(command, batch,
+                        new ResourceNotFoundException("Account not found with ID: " + command.accountId));
+                return;
+            }
+            Account counterparty = command.counterpartyId != null ? batch.accounts.get(command.counterpartyId) : null;
+            if (command.counterpartyId != null && counterparty == null) {
+                rejectOrReverse(command, batch,
+                        new ResourceNotFoundException("Account not found with ID: " + command.counterpartyId));
+                return;
+            }
+
+            switch (command.type) {
+                case DEPOSIT -> {
+                    Transaction row = newRow(TransactionType.DEPOSIT, generateReference(), command.amount,
+                            command.description, null, account);
+                    row.setRunningBalance(batch.apply(account.getId(), accountEntryService.newEntry(row, command.amount)));
+                    batch.rows.add(row);
+                    auditService.logUserAction(account.getUser().getId(), "DEPOSIT",
+                            "Deposit of " + command.amount + " to account " + account.getAccountNumber(), "TRANSACTION");
+                    batch.afterCommit.add(() -> command.future.complete(List.of(transactionMapper.toResponse(row))));
+                }
+                case WITHDRAWAL -> {
+                    if (batch.availableBalanceOf(account.getId()).compareTo(command.amount) < 0) {
+                        reject(command, batch, new InsufficientFundsException("Insufficient funds"));
+                        return;
+                    }
+                    Transaction row = newRow(TransactionType.WITHDRAWAL, generateReference(), command.amount,
+                            command.description, account, null);
+                    row.setRunningBalance(batch.apply(account.getId(), accountEntryService.newEntry(row, command.amount.negate())));
+                    batch.rows.add(row);
+                    auditService.logUserAction(account.getUser().getId(), "WITHDRAWAL",
+                            "Withdrawal of " + command.amount + " from account " + account.getAccountNumber(), "TRANSACTION");
+                    batch.afterCommit.add(() -> command.future.complete(List.of(transactionMapper.toResponse(row))));
+                }
+                case TRANSFER_DEBIT -> applyTransferDebit(command, account, counterparty, batch);
+                case TRANSFER_CREDIT -> applyTransferCredit(command, counterparty, account, batch);
+                case TRANSFER_REVERSAL -> {
+                    Transaction row = newRow(TransactionType.REFUND, command.transferRef + "-REVERSAL", command.amount,
+                            "Reversal of failed transfer to " + counterparty.getAccountNumber(), null, account);
+                    row.setRunningBalance(batch.apply(account.getId(), accountEntryService.newEntry(row, command.amount)));
+                    batch.rows.add(row);
+                    if (command.handoffId != null) {
+                        batch.completedHandoffs.add(command.handoffId);
+                    }
+                    batch.afterCommit.add(() -> command.future.completeExceptionally(command.reversalCause));
+                }
+            }
+        }
+
+        private void applyTransferDebit(LedgerCommand command, Account fromAccount, Account toAccount, Batch batch) {
+            if (batch.availableBalanceOf(fromAccount.getId()).compareTo(command.amount) < 0) {
+                reject(command, batch, new InsufficientFundsException("Insufficient funds in source account"));
+                return;
+            }
+            String transferRef = generateReference();
+            Transaction debit = newRow(TransactionType.TRANSFER, transferRef + "-DEBIT", command.amount,
+                    "Transfer to " + toAccount.getAccountNumber() + " - " + command.description, fromAccount, toAccount);
+            debit.setRunningBalance(batch.apply(fromAccount.getId(), accountEntryService.newEntry(debit, command.amount.negate())));
+            batch.rows.add(debit);
+            auditService.logUserAction(fromAccount.getUser().getId(), "TRANSFER_OUT",
+                    "Transfer of " + command.amount + " to account " + toAccount.getAccountNumber(), "TRANSACTION");
+
+            LedgerCommand credit = new LedgerCommand(CommandType.TRANSFER_CREDIT, toAccount.getId(), fromAccount.getId(),
+                    command.amount, command.description, command.future);
+            credit.transferRef = transferRef;
+
+            Shard target = shardFor(toAccount.getId());
+            if (target == this) {
+                // Same shard: both legs commit together
+                batch.afterCommit.add(() -> credit.debitResponse = transactionMapper.toResponse(debit));
+                applyTransferCredit(credit, fromAccount, toAccount, batch);
+            } else {
+                LedgerHandoff handoff = new LedgerHandoff(transferRef, toAccount.getId(), fromAccount.getId(),
+                        command.amount, command.description);
+                batch.handoffs.add(handoff);
+                batch.afterCommit.add(() -> {
+                    credit.debitResponse = transactionMapper.toResponse(debit);
+                    credit.handoffId = handoff.getId();
+                    handOff(credit);
+                });
+            }
+        }
+
+        private void applyTransferCredit(LedgerCommand command, Account fromAccount, Account toAccount, Batch batch) {
+            Transaction credit = newRow(TransactionType.TRANSFER, command.transferRef + "-CREDIT", command.amount,
+                    "Transfer from " + fromAccount.getAccountNumber() + " - " + command.description, fromAccount, toAccount);
+            credit.setRunningBalance(batch.apply(toAccount.getId(), accountEntryService.newEntry(credit, command.amount)));
+            batch.rows.add(credit);
+            if (command.handoffId != null) {
+                batch.completedHandoffs.add(command.handoffId);
+            }
+            auditService.logUserAction(toAccount.getUser().getId(), "TRANSFER_IN",
+                    "Transfer of " + command.amount + " from account " + fromAccount.getAccountNumber(), "TRANSACTION");
+            // A replayed hand-off has no debit response and no caller waiting on it
+            batch.afterCommit.add(() -> command.future.complete(command.debitResponse != null
+                    ? List.of(command.debitResponse, transactionMapper.toResponse(credit))
+                    : List.of(transactionMapper.toResponse(credit))));
+        }
+
+        private void commit(Batch batch) {
+            // Insert first so foreign key checks never wait on rows another shard is updating
+            transactionRepository.saveAll(batch.rows);
+            for (Map.Entry<Long, List<AccountEntry>> entry : batch.entries.entrySet()) {
+                BigDecimal delta = batch.deltas.get(entry.getKey());
+                if (delta.signum() >= 0) {
+                    accountRepository.credit(entry.getKey(), delta, entry.getValue().size());
+                } else if (accountRepository.debitIfSufficient(entry.getKey(), delta.negate(), BigDecimal.ZERO,
+                        entry.getValue().size()) == 0) {
+                    // Another writer drained the account or placed a hold since it was loaded; roll back and replay
+                    throw new InsufficientFundsException("Insufficient funds");
+                }
+                accountEntryService.sequence(entry.getKey(), entry.getValue());
+            }
+            accountEntryService.saveAll(batch.entries.values().stream().flatMap(List::stream).toList());
+            ledgerHandoffRepository.saveAll(batch.handoffs);
+            if (!batch.completedHandoffs.isEmpty()) {
+                ledgerHandoffRepository.deleteAllByIdInBatch(batch.completedHandoffs);
+            }
+        }
+
+        private void reject(LedgerCommand command, Batch batch, RuntimeException cause) {
+            batch.afterCommit.add(() -> command.future.completeExceptionally(cause));
+        }
+
+        private void rejectOrReverse(LedgerCommand command, Batch batch, RuntimeException cause) {
+            batch.afterCommit.add(() -> fail(command, cause));
+        }
+
+        /**
+         * Fails a command. A credit leg that cannot be applied hands a reversal back to the source shard.
+         */
+        private void fail(LedgerCommand command, Throwable cause) {
+            if (command.type == CommandType.TRANSFER_CREDIT) {
+                log.warn("Transfer {} credit leg failed, reversing debit: {}", command.transferRef, cause.getMessage());
+                LedgerCommand reversal = new LedgerCommand(CommandType.TRANSFER_REVERSAL, command.counterpartyId,
+                        command.accountId, command.amount, command.description, command.future);
+                reversal.transferRef = command.transferRef;
+                reversal.handoffId = command.handoffId;
+                reversal.reversalCause = cause;
+                handOff(reversal);
+            } else if (command.type == CommandType.TRANSFER_REVERSAL) {
+                // The hand-off stays in the outbox, so the credit is retried on the next start
+                log.error("Reversal of transfer {} failed and needs manual repair", command.transferRef, cause);
+                command.future.completeExceptionally(command.reversalCause);
+            } else {
+                command.future.completeExceptionally(cause);
+            }
+        }
+
+        private void failPending() {
+            BankingSystemException stopped = new BankingSystemException("Ledger engine stopped", "LEDGER_STOPPED");
+            LedgerCommand command;
+            while ((command = inbox.poll()) != null) {
+                command.future.completeExceptionally(stopped);
+            }
+            if (!handoffs.isEmpty()) {
+                log.warn("Ledger shard {} stopped with {} transfer hand-offs pending; they are replayed on the next start",
+                        index, handoffs.size());
+            }
+        }
+    }
+
+    private Transaction newRow(TransactionType type, String reference, BigDecimal amount, String description,
+                               Account fromAccount, Account toAccount) {
+        LocalDateTime now = LocalDateTime.now();
+        Transaction transaction = new Transaction();
+        transaction.setTransactionReference(reference);
+        transaction.setTransactionType(type);
+        transaction.setAmount(amount);
+        transaction.setDescription(description);
+        transaction.setFromAccount(fromAccount);
+        transaction.setToAccount(toAccount);
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setTransactionDate(now);
+        transaction.setProcessedDate(now);
+        return transaction;
+    }
+
+    private String generateReference() {
+        return TransactionService.generateTransactionReference();
+    }
+}
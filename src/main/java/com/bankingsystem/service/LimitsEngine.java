@@ -0,0 +1,229 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.enums.TransactionStatus;
+import com.bankingsystem.enums.TransactionType;
+import com.bankingsystem.exception.TransactionLimitExceededException;
+import com.bankingsystem.repository.AccountEntryRepository;
+import com.bankingsystem.repository.CardTransactionRepository;
+import com.bankingsystem.repository.PaymentRepository;
+import com.bankingsystem.repository.PeriodTotal;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Daily and monthly spending counters per account and per card, kept in memory so that limit
+ * checks do not have to sum the day's rows on every request.
+ *
+ * Counters are loaded from the database at startup and roll over at the start of each day and
+ * month. A check adds the amount to the counters in the same atomic step; if the surrounding
+ * transaction rolls back the amount is taken off again, so after commit the counters match the
+ * database. Counters are per instance and do not see postings made by other instances.
+ */
+@Slf4j
+@Service
+public class LimitsEngine {
+
+    public enum Scope {
+        /** Withdrawals and transfers from an account. */
+        ACCOUNT_DEBITS("transaction"),
+        /** Payments made from an account. */
+        ACCOUNT_TRANSFERS("transfer"),
+        /** Transactions made with a card. */
+        CARD("card");
+
+        private final String label;
+
+        Scope(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * An amount added to a counter, so it can be taken off again.
+     */
+    public record Reservation(Scope scope, Long ownerId, BigDecimal amount, LocalDate day) {
+    }
+
+    private static final List<TransactionType> DEBIT_TYPES = List.of(TransactionType.WITHDRAWAL, TransactionType.TRANSFER);
+    // Card authorizations count from the moment they are held
+    private static final List<TransactionStatus> CARD_STATUSES = List.of(TransactionStatus.PENDING, TransactionStatus.COMPLETED);
+
+    private final AccountEntryRepository accountEntryRepository;
+    private final PaymentRepository paymentRepository;
+    private final CardTransactionRepository cardTransactionRepository;
+    private final BigDecimal dailyDebitLimit;
+    private final BigDecimal monthlyDebitLimit;
+    private final Map<Scope, ConcurrentHashMap<Long, Counter>> counters = new EnumMap<>(Scope.class);
+
+    public LimitsEngine(AccountEntryRepository accountEntryRepository,
+                        PaymentRepository paymentRepository,
+                        CardTransactionRepository cardTransactionRepository,
+                        @Value("${banking.transaction.daily-limit:10000.00}") BigDecimal dailyDebitLimit,
+                        @Value("${banking.transaction.monthly-limit:50000.00}") BigDecimal monthlyDebitLimit) {
+        this.accountEntryRepository = accountEntryRepository;
+        this.paymentRepository = paymentRepository;
+        this.cardTransactionRepository = cardTransactionRepository;
+        this.dailyDebitLimit = dailyDebitLimit;
+        this.monthlyDebitLimit = monthlyDebitLimit;
+        for (Scope scope : Scope.values()) {
+            counters.put(scope, new ConcurrentHashMap<>());
+        }
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        LocalDate today = LocalDate.now();
+        LocalDateTime dayStart = today.atStartOfDay();
+        LocalDateTime monthStart = today.withDayOfMonth(1).atStartOfDay();
+
+        counters.values().forEach(Map::clear);
+        load(Scope.ACCOUNT_DEBITS, today, accountEntryRepository.sumDebitsByAccountSince(DEBIT_TYPES, monthStart, dayStart));
+        load(Scope.ACCOUNT_TRANSFERS, today, paymentRepository.sumByFromAccountSince(monthStart, dayStart));
+        load(Scope.CARD, today, cardTransactionRepository.sumByCardSince(CARD_STATUSES, monthStart, dayStart));
+        log.info("Limits engine loaded {} account and {} card counters",
+                counters.get(Scope.ACCOUNT_DEBITS).size() + counters.get(Scope.ACCOUNT_TRANSFERS).size(),
+                counters.get(Scope.CARD).size());
+    }
+
+    /**
+     * Counts a withdrawal or transfer from the account against banking.transaction.daily-limit and
+     * monthly-limit.
+     */
+    public Reservation reserveAccountDebit(Long accountId, BigDecimal amount) {
+        return reserve(Scope.ACCOUNT_DEBITS, accountId, amount, dailyDebitLimit, monthlyDebitLimit);
+    }
+
+    /**
+     * Same as {@link #reserveAccountDebit} but returns null instead of throwing when a limit would be exceeded.
+     */
+    public Reservation tryReserveAccountDebit(Long accountId, BigDecimal amount) {
+        return tryReserve(Scope.ACCOUNT_DEBITS, accountId, amount, dailyDebitLimit, monthlyDebitLimit);
+    }
+
+    /**
+     * Adds the amount to the owner's counters, or throws if that would take either total over its
+     * limit. A null limit is not checked. Inside a transaction the amount is released again on rollback.
+     */
+    public Reservation reserve(Scope scope, Long ownerId, BigDecimal amount, BigDecimal dailyLimit, BigDecimal monthlyLimit) {
+        LocalDate today = LocalDate.now();
+        counters.get(scope).compute(ownerId, (id, counter) -> {
+            Counter current = Counter.rolled(counter, today);
+            if (dailyLimit != null && current.dayTotal.add(amount).compareTo(dailyLimit) > 0) {
+                throw new TransactionLimitExceededException("Daily " + scope.label + " limit exceeded");
+            }
+            if (monthlyLimit != null && current.monthTotal.add(amount).compareTo(monthlyLimit) > 0) {
+                throw new TransactionLimitExceededException("Monthly " + scope.label + " limit exceeded");
+            }
+            return current.plus(amount);
+        });
+        Reservation reservation = new Reservation(scope, ownerId, amount, today);
+        releaseOnRollback(reservation);
+        return reservation;
+    }
+
+    /**
+     * Same as {@link #reserve} but returns null instead of throwing when a limit would be exceeded.
+     */
+    public Reservation tryReserve(Scope scope, Long ownerId, BigDecimal amount, BigDecimal dailyLimit, BigDecimal monthlyLimit) {
+        try {
+            return reserve(scope, ownerId, amount, dailyLimit, monthlyLimit);
+        } catch (TransactionLimitExceededException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Takes a reserved amount off the counters, unless they rolled over since.
+     */
+    public void release(Reservation reservation) {
+        counters.get(reservation.scope()).computeIfPresent(reservation.ownerId(), (id, counter) -> {
+            if (counter.month.equals(YearMonth.from(reservation.day()))) {
+                return counter.minus(reservation.amount(), reservation.day());
+            }
+            return counter;
+        });
+    }
+
+    /**
+     * Changes an amount counted for a posting made on {@code day} by {@code delta}, without checking
+     * the limits; used when a card authorization clears for a different amount or is released.
+     * Inside a transaction the change is undone on rollback.
+     */
+    public void adjust(Scope scope, Long ownerId, BigDecimal delta, LocalDate day) {
+        release(new Reservation(scope, ownerId, delta.negate(), day));
+        releaseOnRollback(new Reservation(scope, ownerId, delta, day));
+    }
+
+    public BigDecimal dayTotal(Scope scope, Long ownerId) {
+        return Counter.rolled(counters.get(scope).get(ownerId), LocalDate.now()).dayTotal;
+    }
+
+    public BigDecimal monthTotal(Scope scope, Long ownerId) {
+        return Counter.rolled(counters.get(scope).get(ownerId), LocalDate.now()).monthTotal;
+    }
+
+    private void load(Scope scope, LocalDate today, List<PeriodTotal> totals) {
+        Map<Long, Counter> map = counters.get(scope);
+        for (PeriodTotal total : totals) {
+            map.put(total.getOwnerId(), new Counter(today, YearMonth.from(today),
+                    orZero(total.getDayTotal()), orZero(total.getMonthTotal())));
+        }
+    }
+
+    private void releaseOnRollback(Reservation reservation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(reservation);
+                }
+            }
+        });
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    /**
+     * Immutable so that compute can swap it atomically.
+     */
+    private record Counter(LocalDate day, YearMonth month, BigDecimal dayTotal, BigDecimal monthTotal) {
+
+        static Counter rolled(Counter counter, LocalDate today) {
+            YearMonth month = YearMonth.from(today);
+            if (counter == null || !counter.month.equals(month)) {
+                return new Counter(today, month, BigDecimal.ZERO, BigDecimal.ZERO);
+            }
+            if (!counter.day.equals(today)) {
+                return new Counter(today, month, BigDecimal.ZERO, counter.monthTotal);
+            }
+            return counter;
+        }
+
+        Counter plus(BigDecimal amount) {
+            return new Counter(day, month, dayTotal.add(amount), monthTotal.add(amount));
+        }
+
+        Counter minus(BigDecimal amount, LocalDate reservedOn) {
+            BigDecimal newDayTotal = day.equals(reservedOn) ? dayTotal.subtract(amount) : dayTotal;
+            return new Counter(day, month, newDayTotal, monthTotal.subtract(amount));
+        }
+    }
+}
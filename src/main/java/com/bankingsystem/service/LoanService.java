@@ -11,6 +11,7 @@ import com.bankingsystem.enums.LoanStatus;
 import com.bankingsystem.enums.LoanType;
 import com.bankingsystem.enums.PaymentStatus;
 import com.bankingsystem.enums.TransactionStatus;
+import com.bankingsystem.enums.TransactionType;
 import com.bankingsystem.exception.ResourceNotFoundException;
 import com.bankingsystem.exception.InvalidOperationException;
 import com.bankingsystem.repository.AccountRepository;
@@ -51,6 +52,9 @@ public class LoanService {
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private AccountEntryService accountEntryService;
+
     public LoanResponse applyForLoan(Long userId, LoanApplicationRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", userId.toString()));
@@ -115,9 +119,9 @@ public class LoanService {
         loan.setMaturityDate(LocalDate.now().plusMonths(loan.getTermInMonths()));
 
         // Disburse funds to account
-        disbursementAccount.setBalance(disbursementAccount.getBalance().add(loan.getPrincipalAmount()));
-        disbursementAccount.setAvailableBalance(disbursementAccount.getAvailableBalance().add(loan.getPrincipalAmount()));
-        accountRepository.save(disbursementAccount);
+        accountRepository.credit(disbursementAccountId, loan.getPrincipalAmount());
+        accountEntryService.record(disbursementAccountId, TransactionType.DEPOSIT, loan.getPrincipalAmount(),
+                loan.getLoanNumber(), "Loan disbursement " + loan.getLoanNumber());
 
         loan.setStatus(LoanStatus.ACTIVE);
         Loan savedLoan = loanRepository.save(loan);
@@ -157,10 +161,6 @@ public class LoanService {
         Account paymentAccount = accountRepository.findById(request.getPaymentAccountId())
                 .orElseThrow(() -> new ResourceNotFoundException("Account", request.getPaymentAccountId().toString()));
 
-        if (paymentAccount.getAvailableBalance().compareTo(request.getPaymentAmount()) < 0) {
-            throw new InvalidOperationException("Insufficient funds for loan payment");
-        }
-
         // Create loan payment record
         LoanPayment payment = new LoanPayment();
         payment.setLoan(loan);
@@ -188,9 +188,11 @@ public class LoanService {
         payment.setRemainingBalance(loan.getOutstandingBalance().subtract(principalAmount));
 
         // Update account balance
-        paymentAccount.setBalance(paymentAccount.getBalance().subtract(request.getPaymentAmount()));
-        paymentAccount.setAvailableBalance(paymentAccount.getAvailableBalance().subtract(request.getPaymentAmount()));
-        accountRepository.save(paymentAccount);
+        if (accountRepository.debitIfSufficient(paymentAccount.getId(), request.getPaymentAmount(), BigDecimal.ZERO) == 0) {
+            throw new InvalidOperationException("Insufficient funds for loan payment");
+        }
+        accountEntryService.record(paymentAccount.getId(), TransactionType.LOAN_PAYMENT, request.getPaymentAmount().negate(),
+                payment.getPaymentReference(), "Loan payment " + loan.getLoanNumber());
 
         // Update loan
         loan.setOutstandingBalance(payment.getRemainingBalance());
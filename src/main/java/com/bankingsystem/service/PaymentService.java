@@ -4,6 +4,7 @@ import com.bankingsystem.dto.payment.*;
 import com.bankingsystem.entity.*;
 import com.bankingsystem.enums.PaymentStatus;
 import com.bankingsystem.enums.PaymentType;
+import com.bankingsystem.enums.TransactionType;
 import com.bankingsystem.exception.InsufficientFundsException;
 import com.bankingsystem.exception.InvalidOperationException;
 import com.bankingsystem.exception.ResourceNotFoundException;
@@ -30,6 +31,9 @@ public class PaymentService {
     private final AccountRepository accountRepository;
     private final BillPaymentRepository billPaymentRepository;
     private final AuditService auditService;
+    private final AccountLockManager accountLockManager;
+    private final AccountEntryService accountEntryService;
+    private final LimitsEngine limitsEngine;
 
     private static final BigDecimal TRANSFER_FEE = new BigDecimal("2.50");
     private static final BigDecimal BILL_PAYMENT_FEE = new BigDecimal("1.00");
@@ -44,19 +48,16 @@ public class PaymentService {
         log.info("Processing internal transfer from account {} to account {}", 
                 request.getFromAccountNumber(), request.getToAccountNumber());
 
-        // Validate accounts
+        // Validate accounts, then lock both in ascending id order so opposite transfers cannot deadlock
         Account fromAccount = getAccountByNumber(request.getFromAccountNumber());
         Account toAccount = getAccountByNumber(request.getToAccountNumber());
+        accountLockManager.lockAccounts(fromAccount.getId(), toAccount.getId());
 
         validateAccountForTransfer(fromAccount, userId);
         validateTransferAmount(request.getAmount());
         validateDailyTransferLimit(fromAccount, request.getAmount());
 
-        // Check sufficient funds (including fees)
         BigDecimal totalAmount = request.getAmount().add(TRANSFER_FEE);
-        if (fromAccount.getBalance().compareTo(totalAmount) < 0) {
-            throw new InsufficientFundsException("Insufficient funds for transfer including fees");
-        }
 
         // Create payment record
         Payment payment = Payment.builder()
@@ -71,16 +72,19 @@ public class PaymentService {
                 .scheduledDate(LocalDateTime.now())
                 .build();
 
-        // Process transfer
-        fromAccount.setBalance(fromAccount.getBalance().subtract(totalAmount));
-        toAccount.setBalance(toAccount.getBalance().add(request.getAmount()));
+        // Process transfer, checking sufficient funds (including fees) in the same statement
+        if (accountRepository.debitIfSufficient(fromAccount.getId(), totalAmount, BigDecimal.ZERO, 2) == 0) {
+            throw new InsufficientFundsException("Insufficient funds for transfer including fees");
+        }
+        accountRepository.credit(toAccount.getId(), request.getAmount());
+        recordDebitEntries(fromAccount.getId(), payment.getPaymentReference(), request.getAmount(), TRANSFER_FEE,
+                "Transfer to " + toAccount.getAccountNumber());
+        accountEntryService.record(toAccount.getId(), TransactionType.PAYMENT, request.getAmount(),
+                payment.getPaymentReference(), "Transfer from " + fromAccount.getAccountNumber());
 
         payment.setStatus(PaymentStatus.COMPLETED);
         payment.setProcessedAt(LocalDateTime.now());
 
-        // Save entities
-        accountRepository.save(fromAccount);
-        accountRepository.save(toAccount);
         Payment savedPayment = paymentRepository.save(payment);
 
         // Log transaction
@@ -114,15 +118,12 @@ public class PaymentService {
         Account fromAccount = getAccountByNumber(request.getFromAccountNumber());
         validateAccountForTransfer(fromAccount, userId);
         validateTransferAmount(request.getAmount());
+        validateDailyTransferLimit(fromAccount, request.getAmount());
 
         // Higher fees for external transfers
         BigDecimal externalTransferFee = TRANSFER_FEE.multiply(new BigDecimal("2"));
         BigDecimal totalAmount = request.getAmount().add(externalTransferFee);
 
-        if (fromAccount.getBalance().compareTo(totalAmount) < 0) {
-            throw new InsufficientFundsException("Insufficient funds for external transfer including fees");
-        }
-
         // Create payment record for external transfer
         Payment payment = Payment.builder()
                 .paymentReference(NumberGenerator.generatePaymentReference())
@@ -139,8 +140,11 @@ public class PaymentService {
                 .build();
 
         // Deduct amount from source account
-        fromAccount.setBalance(fromAccount.getBalance().subtract(totalAmount));
-        accountRepository.save(fromAccount);
+        if (accountRepository.debitIfSufficient(fromAccount.getId(), totalAmount, BigDecimal.ZERO, 2) == 0) {
+            throw new InsufficientFundsException("Insufficient funds for external transfer including fees");
+        }
+        recordDebitEntries(fromAccount.getId(), payment.getPaymentReference(), request.getAmount(), externalTransferFee,
+                "External transfer to " + request.getBankCode() + " - " + request.getToAccountNumber());
 
         // Mark as processing (external transfers take time)
         payment.setStatus(PaymentStatus.PROCESSING);
@@ -176,9 +180,6 @@ public class PaymentService {
         validateAccountForTransfer(account, userId);
 
         BigDecimal totalAmount = request.getAmount().add(BILL_PAYMENT_FEE);
-        if (account.getBalance().compareTo(totalAmount) < 0) {
-            throw new InsufficientFundsException("Insufficient funds for bill payment including fees");
-        }
 
         // Create bill payment record
         BillPayment billPayment = BillPayment.builder()
@@ -194,11 +195,14 @@ public class PaymentService {
                 .build();
 
         // Process payment
-        account.setBalance(account.getBalance().subtract(totalAmount));
+        if (accountRepository.debitIfSufficient(account.getId(), totalAmount, BigDecimal.ZERO, 2) == 0) {
+            throw new InsufficientFundsException("Insufficient funds for bill payment including fees");
+        }
+        recordDebitEntries(account.getId(), billPayment.getPaymentReference(), request.getAmount(), BILL_PAYMENT_FEE,
+                "Bill payment to " + request.getBillerName());
         billPayment.setStatus(PaymentStatus.COMPLETED);
         billPayment.setProcessedAt(LocalDateTime.now());
 
-        accountRepository.save(account);
         BillPayment savedBillPayment = billPaymentRepository.save(billPayment);
 
         auditService.logUserAction(userId, "BILL_PAYMENT", 
@@ -294,16 +298,16 @@ public class PaymentService {
     }
 
     private void validateDailyTransferLimit(Account account, BigDecimal amount) {
-        LocalDateTime startOfDay = LocalDateTime.now().toLocalDate().atStartOfDay();
-        List<Payment> todaysTransfers = paymentRepository.findByFromAccountAndCreatedAtAfter(account, startOfDay);
-
-        BigDecimal dailyTotal = todaysTransfers.stream()
-                .map(Payment::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        limitsEngine.reserve(LimitsEngine.Scope.ACCOUNT_TRANSFERS, account.getId(), amount, MAX_DAILY_TRANSFER_LIMIT, null);
+    }
 
-        if (dailyTotal.add(amount).compareTo(MAX_DAILY_TRANSFER_LIMIT) > 0) {
-            throw new InvalidOperationException("Daily transfer limit exceeded");
-        }
+    /**
+     * Ledger entries for a debit of amount plus fee applied by one UPDATE reserving two sequence numbers.
+     */
+    private void recordDebitEntries(Long accountId, String reference, BigDecimal amount, BigDecimal fee, String description) {
+        accountEntryService.saveAll(accountEntryService.sequence(accountId, List.of(
+                accountEntryService.newEntry(TransactionType.PAYMENT, amount.negate(), reference, description),
+                accountEntryService.newEntry(TransactionType.FEE, fee.negate(), reference, "Fee - " + description))));
     }
 
     private PaymentResponse mapToPaymentResponse(Payment payment) {
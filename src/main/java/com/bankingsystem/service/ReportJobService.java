@@ -0,0 +1,271 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.dto.request.ReportJobRequest;
+import com.bankingsystem.dto.response.ReportJobResponse;
+import com.bankingsystem.enums.ReportJobStatus;
+import com.bankingsystem.enums.ReportType;
+import com.bankingsystem.exception.InvalidOperationException;
+import com.bankingsystem.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates reports in the background so that long statements do not hold a request thread.
+ *
+ * Jobs run on a small executor of their own with a bounded queue, separate from the threads that
+ * serve transactions; a submission that finds the queue full is rejected rather than waiting.
+ * A request identical to one that is still queued or running joins that job instead of starting
+ * another. The finished PDF is written to the job directory and kept for
+ * banking.reports.jobs.ttl-minutes after completion, after which the file and the job are removed.
+ * Job state is held in memory, so files left in the directory by an earlier run are deleted at
+ * startup.
+ */
+@Slf4j
+@Service
+public class ReportJobService {
+
+    private final ReportService reportService;
+    private final Path directory;
+    private final Duration ttl;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<JobKey, ReportJob> inFlight = new ConcurrentHashMap<>();
+
+    public ReportJobService(ReportService reportService,
+                            MeterRegistry meterRegistry,
+                            @Value("${banking.reports.jobs.directory:${java.io.tmpdir}/banking-report-jobs}") String directory,
+                            @Value("${banking.reports.jobs.ttl-minutes:60}") long ttlMinutes,
+                            @Value("${banking.reports.jobs.threads:2}") int threads,
+                            @Value("${banking.reports.jobs.queue-capacity:50}") int queueCapacity) {
+        this.reportService = reportService;
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("banking.reports.jobs.queued", executor, pool -> pool.getQueue().size())
+                .description("Report jobs waiting for a worker")
+                .register(meterRegistry);
+        prepareDirectory();
+    }
+
+    /**
+     * Report parameters that matter for the report type; two requests with the same key produce
+     * the same PDF.
+     */
+    private record JobKey(ReportType reportType, Long targetId, LocalDate fromDate, LocalDate toDate,
+                          Integer year, Integer month) {
+    }
+
+    private static final class ReportJob {
+        private final String id = UUID.randomUUID().toString();
+        private final JobKey key;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime completedAt;
+        private volatile LocalDateTime expiresAt;
+        private volatile Long sizeBytes;
+        private volatile String error;
+
+        private ReportJob(JobKey key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Queues a report, or returns the job already generating the same report.
+     *
+     * @throws InvalidOperationException if the request lacks the parameters its report type needs
+     * @throws java.util.concurrent.RejectedExecutionException if the job queue is full
+     */
+    public ReportJobResponse submit(ReportJobRequest request) {
+        JobKey key = toKey(request);
+        ReportJob job = inFlight.computeIfAbsent(key, k -> {
+            ReportJob created = new ReportJob(k);
+            jobs.put(created.id, created);
+            try {
+                executor.execute(() -> run(created));
+            } catch (RuntimeException e) {
+                jobs.remove(created.id);
+                throw e;
+            }
+            log.info("Queued {} report job {} for {}", k.reportType(), created.id, k.targetId());
+            return created;
+        });
+        return toResponse(job);
+    }
+
+    public ReportJobResponse getJob(String jobId) {
+        return toResponse(findJob(jobId));
+    }
+
+    /**
+     * The finished PDF of a completed job.
+     *
+     * @throws InvalidOperationException if the job has not completed
+     */
+    public Path getResult(String jobId) {
+        ReportJob job = findJob(jobId);
+        if (job.status != ReportJobStatus.COMPLETED) {
+            throw new InvalidOperationException("Report job " + jobId + " is " + job.status);
+        }
+        return resultFile(job);
+    }
+
+    /**
+     * Removes jobs, and their files, whose results have passed their expiry.
+     */
+    @Scheduled(fixedDelayString = "${banking.reports.jobs.cleanup-interval-ms:60000}")
+    public void removeExpiredJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        for (ReportJob job : jobs.values()) {
+            if (job.expiresAt != null && job.expiresAt.isBefore(now) && jobs.remove(job.id, job)) {
+                deleteQuietly(resultFile(job));
+                log.debug("Removed expired report job {}", job.id);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(ReportJob job) {
+        job.status = ReportJobStatus.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        Path part = directory.resolve(job.id + ".part");
+        ReportJobStatus outcome = ReportJobStatus.FAILED;
+        try {
+            Resource report = generate(job.key);
+            try (InputStream in = report.getInputStream()) {
+                Files.copy(in, part, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Path result = Files.move(part, resultFile(job), StandardCopyOption.ATOMIC_MOVE);
+            job.sizeBytes = Files.size(result);
+            outcome = ReportJobStatus.COMPLETED;
+            log.info("Report job {} completed: {} bytes in {} ms", job.id, job.sizeBytes,
+                    Duration.between(job.startedAt, LocalDateTime.now()).toMillis());
+        } catch (Exception e) {
+            log.error("Report job {} failed: ", job.id, e);
+            deleteQuietly(part);
+            job.error = e.getMessage();
+        } finally {
+            job.completedAt = LocalDateTime.now();
+            job.expiresAt = job.completedAt.plus(ttl);
+            job.status = outcome;
+            inFlight.remove(job.key, job);
+        }
+    }
+
+    private Resource generate(JobKey key) {
+        return switch (key.reportType()) {
+            case ACCOUNT_STATEMENT -> reportService.generateAccountStatement(key.targetId(),
+                    key.fromDate().atStartOfDay(), key.toDate().atTime(23, 59, 59));
+            case MONTHLY_STATEMENT -> reportService.generateMonthlyStatement(key.targetId(), key.year(), key.month());
+            case LOAN_STATEMENT -> reportService.generateLoanStatement(key.targetId());
+            case CREDIT_CARD_STATEMENT -> reportService.generateCreditCardStatement(key.targetId(), key.year(), key.month());
+        };
+    }
+
+    private static JobKey toKey(ReportJobRequest request) {
+        return switch (request.getReportType()) {
+            case ACCOUNT_STATEMENT -> {
+                if (request.getFromDate() == null || request.getToDate() == null) {
+                    throw new InvalidOperationException("Account statements need fromDate and toDate");
+                }
+                if (request.getFromDate().isAfter(request.getToDate())) {
+                    throw new InvalidOperationException("fromDate must not be after toDate");
+                }
+                yield new JobKey(request.getReportType(), request.getTargetId(),
+                        request.getFromDate(), request.getToDate(), null, null);
+            }
+            case MONTHLY_STATEMENT, CREDIT_CARD_STATEMENT -> {
+                if (request.getYear() == null || request.getMonth() == null) {
+                    throw new InvalidOperationException(request.getReportType().getDisplayName() + " needs year and month");
+                }
+                yield new JobKey(request.getReportType(), request.getTargetId(),
+                        null, null, request.getYear(), request.getMonth());
+            }
+            case LOAN_STATEMENT -> new JobKey(request.getReportType(), request.getTargetId(), null, null, null, null);
+        };
+    }
+
+    private ReportJob findJob(String jobId) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Report job", jobId);
+        }
+        return job;
+    }
+
+    private Path resultFile(ReportJob job) {
+        return directory.resolve(job.id + ".pdf");
+    }
+
+    private void prepareDirectory() {
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, "*.{pdf,part}")) {
+                for (Path file : leftovers) {
+                    deleteQuietly(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not prepare report job directory " + directory, e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete report job file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static ReportJobResponse toResponse(ReportJob job) {
+        ReportJobResponse response = new ReportJobResponse();
+        response.setJobId(job.id);
+        response.setReportType(job.key.reportType());
+        response.setTargetId(job.key.targetId());
+        response.setStatus(job.status);
+        response.setCreatedAt(job.createdAt);
+        response.setStartedAt(job.startedAt);
+        response.setCompletedAt(job.completedAt);
+        response.setExpiresAt(job.expiresAt);
+        response.setSizeBytes(job.sizeBytes);
+        response.setError(job.error);
+        return response;
+    }
+}
@@ -5,27 +5,32 @@ import lombok.extern.slf4j.Slf4j;
 import net.sf.jasperreports.engine.*;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
 import net.sf.jasperreports.engine.export.JRPdfExporter;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRSwapFile;
 import net.sf.jasperreports.export.SimpleExporterInput;
 import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.bankingsystem.entity.Account;
-import com.bankingsystem.entity.Transaction;
 import com.bankingsystem.entity.Loan;
 import com.bankingsystem.entity.User;
+import com.bankingsystem.repository.AccountEntryRepository;
 import com.bankingsystem.repository.AccountRepository;
 import com.bankingsystem.repository.TransactionRepository;
 import com.bankingsystem.repository.LoanRepository;
+import com.bankingsystem.repository.StatementLine;
 import com.bankingsystem.repository.UserRepository;
+import com.bankingsystem.util.SpoolingOutputStream;
 
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -33,23 +38,36 @@ import java.util.*;
 public class ReportService {
 
     private final AccountRepository accountRepository;
+    private final AccountEntryRepository accountEntryRepository;
     private final TransactionRepository transactionRepository;
     private final LoanRepository loanRepository;
     private final UserRepository userRepository;
+    private final AccountService accountService;
+    private final ReportTemplateCache reportTemplateCache;
+
+    @Value("${banking.reports.spool-threshold-bytes:1048576}")
+    private int spoolThreshold;
+
+    @Value("${banking.reports.spool-dir:${java.io.tmpdir}}")
+    private String spoolDirectory;
+
+    @Value("${banking.reports.virtualizer-max-pages:50}")
+    private int virtualizerMaxPages;
 
     /**
      * Generate Account Statement Report
+     *
+     * Lines are read through a database cursor while the report fills and filled pages beyond
+     * banking.reports.virtualizer-max-pages are swapped to disk, so the statement period does not
+     * bound heap use. The transaction keeps the cursor open until the report is filled.
      */
-    public ByteArrayResource generateAccountStatement(Long accountId, LocalDateTime fromDate, LocalDateTime toDate) {
+    @Transactional(readOnly = true)
+    public Resource generateAccountStatement(Long accountId, LocalDateTime fromDate, LocalDateTime toDate) {
         try {
             // Get account details
             Account account = accountRepository.findById(accountId)
                     .orElseThrow(() -> new RuntimeException("Account not found"));
             
-            // Get transactions for the period
-            List<Transaction> transactions = transactionRepository
-                    .findByAccountAndDateRange(accountId, fromDate, toDate);
-            
             // Prepare report data
             Map<String, Object> parameters = new HashMap<>();
             parameters.put("accountNumber", account.getAccountNumber());
@@ -58,12 +76,17 @@ public class ReportService {
             parameters.put("fromDate", fromDate.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
             parameters.put("toDate", toDate.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
             parameters.put("currentBalance", account.getBalance());
+            // Opening balance excludes entries posted exactly at fromDate, which the period includes
+            parameters.put("openingBalance", accountService.getBalanceAt(accountId, fromDate.minusNanos(1)));
+            parameters.put("closingBalance", accountService.getBalanceAt(accountId, toDate));
             parameters.put("reportDate", LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
             
-            // Transaction data source
-            JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(transactions);
-            
-            return generateReport("account_statement.jrxml", parameters, dataSource);
+            // Transactions for the period, streamed into the report
+            try (Stream<StatementLine> lines = transactionRepository
+                    .streamStatementLines(accountId, fromDate, toDate)) {
+                return generateReport("account_statement", parameters,
+                        new StatementLineDataSource(lines.iterator()), true);
+            }
             
         } catch (Exception e) {
             log.error("Error generating account statement: ", e);
@@ -74,42 +97,30 @@ public class ReportService {
     /**
      * Generate Monthly Bank Statement
      */
-    public ByteArrayResource generateMonthlyStatement(Long userId, int year, int month) {
+    public Resource generateMonthlyStatement(Long userId, int year, int month) {
         try {
             User user = userRepository.findById(userId)
                     .orElseThrow(() -> new RuntimeException("User not found"));
             
-            List<Account> accounts = accountRepository.findByUserId(userId);
-            
             LocalDateTime fromDate = LocalDateTime.of(year, month, 1, 0, 0);
-            LocalDateTime toDate = fromDate.plusMonths(1).minusSeconds(1);
+            LocalDateTime toDate = fromDate.plusMonths(1);
+            
+            // Entry counts and debit/credit totals of every account, in one grouped query
+            List<AccountEntryRepository.AccountPeriodSummary> accounts = accountEntryRepository
+                    .summarizeAccountsByUser(userId, fromDate, toDate);
             
             // Prepare data for each account
             List<Map<String, Object>> accountData = new ArrayList<>();
             BigDecimal totalBalance = BigDecimal.ZERO;
             
-            for (Account account : accounts) {
-                List<Transaction> transactions = transactionRepository
-                        .findByAccountAndDateRange(account.getId(), fromDate, toDate);
-                
+            for (AccountEntryRepository.AccountPeriodSummary account : accounts) {
                 Map<String, Object> accData = new HashMap<>();
                 accData.put("accountNumber", account.getAccountNumber());
                 accData.put("accountType", account.getAccountType().toString());
                 accData.put("currentBalance", account.getBalance());
-                accData.put("transactionCount", transactions.size());
-                
-                BigDecimal monthlyDebit = transactions.stream()
-                        .filter(t -> t.getAmount().compareTo(BigDecimal.ZERO) < 0)
-                        .map(Transaction::getAmount)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                
-                BigDecimal monthlyCredit = transactions.stream()
-                        .filter(t -> t.getAmount().compareTo(BigDecimal.ZERO) > 0)
-                        .map(Transaction::getAmount)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                
-                accData.put("monthlyDebit", monthlyDebit.abs());
-                accData.put("monthlyCredit", monthlyCredit);
+                accData.put("transactionCount", Math.toIntExact(account.getEntryCount()));
+                accData.put("monthlyDebit", account.getDebitTotal());
+                accData.put("monthlyCredit", account.getCreditTotal());
                 
                 accountData.add(accData);
                 totalBalance = totalBalance.add(account.getBalance());
@@ -125,7 +136,7 @@ public class ReportService {
             
             JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(accountData);
             
-            return generateReport("monthly_statement.jrxml", parameters, dataSource);
+            return generateReport("monthly_statement", parameters, dataSource);
             
         } catch (Exception e) {
             log.error("Error generating monthly statement: ", e);
@@ -136,7 +147,7 @@ public class ReportService {
     /**
      * Generate Loan Statement Report
      */
-    public ByteArrayResource generateLoanStatement(Long loanId) {
+    public Resource generateLoanStatement(Long loanId) {
         try {
             Loan loan = loanRepository.findById(loanId)
                     .orElseThrow(() -> new RuntimeException("Loan not found"));
@@ -162,7 +173,7 @@ public class ReportService {
             // Create empty data source for simple report
             JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(Collections.emptyList());
             
-            return generateReport("loan_statement.jrxml", parameters, dataSource);
+            return generateReport("loan_statement", parameters, dataSource);
             
         } catch (Exception e) {
             log.error("Error generating loan statement: ", e);
@@ -173,7 +184,7 @@ public class ReportService {
     /**
      * Generate Credit Card Statement
      */
-    public ByteArrayResource generateCreditCardStatement(Long cardId, int year, int month) {
+    public Resource generateCreditCardStatement(Long cardId, int year, int month) {
         try {
             // This would be implemented when Card transactions are available
             // For now, return a placeholder
@@ -183,7 +194,7 @@ public class ReportService {
             
             JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(Collections.emptyList());
             
-            return generateReport("credit_card_statement.jrxml", parameters, dataSource);
+            return generateReport("credit_card_statement", parameters, dataSource);
             
         } catch (Exception e) {
             log.error("Error generating credit card statement: ", e);
@@ -194,24 +205,52 @@ public class ReportService {
     /**
      * Core method to generate JasperReports PDF
      */
-    private ByteArrayResource generateReport(String templateName, Map<String, Object> parameters, 
-                                           JRBeanCollectionDataSource dataSource) throws Exception {
+    private Resource generateReport(String templateName, Map<String, Object> parameters, 
+                                           JRDataSource dataSource) throws Exception {
+        return generateReport(templateName, parameters, dataSource, false);
+    }
+
+    /**
+     * Generates a PDF, optionally keeping only the most recent filled pages in memory and swapping
+     * the rest to a file in the spool directory until export.
+     */
+    private Resource generateReport(String templateName, Map<String, Object> parameters,
+                                           JRDataSource dataSource, boolean virtualize) throws Exception {
         
-        // Load the report template
-        InputStream templateStream = new ClassPathResource("reports/" + templateName).getInputStream();
-        JasperReport jasperReport = JasperCompileManager.compileReport(templateStream);
+        // Compiled once at startup and shared
+        JasperReport jasperReport = reportTemplateCache.get(templateName);
         
-        // Fill the report
-        JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
+        JRSwapFileVirtualizer virtualizer = null;
+        if (virtualize) {
+            virtualizer = new JRSwapFileVirtualizer(virtualizerMaxPages, new JRSwapFile(spoolDirectory, 4096, 256), true);
+            parameters.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
+        }
         
-        // Export to PDF
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        JRPdfExporter exporter = new JRPdfExporter();
-        exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
-        exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(outputStream));
-        exporter.exportReport();
+        SpoolingOutputStream outputStream = new SpoolingOutputStream(spoolThreshold, Paths.get(spoolDirectory));
+        try {
+            // Fill the report
+            JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
+            if (virtualizer != null) {
+                virtualizer.setReadOnly(true);
+            }
+            
+            // Export to PDF, spooling to a temporary file past the threshold so heap use stays bounded
+            try (outputStream) {
+                JRPdfExporter exporter = new JRPdfExporter();
+                exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
+                exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(outputStream));
+                exporter.exportReport();
+            }
+        } catch (Exception e) {
+            outputStream.discard();
+            throw e;
+        } finally {
+            if (virtualizer != null) {
+                virtualizer.cleanup();
+            }
+        }
         
-        return new ByteArrayResource(outputStream.toByteArray());
+        return outputStream.toResource(templateName + ".pdf");
     }
 
     private int calculateRemainingMonths(Loan loan) {
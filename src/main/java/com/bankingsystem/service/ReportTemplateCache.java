@@ -0,0 +1,107 @@
+package com.bankingsystem.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.util.JRLoader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled report templates, loaded once at startup from the {@code .jasper} files that the build
+ * compiles into {@code reports/} on the classpath. A compiled {@link JasperReport} is immutable
+ * and safe to fill from many threads, so requests share one instance per template.
+ *
+ * With banking.reports.hot-reload set, each lookup checks the template's {@code .jrxml} in
+ * banking.reports.source-dir and recompiles it when it has changed, for editing templates
+ * without a restart. That mode is meant for development only.
+ */
+@Slf4j
+@Component
+public class ReportTemplateCache {
+
+    public static final List<String> TEMPLATES = List.of(
+            "account_statement", "monthly_statement", "loan_statement", "credit_card_statement");
+
+    private final boolean hotReload;
+    private final Path sourceDirectory;
+    private final Map<String, Long> sourceTimestamps = new HashMap<>();
+    private volatile Map<String, JasperReport> reports = Map.of();
+
+    public ReportTemplateCache(@Value("${banking.reports.hot-reload:false}") boolean hotReload,
+                               @Value("${banking.reports.source-dir:src/main/resources/reports}") String sourceDirectory) {
+        this.hotReload = hotReload;
+        this.sourceDirectory = Paths.get(sourceDirectory);
+    }
+
+    @PostConstruct
+    public void load() throws IOException, JRException {
+        Map<String, JasperReport> loaded = new HashMap<>();
+        for (String name : TEMPLATES) {
+            loaded.put(name, loadCompiled(name));
+        }
+        reports = Map.copyOf(loaded);
+        log.info("Loaded {} report templates{}", loaded.size(), hotReload ? " with hot reload" : "");
+    }
+
+    public JasperReport get(String name) {
+        if (hotReload) {
+            reloadIfChanged(name);
+        }
+        JasperReport report = reports.get(name);
+        if (report == null) {
+            throw new IllegalArgumentException("Unknown report template: " + name);
+        }
+        return report;
+    }
+
+    private JasperReport loadCompiled(String name) throws IOException, JRException {
+        ClassPathResource compiled = new ClassPathResource("reports/" + name + ".jasper");
+        if (compiled.exists()) {
+            try (InputStream in = compiled.getInputStream()) {
+                return (JasperReport) JRLoader.loadObject(in);
+            }
+        }
+        // Not built by Maven, e.g. run straight from an IDE
+        log.warn("No precompiled reports/{}.jasper on the classpath, compiling the template", name);
+        try (InputStream in = new ClassPathResource("reports/" + name + ".jrxml").getInputStream()) {
+            return JasperCompileManager.compileReport(in);
+        }
+    }
+
+    private synchronized void reloadIfChanged(String name) {
+        Path source = sourceDirectory.resolve(name + ".jrxml");
+        try {
+            if (!Files.isRegularFile(source)) {
+                return;
+            }
+            long modified = Files.getLastModifiedTime(source).toMillis();
+            Long known = sourceTimestamps.get(name);
+            if (known != null && known == modified) {
+                return;
+            }
+            // Recorded first so a broken edit is reported once rather than on every request
+            sourceTimestamps.put(name, modified);
+            JasperReport report = JasperCompileManager.compileReport(source.toString());
+            Map<String, JasperReport> updated = new HashMap<>(reports);
+            updated.put(name, report);
+            reports = Map.copyOf(updated);
+            log.info("Reloaded report template {}", source);
+        } catch (IOException | JRException e) {
+            // Keep serving the last good version while the template is being edited
+            log.error("Could not reload report template {}", source, e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.repository.StatementLine;
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
+
+import java.util.Iterator;
+
+/**
+ * Report data source over statement lines, pulled from the underlying cursor one row at a time as
+ * the report fills, so only the current line is held. Fields are read directly, not by reflection.
+ */
+public class StatementLineDataSource implements JRDataSource {
+
+    private final Iterator<StatementLine> lines;
+    private StatementLine current;
+
+    public StatementLineDataSource(Iterator<StatementLine> lines) {
+        this.lines = lines;
+    }
+
+    @Override
+    public boolean next() {
+        if (!lines.hasNext()) {
+            current = null;
+            return false;
+        }
+        current = lines.next();
+        return true;
+    }
+
+    @Override
+    public Object getFieldValue(JRField field) throws JRException {
+        return switch (field.getName()) {
+            case "transactionReference" -> current.transactionReference();
+            case "transactionDate" -> current.transactionDate();
+            case "description" -> current.description();
+            case "amount" -> current.amount();
+            case "transactionType" -> current.transactionType() != null ? current.transactionType().name() : null;
+            default -> throw new JRException("Unknown statement field: " + field.getName());
+        };
+    }
+}
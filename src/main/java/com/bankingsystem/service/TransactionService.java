@@ -1,28 +1,43 @@
 package com.bankingsystem.service;
 
+import com.bankingsystem.dto.request.TransferRequest;
+import com.bankingsystem.dto.response.BatchPostingResponse;
+import com.bankingsystem.dto.response.CursorPageResponse;
 import com.bankingsystem.dto.response.TransactionResponse;
 import com.bankingsystem.entity.Account;
+import com.bankingsystem.entity.AccountEntry;
 import com.bankingsystem.entity.Transaction;
+import com.bankingsystem.enums.BatchPostingMode;
 import com.bankingsystem.enums.TransactionStatus;
 import com.bankingsystem.enums.TransactionType;
 import com.bankingsystem.exception.ResourceNotFoundException;
 import com.bankingsystem.exception.InsufficientFundsException;
 import com.bankingsystem.exception.InvalidTransactionException;
 import com.bankingsystem.mapper.TransactionMapper;
+import com.bankingsystem.repository.AccountEntryRepository;
 import com.bankingsystem.repository.AccountRepository;
 import com.bankingsystem.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -34,10 +49,18 @@ import java.util.stream.Collectors;
 @Slf4j
 public class TransactionService {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 200;
+    // Ids per account lookup, below SQL Server's limit of 2,100 parameters per statement
+    private static final int ACCOUNT_LOOKUP_CHUNK_SIZE = 2000;
+
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
     private final AuditService auditService;
     private final TransactionMapper transactionMapper;
+    private final AccountLockManager accountLockManager;
+    private final AccountEntryService accountEntryService;
+    private final AccountEntryRepository accountEntryRepository;
+    private final LimitsEngine limitsEngine;
 
     @Transactional
     public TransactionResponse deposit(Long accountId, BigDecimal amount, String description) {
@@ -60,12 +83,12 @@ public class TransactionService {
         transaction.setProcessedDate(LocalDateTime.now());
         
         // Update account balance
-        BigDecimal newBalance = account.getBalance().add(amount);
-        account.setBalance(newBalance);
-        transaction.setRunningBalance(newBalance);
+        accountRepository.credit(accountId, amount);
+        AccountEntry entry = accountEntryService.sequence(accountId, accountEntryService.newEntry(transaction, amount));
+        transaction.setRunningBalance(entry.getRunningBalance());
         
-        accountRepository.save(account);
         Transaction savedTransaction = transactionRepository.save(transaction);
+        accountEntryService.save(entry);
         
         auditService.logUserAction(
             account.getUser().getId(), 
@@ -88,10 +111,6 @@ public class TransactionService {
             throw new InvalidTransactionException("Withdrawal amount must be greater than zero");
         }
         
-        if (account.getBalance().compareTo(amount) < 0) {
-            throw new InsufficientFundsException("Insufficient funds");
-        }
-        
         Transaction transaction = new Transaction();
         transaction.setTransactionReference(generateTransactionReference());
         transaction.setTransactionType(TransactionType.WITHDRAWAL);
@@ -103,12 +122,15 @@ public class TransactionService {
         transaction.setProcessedDate(LocalDateTime.now());
         
         // Update account balance
-        BigDecimal newBalance = account.getBalance().subtract(amount);
-        account.setBalance(newBalance);
-        transaction.setRunningBalance(newBalance);
+        limitsEngine.reserveAccountDebit(accountId, amount);
+        if (accountRepository.debitIfSufficient(accountId, amount, BigDecimal.ZERO) == 0) {
+            throw new InsufficientFundsException("Insufficient funds");
+        }
+        AccountEntry entry = accountEntryService.sequence(accountId, accountEntryService.newEntry(transaction, amount.negate()));
+        transaction.setRunningBalance(entry.getRunningBalance());
         
-        accountRepository.save(account);
         Transaction savedTransaction = transactionRepository.save(transaction);
+        accountEntryService.save(entry);
         
         auditService.logUserAction(
             account.getUser().getId(), 
@@ -125,21 +147,19 @@ public class TransactionService {
     public List<TransactionResponse> transfer(Long fromAccountId, Long toAccountId, BigDecimal amount, String description) {
         log.info("Processing transfer from account: {} to account: {} amount: {}", fromAccountId, toAccountId, amount);
         
-        Account fromAccount = getAccountById(fromAccountId);
-        Account toAccount = getAccountById(toAccountId);
-        
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new InvalidTransactionException("Transfer amount must be greater than zero");
         }
         
-        if (fromAccount.getBalance().compareTo(amount) < 0) {
-            throw new InsufficientFundsException("Insufficient funds in source account");
-        }
-        
         if (fromAccountId.equals(toAccountId)) {
             throw new InvalidTransactionException("Cannot transfer to the same account");
         }
         
+        // Lock both accounts in ascending id order so opposite transfers cannot deadlock
+        Map<Long, Account> lockedAccounts = accountLockManager.lockAccounts(fromAccountId, toAccountId);
+        Account fromAccount = lockedAccounts.get(fromAccountId);
+        Account toAccount = lockedAccounts.get(toAccountId);
+        
         String transferRef = generateTransactionReference();
         
         // Debit transaction
@@ -167,17 +187,21 @@ public class TransactionService {
         creditTransaction.setProcessedDate(LocalDateTime.now());
         
         // Update balances
-        BigDecimal fromNewBalance = fromAccount.getBalance().subtract(amount);
-        BigDecimal toNewBalance = toAccount.getBalance().add(amount);
-        
-        fromAccount.setBalance(fromNewBalance);
-        toAccount.setBalance(toNewBalance);
+        limitsEngine.reserveAccountDebit(fromAccountId, amount);
+        if (accountRepository.debitIfSufficient(fromAccountId, amount, BigDecimal.ZERO) == 0) {
+            throw new InsufficientFundsException("Insufficient funds in source account");
+        }
+        accountRepository.credit(toAccountId, amount);
         
-        debitTransaction.setRunningBalance(fromNewBalance);
-        creditTransaction.setRunningBalance(toNewBalance);
+        AccountEntry debitEntry = accountEntryService.sequence(fromAccountId,
+                accountEntryService.newEntry(debitTransaction, amount.negate()));
+        AccountEntry creditEntry = accountEntryService.sequence(toAccountId,
+                accountEntryService.newEntry(creditTransaction, amount));
+        debitTransaction.setRunningBalance(debitEntry.getRunningBalance());
+        creditTransaction.setRunningBalance(creditEntry.getRunningBalance());
         
-        accountRepository.saveAll(Arrays.asList(fromAccount, toAccount));
         List<Transaction> transactions = transactionRepository.saveAll(Arrays.asList(debitTransaction, creditTransaction));
+        accountEntryService.saveAll(Arrays.asList(debitEntry, creditEntry));
         
         auditService.logUserAction(
             fromAccount.getUser().getId(), 
@@ -199,6 +223,174 @@ public class TransactionService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Posts many transfer legs in one database transaction. The referenced accounts are fetched with
+     * IN queries of up to {@value #ACCOUNT_LOOKUP_CHUNK_SIZE} ids, all legs are validated against running in-memory balances, each account's net
+     * change is applied with one conditional UPDATE (in ascending id order), and the transaction rows
+     * are written as one batch. In ALL_OR_NOTHING mode a single invalid leg rejects the whole batch.
+     */
+    @Transactional
+    public BatchPostingResponse postBatch(List<TransferRequest> legs, BatchPostingMode mode) {
+        log.info("Processing batch posting of {} legs in {} mode", legs.size(), mode);
+
+        Set<Long> accountIds = new HashSet<>();
+        for (TransferRequest leg : legs) {
+            accountIds.add(leg.getFromAccountId());
+            accountIds.add(leg.getToAccountId());
+        }
+        Map<Long, Account> accounts = new HashMap<>();
+        List<Long> ids = new ArrayList<>(accountIds);
+        for (int i = 0; i < ids.size(); i += ACCOUNT_LOOKUP_CHUNK_SIZE) {
+            for (Account account : accountRepository.findAllById(
+                    ids.subList(i, Math.min(ids.size(), i + ACCOUNT_LOOKUP_CHUNK_SIZE)))) {
+                accounts.put(account.getId(), account);
+            }
+        }
+
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        Map<Long, BigDecimal> netChanges = new TreeMap<>();
+        Map<Long, List<AccountEntry>> entries = new HashMap<>();
+        List<Transaction> rows = new ArrayList<>();
+        List<LimitsEngine.Reservation> reservations = new ArrayList<>();
+        BatchPostingResponse response = new BatchPostingResponse();
+        response.setMode(mode);
+        response.setTotalLegs(legs.size());
+
+        for (int i = 0; i < legs.size(); i++) {
+            TransferRequest leg = legs.get(i);
+            BatchPostingResponse.LegResult result = new BatchPostingResponse.LegResult();
+            result.setIndex(i);
+            response.getResults().add(result);
+
+            String error = validateLeg(leg, accounts, balances);
+            if (error == null) {
+                LimitsEngine.Reservation reservation = limitsEngine.tryReserveAccountDebit(leg.getFromAccountId(), leg.getAmount());
+                if (reservation == null) {
+                    error = "Transaction limit exceeded for account " + leg.getFromAccountId();
+                } else {
+                    reservations.add(reservation);
+                }
+            }
+            if (error != null) {
+                result.setErrorMessage(error);
+                response.setRejectedLegs(response.getRejectedLegs() + 1);
+                continue;
+            }
+
+            Account fromAccount = accounts.get(leg.getFromAccountId());
+            Account toAccount = accounts.get(leg.getToAccountId());
+            balances.put(fromAccount.getId(), balances.get(fromAccount.getId()).subtract(leg.getAmount()));
+            balances.put(toAccount.getId(),
+                    balances.computeIfAbsent(toAccount.getId(), id -> toAccount.getBalance()).add(leg.getAmount()));
+            netChanges.merge(fromAccount.getId(), leg.getAmount().negate(), BigDecimal::add);
+            netChanges.merge(toAccount.getId(), leg.getAmount(), BigDecimal::add);
+
+            String transferRef = generateTransactionReference();
+            Transaction debitTransaction = buildTransferRow(transferRef + "-DEBIT", leg.getAmount(),
+                    "Transfer to " + toAccount.getAccountNumber() + " - " + leg.getDescription(), fromAccount, toAccount);
+            Transaction creditTransaction = buildTransferRow(transferRef + "-CREDIT", leg.getAmount(),
+                    "Transfer from " + fromAccount.getAccountNumber() + " - " + leg.getDescription(), fromAccount, toAccount);
+            rows.add(debitTransaction);
+            rows.add(creditTransaction);
+            entries.computeIfAbsent(fromAccount.getId(), id -> new ArrayList<>())
+                    .add(accountEntryService.newEntry(debitTransaction, leg.getAmount().negate()));
+            entries.computeIfAbsent(toAccount.getId(), id -> new ArrayList<>())
+                    .add(accountEntryService.newEntry(creditTransaction, leg.getAmount()));
+
+            result.setPosted(true);
+            response.setPostedLegs(response.getPostedLegs() + 1);
+        }
+
+        if (mode == BatchPostingMode.ALL_OR_NOTHING && response.getRejectedLegs() > 0) {
+            // Nothing is posted but the transaction still commits, so hand back what the valid legs counted
+            reservations.forEach(limitsEngine::release);
+            for (BatchPostingResponse.LegResult result : response.getResults()) {
+                if (result.isPosted()) {
+                    result.setPosted(false);
+                    result.setTransactions(null);
+                    result.setErrorMessage("Not posted: batch rejected");
+                }
+            }
+            log.info("Batch posting rejected, {} invalid legs", response.getRejectedLegs());
+            response.setRejectedLegs(legs.size());
+            response.setPostedLegs(0);
+            return response;
+        }
+
+        // Ascending account id order keeps row locks consistent with single transfers
+        for (Map.Entry<Long, BigDecimal> change : netChanges.entrySet()) {
+            List<AccountEntry> accountEntries = entries.get(change.getKey());
+            if (change.getValue().signum() >= 0) {
+                // A zero net change still reserves the accounts' entry sequence numbers
+                accountRepository.credit(change.getKey(), change.getValue(), accountEntries.size());
+            } else if (accountRepository.debitIfSufficient(change.getKey(), change.getValue().negate(),
+                    BigDecimal.ZERO, accountEntries.size()) == 0) {
+                throw new InsufficientFundsException("Insufficient funds in account " + change.getKey()
+                        + " after concurrent update, batch rolled back");
+            }
+            for (AccountEntry entry : accountEntryService.sequence(change.getKey(), accountEntries)) {
+                entry.getTransaction().setRunningBalance(entry.getRunningBalance());
+            }
+        }
+
+        List<Transaction> savedRows = transactionRepository.saveAll(rows);
+        accountEntryService.saveAll(entries.values().stream().flatMap(List::stream).collect(Collectors.toList()));
+        int row = 0;
+        for (BatchPostingResponse.LegResult result : response.getResults()) {
+            if (result.isPosted()) {
+                result.setTransactions(List.of(
+                        transactionMapper.toResponse(savedRows.get(row++)),
+                        transactionMapper.toResponse(savedRows.get(row++))));
+            }
+        }
+
+        auditService.logSystemAction("BATCH_POSTING",
+                "Batch posting of " + response.getPostedLegs() + " legs (" + response.getRejectedLegs() + " rejected)",
+                "TRANSACTION", "LOW");
+
+        log.info("Batch posting completed: {} posted, {} rejected", response.getPostedLegs(), response.getRejectedLegs());
+        return response;
+    }
+
+    private String validateLeg(TransferRequest leg, Map<Long, Account> accounts, Map<Long, BigDecimal> balances) {
+        if (leg.getAmount() == null || leg.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            return "Transfer amount must be greater than zero";
+        }
+        if (leg.getFromAccountId() == null || leg.getToAccountId() == null) {
+            return "From and to account IDs are required";
+        }
+        if (leg.getFromAccountId().equals(leg.getToAccountId())) {
+            return "Cannot transfer to the same account";
+        }
+        Account fromAccount = accounts.get(leg.getFromAccountId());
+        if (fromAccount == null) {
+            return "Account not found with ID: " + leg.getFromAccountId();
+        }
+        if (!accounts.containsKey(leg.getToAccountId())) {
+            return "Account not found with ID: " + leg.getToAccountId();
+        }
+        BigDecimal available = balances.computeIfAbsent(fromAccount.getId(), id -> fromAccount.getBalance());
+        if (available.compareTo(leg.getAmount()) < 0) {
+            return "Insufficient funds in source account";
+        }
+        return null;
+    }
+
+    private Transaction buildTransferRow(String reference, BigDecimal amount, String description,
+                                         Account fromAccount, Account toAccount) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionReference(reference);
+        transaction.setTransactionType(TransactionType.TRANSFER);
+        transaction.setAmount(amount);
+        transaction.setDescription(description);
+        transaction.setFromAccount(fromAccount);
+        transaction.setToAccount(toAccount);
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setTransactionDate(LocalDateTime.now());
+        transaction.setProcessedDate(LocalDateTime.now());
+        return transaction;
+    }
+
     public TransactionResponse getTransactionById(Long transactionId) {
         Transaction transaction = transactionRepository.findById(transactionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with ID: " + transactionId));
@@ -210,23 +402,60 @@ public class TransactionService {
         return transactions.map(transactionMapper::toResponse);
     }
 
+    /**
+     * Cursor-paginated account history, newest first. Each page seeks below the last entry sequence
+     * seen in the account's ledger entries, so the cost does not grow with depth, and no total count
+     * is computed.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TransactionResponse> getTransactionHistory(Long accountId, String cursor, int size) {
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new InvalidTransactionException("Page size must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
+        long beforeSeq = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                beforeSeq = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            } catch (RuntimeException e) {
+                throw new InvalidTransactionException("Invalid history cursor");
+            }
+        }
+
+        // One extra row tells whether another page exists
+        List<AccountEntry> rows = accountEntryRepository.findHistoryBefore(accountId, beforeSeq, PageRequest.of(0, size + 1));
+        boolean hasMore = rows.size() > size;
+        List<AccountEntry> page = hasMore ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    String.valueOf(page.get(page.size() - 1).getSeq()).getBytes(StandardCharsets.UTF_8));
+        }
+        List<TransactionResponse> items = page.stream()
+                .map(entry -> transactionMapper.toResponse(entry.getTransaction()))
+                .collect(Collectors.toList());
+        return new CursorPageResponse<>(items, nextCursor, hasMore);
+    }
+
     public Page<TransactionResponse> getTransactionsByUserId(Long userId, Pageable pageable) {
         Page<Transaction> transactions = transactionRepository.findByUserId(userId, pageable);
         return transactions.map(transactionMapper::toResponse);
     }
 
-    public Page<TransactionResponse> getTransactionsByType(TransactionType type, Pageable pageable) {
-        List<Transaction> transactions = transactionRepository.findByTransactionType(type);
-        List<TransactionResponse> responses = transactions.stream()
-                .map(transactionMapper::toResponse)
-                .collect(Collectors.toList());
-        
-        // Simple pagination implementation
-        int start = Math.min((int) pageable.getOffset(), responses.size());
-        int end = Math.min((start + pageable.getPageSize()), responses.size());
-        List<TransactionResponse> pageContent = responses.subList(start, end);
-        
-        return new PageImpl<>(pageContent, pageable, responses.size());
+    /**
+     * Page of transactions of one type, optionally filtered by status and date range. Paging happens
+     * in the database; without an explicit sort the newest transactions come first.
+     */
+    @Transactional(readOnly = true)
+    public Page<TransactionResponse> getTransactionsByType(TransactionType type, TransactionStatus status,
+                                                           LocalDateTime startDate, LocalDateTime endDate,
+                                                           Pageable pageable) {
+        if (pageable.getSort().isUnsorted()) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                    Sort.by(Sort.Direction.DESC, "transactionDate", "id"));
+        }
+        Page<Transaction> transactions = transactionRepository.findByTransactionType(type, status, startDate, endDate, pageable);
+        return transactions.map(transactionMapper::toResponse);
     }
 
     public List<TransactionResponse> getTransactionsByDateRange(Long accountId, LocalDateTime startDate, LocalDateTime endDate) {
@@ -241,7 +470,7 @@ public class TransactionService {
                 .orElseThrow(() -> new ResourceNotFoundException("Account not found with ID: " + accountId));
     }
 
-    private String generateTransactionReference() {
+    static String generateTransactionReference() {
         return "TXN-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 }
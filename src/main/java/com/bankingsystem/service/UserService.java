@@ -7,6 +7,7 @@ import com.bankingsystem.entity.User;
 import com.bankingsystem.enums.UserRole;
 import com.bankingsystem.exception.ResourceNotFoundException;
 import com.bankingsystem.repository.UserRepository;
+import com.bankingsystem.security.UserStatusCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -32,6 +33,9 @@ public class UserService {
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private UserStatusCache userStatusCache;
+
     public UserResponse createUser(UserRegistrationRequest request) {
         // Check if username already exists
         if (userRepository.existsByUsername(request.getUsername())) {
@@ -163,6 +167,7 @@ public class UserService {
         // Soft delete by disabling the user
         user.setIsEnabled(false);
         userRepository.save(user);
+        userStatusCache.evict(id);
     }
 
     public UserResponse enableUser(Long id) {
@@ -174,6 +179,7 @@ public class UserService {
         user.setFailedLoginAttempts(0);
         
         User updatedUser = userRepository.save(user);
+        userStatusCache.evict(id);
         return convertToUserResponse(updatedUser);
     }
 
@@ -184,6 +190,7 @@ public class UserService {
         user.setIsEnabled(false);
         
         User updatedUser = userRepository.save(user);
+        userStatusCache.evict(id);
         return convertToUserResponse(updatedUser);
     }
 
@@ -204,6 +211,7 @@ public class UserService {
             // Lock account after 5 failed attempts
             if (user.getFailedLoginAttempts() >= 5) {
                 user.setIsAccountNonLocked(false);
+                userStatusCache.evict(user.getId());
             }
             
             userRepository.save(user);
@@ -256,6 +264,7 @@ public class UserService {
         user.setIsAccountNonLocked(true);
         
         User savedUser = userRepository.save(user);
+        userStatusCache.evict(id);
         
         // Log password reset
         auditService.logUserAction(id, "PASSWORD_RESET", 
@@ -273,6 +282,7 @@ public class UserService {
         user.setFailedLoginAttempts(0);
         
         User savedUser = userRepository.save(user);
+        userStatusCache.evict(id);
         
         // Log account unlock
         auditService.logUserAction(id, "ACCOUNT_UNLOCKED", 
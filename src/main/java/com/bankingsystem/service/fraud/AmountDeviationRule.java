@@ -0,0 +1,40 @@
+package com.bankingsystem.service.fraud;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Scores amounts far above what the card usually spends, measured in standard deviations from
+ * the mean of its recent authorizations.
+ */
+@Component
+public class AmountDeviationRule implements FraudRule {
+
+    private static final int MIN_HISTORY = 5;
+
+    @Override
+    public int score(CardAuthorization authorization, CardHistory history) {
+        int n = history.size();
+        if (n < MIN_HISTORY) {
+            return 0;
+        }
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (int i = 0; i < n; i++) {
+            double amount = history.amountAt(i);
+            sum += amount;
+            sumOfSquares += amount * amount;
+        }
+        double mean = sum / n;
+        double deviation = Math.sqrt(Math.max(0, sumOfSquares / n - mean * mean));
+        // Floor the spread so a card with identical amounts is not flagged for a cent more
+        double spread = Math.max(deviation, Math.max(mean * 0.25, 100));
+        double z = (authorization.amountCents() - mean) / spread;
+        if (z >= 8) {
+            return 50;
+        }
+        if (z >= 4) {
+            return 25;
+        }
+        return 0;
+    }
+}
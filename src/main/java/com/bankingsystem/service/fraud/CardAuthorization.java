@@ -0,0 +1,15 @@
+package com.bankingsystem.service.fraud;
+
+/**
+ * A card authorization reduced to the primitives the fraud rules look at. Merchant category and
+ * location are compared by hash; 0 means unknown.
+ */
+public record CardAuthorization(long cardId,
+                                long timestampMillis,
+                                long amountCents,
+                                int merchantCategory,
+                                int location,
+                                boolean online,
+                                boolean international,
+                                boolean internationalEnabled) {
+}
@@ -0,0 +1,70 @@
+package com.bankingsystem.service.fraud;
+
+/**
+ * Ring buffer of a card's most recent approved authorizations, stored as parallel primitive
+ * arrays. Index 0 is the most recent authorization. Not thread-safe; callers lock the instance.
+ */
+public final class CardHistory {
+
+    private final long[] timestamps;
+    private final long[] amounts;
+    private final int[] categories;
+    private final int[] locations;
+    private final boolean[] online;
+    private int size;
+    private int head; // Slot of the next write
+
+    public CardHistory(int capacity) {
+        this.timestamps = new long[capacity];
+        this.amounts = new long[capacity];
+        this.categories = new int[capacity];
+        this.locations = new int[capacity];
+        this.online = new boolean[capacity];
+    }
+
+    public void add(CardAuthorization authorization) {
+        add(authorization.timestampMillis(), authorization.amountCents(), authorization.merchantCategory(),
+                authorization.location(), authorization.online());
+    }
+
+    public void add(long timestampMillis, long amountCents, int merchantCategory, int location, boolean isOnline) {
+        timestamps[head] = timestampMillis;
+        amounts[head] = amountCents;
+        categories[head] = merchantCategory;
+        locations[head] = location;
+        online[head] = isOnline;
+        head = (head + 1) % timestamps.length;
+        if (size < timestamps.length) {
+            size++;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long timestampAt(int index) {
+        return timestamps[slot(index)];
+    }
+
+    public long amountAt(int index) {
+        return amounts[slot(index)];
+    }
+
+    public int categoryAt(int index) {
+        return categories[slot(index)];
+    }
+
+    public int locationAt(int index) {
+        return locations[slot(index)];
+    }
+
+    public boolean onlineAt(int index) {
+        return online[slot(index)];
+    }
+
+    private int slot(int index) {
+        int slot = head - 1 - index;
+        return slot < 0 ? slot + timestamps.length : slot;
+    }
+}
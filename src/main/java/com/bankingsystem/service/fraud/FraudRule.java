@@ -0,0 +1,16 @@
+package com.bankingsystem.service.fraud;
+
+/**
+ * One signal of the card fraud score. Rules are Spring beans; every FraudRule in the context is
+ * evaluated for each authorization and their points are added up.
+ *
+ * Implementations run on the authorization path while the card's history is locked, so they must
+ * be quick and must not allocate: read the history through its indexed accessors only.
+ */
+public interface FraudRule {
+
+    /**
+     * Points between 0 and 100 for this authorization, given the card's recent history.
+     */
+    int score(CardAuthorization authorization, CardHistory history);
+}
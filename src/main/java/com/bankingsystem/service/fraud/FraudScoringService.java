@@ -0,0 +1,166 @@
+package com.bankingsystem.service.fraud;
+
+import com.bankingsystem.entity.CardTransaction;
+import com.bankingsystem.enums.TransactionStatus;
+import com.bankingsystem.repository.CardTransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores card authorizations against the card's recent history before they are approved.
+ *
+ * Each card has an in-memory ring buffer of its last approved authorizations, loaded from the
+ * database the first time the card is seen and appended to after each approved authorization
+ * commits. Scoring runs every {@link FraudRule} bean over the buffer under the card's lock and
+ * adds up their points; the rules do not allocate, so a score costs microseconds.
+ */
+@Slf4j
+@Service
+public class FraudScoringService {
+
+    public enum Decision {
+        APPROVE,
+        REVIEW,
+        DECLINE
+    }
+
+    private static final long IDLE_MILLIS = TimeUnit.HOURS.toMillis(24);
+    // Authorizations still on hold were approved too
+    private static final List<TransactionStatus> APPROVED_STATUSES = List.of(TransactionStatus.PENDING, TransactionStatus.COMPLETED);
+
+    private final CardTransactionRepository cardTransactionRepository;
+    private final FraudRule[] rules;
+    private final int historySize;
+    private final int reviewScore;
+    private final int declineScore;
+    private final Timer scoreTimer;
+    private final Map<Long, CardHistory> histories = new ConcurrentHashMap<>();
+
+    public FraudScoringService(CardTransactionRepository cardTransactionRepository,
+                               List<FraudRule> rules,
+                               MeterRegistry meterRegistry,
+                               @Value("${banking.fraud.history-size:32}") int historySize,
+                               @Value("${banking.fraud.review-score:50}") int reviewScore,
+                               @Value("${banking.fraud.decline-score:80}") int declineScore) {
+        this.cardTransactionRepository = cardTransactionRepository;
+        this.rules = rules.toArray(new FraudRule[0]);
+        this.historySize = historySize;
+        this.reviewScore = reviewScore;
+        this.declineScore = declineScore;
+        this.scoreTimer = Timer.builder("banking.fraud.score")
+                .description("Time spent scoring card authorizations")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    public static CardAuthorization authorization(Long cardId, BigDecimal amount, String merchantCategory,
+                                                  String location, boolean online, boolean international,
+                                                  boolean internationalEnabled) {
+        return new CardAuthorization(cardId, System.currentTimeMillis(), amount.movePointRight(2).longValue(),
+                hash(merchantCategory), hash(location), online, international, internationalEnabled);
+    }
+
+    public Decision decide(int score) {
+        if (score >= declineScore) {
+            return Decision.DECLINE;
+        }
+        return score >= reviewScore ? Decision.REVIEW : Decision.APPROVE;
+    }
+
+    /**
+     * Sum of the rule points for the authorization, capped at 100.
+     */
+    public int score(CardAuthorization authorization) {
+        CardHistory history = historyOf(authorization.cardId());
+        long start = System.nanoTime();
+        int score = 0;
+        synchronized (history) {
+            for (FraudRule rule : rules) {
+                score += rule.score(authorization, history);
+            }
+        }
+        scoreTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return Math.min(score, 100);
+    }
+
+    /**
+     * Adds an approved authorization to the card's history once the surrounding transaction commits.
+     */
+    public void recordApproved(CardAuthorization authorization) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(authorization);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(authorization);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${banking.fraud.evict-interval-ms:3600000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - IDLE_MILLIS;
+        histories.values().removeIf(history -> {
+            synchronized (history) {
+                return history.size() == 0 || history.timestampAt(0) < cutoff;
+            }
+        });
+    }
+
+    private void record(CardAuthorization authorization) {
+        CardHistory history = historyOf(authorization.cardId());
+        synchronized (history) {
+            history.add(authorization);
+        }
+    }
+
+    private CardHistory historyOf(long cardId) {
+        CardHistory history = histories.get(cardId);
+        if (history != null) {
+            return history;
+        }
+        // Loaded outside computeIfAbsent so the query does not block other cards in the same bin
+        CardHistory loaded = load(cardId);
+        CardHistory existing = histories.putIfAbsent(cardId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private CardHistory load(long cardId) {
+        CardHistory history = new CardHistory(historySize);
+        List<CardTransaction> recent = cardTransactionRepository.findRecentByCardId(cardId,
+                APPROVED_STATUSES, PageRequest.of(0, historySize));
+        ZoneId zone = ZoneId.systemDefault();
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            CardTransaction transaction = recent.get(i);
+            history.add(transaction.getTransactionDate().atZone(zone).toInstant().toEpochMilli(),
+                    transaction.getAmount().movePointRight(2).longValue(),
+                    hash(transaction.getMerchantCategory()), hash(transaction.getLocation()),
+                    Boolean.TRUE.equals(transaction.getIsOnline()));
+        }
+        return history;
+    }
+
+    private static int hash(String value) {
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        int hash = value.trim().toLowerCase().hashCode();
+        return hash != 0 ? hash : 1;
+    }
+}
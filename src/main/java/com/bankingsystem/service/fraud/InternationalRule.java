@@ -0,0 +1,15 @@
+package com.bankingsystem.service.fraud;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Declines international authorizations on cards that have international transactions disabled.
+ */
+@Component
+public class InternationalRule implements FraudRule {
+
+    @Override
+    public int score(CardAuthorization authorization, CardHistory history) {
+        return authorization.international() && !authorization.internationalEnabled() ? 100 : 0;
+    }
+}
@@ -0,0 +1,30 @@
+package com.bankingsystem.service.fraud;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Scores an in-person authorization at a different location from the card's previous in-person
+ * authorization shortly before, which a single cardholder could hardly have travelled.
+ */
+@Component
+public class LocationJumpRule implements FraudRule {
+
+    private static final long WINDOW_MILLIS = 30 * 60_000L;
+
+    @Override
+    public int score(CardAuthorization authorization, CardHistory history) {
+        if (authorization.online() || authorization.location() == 0) {
+            return 0;
+        }
+        for (int i = 0; i < history.size(); i++) {
+            long age = authorization.timestampMillis() - history.timestampAt(i);
+            if (age >= WINDOW_MILLIS) {
+                return 0;
+            }
+            if (!history.onlineAt(i) && history.locationAt(i) != 0) {
+                return history.locationAt(i) != authorization.location() ? 40 : 0;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,25 @@
+package com.bankingsystem.service.fraud;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Scores a merchant category the card has not been used at recently.
+ */
+@Component
+public class MerchantCategoryNoveltyRule implements FraudRule {
+
+    private static final int MIN_HISTORY = 5;
+
+    @Override
+    public int score(CardAuthorization authorization, CardHistory history) {
+        if (authorization.merchantCategory() == 0 || history.size() < MIN_HISTORY) {
+            return 0;
+        }
+        for (int i = 0; i < history.size(); i++) {
+            if (history.categoryAt(i) == authorization.merchantCategory()) {
+                return 0;
+            }
+        }
+        return 15;
+    }
+}
@@ -0,0 +1,36 @@
+package com.bankingsystem.service.fraud;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Scores bursts of authorizations: several within a minute, or many within an hour.
+ */
+@Component
+public class VelocityRule implements FraudRule {
+
+    private static final long MINUTE_MILLIS = 60_000L;
+    private static final long HOUR_MILLIS = 3_600_000L;
+
+    @Override
+    public int score(CardAuthorization authorization, CardHistory history) {
+        int lastMinute = 0;
+        int lastHour = 0;
+        for (int i = 0; i < history.size(); i++) {
+            long age = authorization.timestampMillis() - history.timestampAt(i);
+            if (age >= HOUR_MILLIS) {
+                break; // Newest first, so the rest are older
+            }
+            lastHour++;
+            if (age < MINUTE_MILLIS) {
+                lastMinute++;
+            }
+        }
+        if (lastMinute >= 5) {
+            return 60;
+        }
+        if (lastMinute >= 3 || lastHour >= 15) {
+            return 30;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,150 @@
+package com.bankingsystem.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.Transient;
+import org.hibernate.Hibernate;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Utility class for building compact field-level audit diffs of entities.
+ *
+ * Only scalar fields (strings, numbers, booleans, enums, dates) are read, straight from the fields,
+ * so associations and lazy collections are never touched.
+ */
+public class EntityDiff {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private static final Map<Class<?>, List<Field>> SCALAR_FIELDS = new ConcurrentHashMap<>();
+
+    private EntityDiff() {
+    }
+
+    /**
+     * Capture the current scalar field values of an entity.
+     */
+    public static Snapshot snapshot(Object entity) {
+        Object target = Hibernate.unproxy(entity);
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Field field : scalarFields(target.getClass())) {
+            try {
+                values.put(field.getName(), field.get(target));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot read field " + field.getName(), e);
+            }
+        }
+        return new Snapshot(values);
+    }
+
+    private static List<Field> scalarFields(Class<?> type) {
+        return SCALAR_FIELDS.computeIfAbsent(type, EntityDiff::resolveScalarFields);
+    }
+
+    private static List<Field> resolveScalarFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)
+                        || field.isAnnotationPresent(Transient.class) || !isScalar(field.getType())) {
+                    continue;
+                }
+                field.setAccessible(true);
+                fields.add(field);
+            }
+        }
+        return List.copyOf(fields);
+    }
+
+    private static boolean isScalar(Class<?> type) {
+        return type.isPrimitive() || type.isEnum() || type == String.class || type == Boolean.class
+                || Number.class.isAssignableFrom(type) || Temporal.class.isAssignableFrom(type)
+                || type == UUID.class;
+    }
+
+    /**
+     * Scalar field values of an entity at one point in time.
+     */
+    public static final class Snapshot {
+
+        private final Map<String, Object> values;
+
+        private Snapshot(Map<String, Object> values) {
+            this.values = values;
+        }
+
+        /**
+         * Compare this snapshot with the entity's current state and return only the changed fields.
+         */
+        public Changes diff(Object entity) {
+            Map<String, Object> current = snapshot(entity).values;
+            Map<String, Object> oldValues = new LinkedHashMap<>();
+            Map<String, Object> newValues = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> entry : current.entrySet()) {
+                Object before = values.get(entry.getKey());
+                if (!sameValue(before, entry.getValue())) {
+                    oldValues.put(entry.getKey(), before);
+                    newValues.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return new Changes(oldValues, newValues);
+        }
+
+        private static boolean sameValue(Object before, Object after) {
+            if (before instanceof BigDecimal b && after instanceof BigDecimal a) {
+                return b.compareTo(a) == 0;
+            }
+            return Objects.equals(before, after);
+        }
+    }
+
+    /**
+     * Changed fields with their old and new values.
+     */
+    public static final class Changes {
+
+        private final Map<String, Object> oldValues;
+        private final Map<String, Object> newValues;
+
+        private Changes(Map<String, Object> oldValues, Map<String, Object> newValues) {
+            this.oldValues = oldValues;
+            this.newValues = newValues;
+        }
+
+        public boolean isEmpty() {
+            return newValues.isEmpty();
+        }
+
+        public String oldValuesJson() {
+            return toJson(oldValues);
+        }
+
+        public String newValuesJson() {
+            return toJson(newValues);
+        }
+
+        private static String toJson(Map<String, Object> values) {
+            try {
+                return MAPPER.writeValueAsString(values);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot serialize audit diff", e);
+            }
+        }
+    }
+}
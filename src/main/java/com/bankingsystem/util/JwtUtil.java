@@ -1,7 +1,10 @@
 package com.bankingsystem.util;
 
+import com.bankingsystem.enums.UserRole;
+import com.bankingsystem.security.CustomUserDetailsService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -9,15 +12,25 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.function.Function;
 
 /**
  * Utility class for JWT token operations.
+ *
+ * The signing key and parser are built once. Verified tokens are kept in a cache keyed by their
+ * signature until they expire, so a token seen recently is not HMAC-verified again. The cache holds
+ * at most jwt.parsed-token-cache.max-size tokens and evicts the least recently used on insert.
  */
 @Component
 public class JwtUtil {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_STATUS = "status";
+    public static final String STATUS_ACTIVE = "ACTIVE";
+    public static final String STATUS_INACTIVE = "INACTIVE";
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -27,40 +40,89 @@ public class JwtUtil {
     @Value("${jwt.refresh-expiration}")
     private Long refreshExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
-    }
+    @Value("${jwt.parsed-token-cache.max-size:10000}")
+    private int parsedTokenCacheMaxSize;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    private SecretKey signingKey;
+
+    private JwtParser parser;
+
+    private Map<String, ParsedToken> parsedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        parsedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ParsedToken> eldest) {
+                return size() > parsedTokenCacheMaxSize;
+            }
+        };
     }
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Verify a token and return its claims. Tokens verified before are served from the cache until
+     * they expire.
+     *
+     * @throws JwtException if the token is malformed, badly signed or expired
+     */
+    public ParsedToken parse(String token) {
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        synchronized (parsedTokens) {
+            ParsedToken cached = parsedTokens.get(signature);
+            if (cached != null && cached.token().equals(token)) {
+                if (!cached.isExpired()) {
+                    return cached;
+                }
+                parsedTokens.remove(signature);
+            }
+        }
+
+        // Verified outside the lock so a slow signature check does not hold up cache hits
+        ParsedToken parsed = ParsedToken.of(token, extractAllClaims(token));
+        synchronized (parsedTokens) {
+            parsedTokens.put(signature, parsed);
+        }
+        return parsed;
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public String extractUsername(String token) {
+        return parse(token).subject();
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public Date extractExpiration(String token) {
+        return parse(token).expiration();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private Claims extractAllClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof CustomUserDetailsService.CustomUserPrincipal principal) {
+            claims.put(CLAIM_USER_ID, principal.getUserId());
+            claims.put(CLAIM_ROLE, principal.getRole().name());
+            claims.put(CLAIM_STATUS, principal.isEnabled() && principal.isAccountNonLocked()
+                    ? STATUS_ACTIVE : STATUS_INACTIVE);
+        }
         return createToken(claims, userDetails.getUsername(), expiration);
     }
 
+    /**
+     * Build the principal from access token claims, or return null for tokens issued without them.
+     */
+    public CustomUserDetailsService.CustomUserPrincipal extractPrincipal(ParsedToken token) {
+        if (token.userId() == null || token.role() == null) {
+            return null;
+        }
+        return new CustomUserDetailsService.CustomUserPrincipal(token.userId(), token.subject(),
+                token.role(), STATUS_ACTIVE.equals(token.status()));
+    }
+
     public String generateRefreshToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("type", "refresh");
@@ -78,27 +140,29 @@ public class JwtUtil {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        try {
+            ParsedToken parsed = parse(token);
+            return parsed.subject().equals(userDetails.getUsername()) && !parsed.isExpired();
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
     }
 
     public Boolean validateToken(String token) {
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
+            return !parse(token).isExpired();
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
 
     public String getTokenType(String token) {
-        Claims claims = extractAllClaims(token);
-        return (String) claims.get("type");
+        return parse(token).type();
     }
 
     public Long getExpirationTime() {
@@ -108,4 +172,42 @@ public class JwtUtil {
     public Long getRefreshExpirationTime() {
         return refreshExpiration;
     }
+
+    /**
+     * Immutable view of a verified token's claims.
+     */
+    public record ParsedToken(String token, String subject, Long userId, UserRole role, String status,
+                              String type, Date expiration) {
+
+        static ParsedToken of(String token, Claims claims) {
+            Object userId = claims.get(CLAIM_USER_ID);
+            String role = claims.get(CLAIM_ROLE, String.class);
+            return new ParsedToken(token, claims.getSubject(),
+                    userId != null ? ((Number) userId).longValue() : null,
+                    role != null ? UserRole.valueOf(role) : null,
+                    claims.get(CLAIM_STATUS, String.class),
+                    claims.get("type", String.class),
+                    claims.getExpiration());
+        }
+
+        public ParsedToken {
+            expiration = expiration != null ? new Date(expiration.getTime()) : null;
+        }
+
+        @Override
+        public Date expiration() {
+            return expiration != null ? new Date(expiration.getTime()) : null;
+        }
+
+        public boolean isExpired() {
+            return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+        }
+
+        @Override
+        public String toString() {
+            // Keep the raw token out of logs
+            return "ParsedToken[subject=" + subject + ", userId=" + userId + ", role=" + role
+                    + ", type=" + type + ", expiration=" + expiration + "]";
+        }
+    }
 }
@@ -0,0 +1,45 @@
+package com.bankingsystem.util;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Compiles the JasperReports templates at build time. Run by the exec-maven-plugin in the
+ * process-classes phase with the template directory and the output directory as arguments; writes
+ * one {@code .jasper} file per {@code .jrxml}, skipping templates that have not changed.
+ */
+public class ReportTemplateCompiler {
+
+    private ReportTemplateCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException, JRException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: ReportTemplateCompiler <template directory> <output directory>");
+        }
+        Path sourceDirectory = Paths.get(args[0]);
+        Path outputDirectory = Paths.get(args[1]);
+        Files.createDirectories(outputDirectory);
+
+        int compiled = 0;
+        try (DirectoryStream<Path> templates = Files.newDirectoryStream(sourceDirectory, "*.jrxml")) {
+            for (Path template : templates) {
+                String name = template.getFileName().toString();
+                Path target = outputDirectory.resolve(name.substring(0, name.length() - ".jrxml".length()) + ".jasper");
+                if (Files.exists(target)
+                        && Files.getLastModifiedTime(target).compareTo(Files.getLastModifiedTime(template)) >= 0) {
+                    continue;
+                }
+                JasperCompileManager.compileReportToFile(template.toString(), target.toString());
+                compiled++;
+            }
+        }
+        System.out.println("Compiled " + compiled + " report templates into " + outputDirectory);
+    }
+}
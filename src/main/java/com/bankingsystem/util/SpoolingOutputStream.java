@@ -0,0 +1,133 @@
+package com.bankingsystem.util;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Output stream that keeps the first {@code threshold} bytes in memory and moves everything to a
+ * temporary file once that is exceeded, so a large document costs at most {@code threshold} bytes
+ * of heap. After {@link #close()} the content can be read back once through {@link #toResource};
+ * a temporary file is deleted when that stream is closed, or by {@link #discard()}.
+ */
+public class SpoolingOutputStream extends OutputStream {
+
+    private final int threshold;
+    private final Path directory;
+    private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+    private Path file;
+    private OutputStream fileOut;
+    private long size;
+    private boolean closed;
+
+    public SpoolingOutputStream(int threshold, Path directory) {
+        this.threshold = threshold;
+        this.directory = directory;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        reserve(1).write(b);
+        size++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        reserve(length).write(bytes, offset, length);
+        size += length;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (fileOut != null) {
+            fileOut.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            if (fileOut != null) {
+                fileOut.close();
+            }
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isSpooled() {
+        return file != null;
+    }
+
+    /**
+     * Deletes the temporary file, if any, for output that will not be read.
+     */
+    public void discard() {
+        try {
+            close();
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            // Nothing more to do; the file is in the temporary directory
+        }
+    }
+
+    /**
+     * Single-use resource over the written content with a known content length.
+     */
+    public Resource toResource(String description) {
+        if (!closed) {
+            throw new IllegalStateException("Output must be closed before it is read");
+        }
+        return new AbstractResource() {
+            @Override
+            public String getDescription() {
+                return description;
+            }
+
+            @Override
+            public long contentLength() {
+                return size;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public InputStream getInputStream() throws IOException {
+                if (file != null) {
+                    return Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE);
+                }
+                return new ByteArrayInputStream(memory.toByteArray());
+            }
+        };
+    }
+
+    private OutputStream reserve(int length) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (file == null && size + length > threshold) {
+            file = Files.createTempFile(directory, "spool-", ".tmp");
+            fileOut = new BufferedOutputStream(Files.newOutputStream(file));
+            memory.writeTo(fileOut);
+            memory = null;
+        }
+        return file != null ? fileOut : memory;
+    }
+}
@@ -0,0 +1,125 @@
+package com.bankingsystem.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel for deadlines measured in fixed ticks.
+ *
+ * Level 0 has one slot per tick; each higher level has one slot per full turn of the level below.
+ * Scheduling and expiring are O(1) apart from the occasional cascade of a higher-level slot into
+ * the levels below, so millions of pending deadlines cost one list entry each and advancing the
+ * wheel only touches the slots that are due. Deadlines beyond the top level wait in an overflow
+ * list that is re-examined each time the top level turns over.
+ */
+public class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+
+    private record Entry<T>(long deadlineTick, T value) {
+    }
+
+    private final long tickMillis;
+    private final List<Entry<T>>[][] wheels;
+    private final List<Entry<T>> overflow = new ArrayList<>();
+    private final List<T> due = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(long tickMillis, int levels, long startMillis) {
+        if (tickMillis <= 0 || levels < 1 || levels * SLOT_BITS >= 63) {
+            throw new IllegalArgumentException("Invalid timing wheel geometry");
+        }
+        this.tickMillis = tickMillis;
+        this.wheels = new List[levels][SLOTS];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules the value for {@code deadlineMillis}. A deadline that has already passed is
+     * returned by the next {@link #advance}.
+     */
+    public synchronized void schedule(T value, long deadlineMillis) {
+        // Round up so a value never comes back before its deadline
+        place(new Entry<>((deadlineMillis + tickMillis - 1) / tickMillis, value));
+        size++;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis} and returns the values whose deadlines have passed.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            List<Entry<T>> slot = wheels[0][(int) (currentTick & MASK)];
+            if (slot != null) {
+                wheels[0][(int) (currentTick & MASK)] = null;
+                for (Entry<T> entry : slot) {
+                    due.add(entry.value());
+                }
+            }
+        }
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        List<T> expired = new ArrayList<>(due);
+        due.clear();
+        size -= expired.size();
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Re-places the entries of every higher-level slot whose span starts at the current tick,
+     * highest level first so its entries land in slots that are cascaded next.
+     */
+    private void cascade() {
+        int level = 0;
+        while (level + 1 < wheels.length && (currentTick & ((1L << (SLOT_BITS * (level + 1))) - 1)) == 0) {
+            level++;
+        }
+        if (level + 1 == wheels.length && (currentTick & ((1L << (SLOT_BITS * wheels.length)) - 1)) == 0
+                && !overflow.isEmpty()) {
+            List<Entry<T>> waiting = new ArrayList<>(overflow);
+            overflow.clear();
+            waiting.forEach(this::place);
+        }
+        for (; level >= 1; level--) {
+            int index = (int) ((currentTick >>> (SLOT_BITS * level)) & MASK);
+            List<Entry<T>> slot = wheels[level][index];
+            if (slot != null) {
+                wheels[level][index] = null;
+                slot.forEach(this::place);
+            }
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.deadlineTick() - currentTick;
+        if (delta <= 0) {
+            due.add(entry.value());
+            return;
+        }
+        for (int level = 0; level < wheels.length; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1))) {
+                int index = (int) ((entry.deadlineTick() >>> (SLOT_BITS * level)) & MASK);
+                List<Entry<T>> slot = wheels[level][index];
+                if (slot == null) {
+                    slot = new ArrayList<>();
+                    wheels[level][index] = slot;
+                }
+                slot.add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+}
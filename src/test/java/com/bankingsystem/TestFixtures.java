@@ -0,0 +1,258 @@
+package com.bankingsystem;
+
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.entity.Card;
+import com.bankingsystem.entity.User;
+import com.bankingsystem.enums.AccountType;
+import com.bankingsystem.enums.CardStatus;
+import com.bankingsystem.enums.CardType;
+import com.bankingsystem.enums.TransactionType;
+import com.bankingsystem.repository.AccountRepository;
+import com.bankingsystem.repository.CardRepository;
+import com.bankingsystem.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test data shared by the integration tests.
+ *
+ * Every user, account and card gets a unique username, account number or card number, so tests
+ * sharing an application context do not collide. Ledger rows bulk-inserted through {@link #ledger()}
+ * take their ids from the entity's own sequence, the same way Hibernate's pooled-lo optimizer does.
+ * {@link #deleteAll()} removes everything created here, together with the rows the application wrote
+ * for those users and accounts; tests call it after each test.
+ */
+@Component
+public class TestFixtures {
+
+    private static final AtomicLong COUNTER = new AtomicLong();
+
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final CardRepository cardRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int allocationSize;
+    private final List<Long> userIds = new ArrayList<>();
+
+    public TestFixtures(UserRepository userRepository,
+                        AccountRepository accountRepository,
+                        CardRepository cardRepository,
+                        JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${spring.jpa.properties.banking.id.allocation_size:50}") int allocationSize) {
+        this.userRepository = userRepository;
+        this.accountRepository = accountRepository;
+        this.cardRepository = cardRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.allocationSize = allocationSize;
+    }
+
+    public synchronized User createUser() {
+        String username = "testuser" + COUNTER.incrementAndGet();
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password123");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user = userRepository.save(user);
+        userIds.add(user.getId());
+        return user;
+    }
+
+    /**
+     * A checking account with the given balance, owned by a new user.
+     */
+    public Account createAccount(String balance) {
+        return createAccount(createUser(), AccountType.CHECKING, new BigDecimal(balance));
+    }
+
+    public Account createAccount(User user, AccountType accountType, BigDecimal balance) {
+        Account account = new Account();
+        account.setAccountNumber("ACC-TEST-" + COUNTER.incrementAndGet());
+        account.setAccountType(accountType);
+        account.setBalance(balance);
+        account.setAvailableBalance(balance);
+        account.setUser(user);
+        return accountRepository.save(account);
+    }
+
+    /**
+     * An active debit card on the account, enabled for contactless and online use.
+     */
+    public Card createCard(Account account) {
+        Card card = new Card();
+        card.setCardNumber(String.format("4532%012d", COUNTER.incrementAndGet()));
+        card.setCardType(CardType.DEBIT);
+        card.setCardholderName("Test Cardholder");
+        card.setCvv("123");
+        card.setPin("1234");
+        card.setExpiryDate(LocalDate.now().plusYears(4));
+        card.setStatus(CardStatus.ACTIVE);
+        card.setUser(account.getUser());
+        card.setAccount(account);
+        card.setDailyLimit(new BigDecimal("5000.00"));
+        card.setMonthlyLimit(new BigDecimal("50000.00"));
+        card.setContactlessEnabled(true);
+        card.setOnlineTransactionsEnabled(true);
+        card.setInternationalTransactionsEnabled(false);
+        return cardRepository.save(card);
+    }
+
+    /**
+     * Starts a batch of transaction and ledger entry rows, written with plain JDBC by
+     * {@link Ledger#write()}.
+     */
+    public Ledger ledger() {
+        return new Ledger();
+    }
+
+    /**
+     * Deletes the users created since the last call, their accounts and cards, and every row that
+     * references them.
+     */
+    public synchronized void deleteAll() {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Map<String, Object> params = Map.of("users", List.copyOf(userIds));
+        String accounts = "SELECT id FROM accounts WHERE user_id IN (:users)";
+        String cards = "SELECT id FROM cards WHERE user_id IN (:users) OR account_id IN (" + accounts + ")";
+        String transactions = "SELECT id FROM transactions WHERE from_account_id IN (" + accounts + ")"
+                + " OR to_account_id IN (" + accounts + ") OR initiated_by_user_id IN (:users)";
+        String loans = "SELECT id FROM loans WHERE user_id IN (:users) OR disbursement_account_id IN (" + accounts + ")";
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String statement : List.of(
+                    "DELETE FROM account_entries WHERE transaction_id IN (" + transactions + ")",
+                    "DELETE FROM account_entries WHERE account_id IN (" + accounts + ")",
+                    "DELETE FROM balance_checkpoints WHERE account_id IN (" + accounts + ")",
+                    "DELETE FROM card_transactions WHERE card_id IN (" + cards + ")",
+                    "DELETE FROM cards WHERE id IN (" + cards + ")",
+                    "DELETE FROM transactions WHERE id IN (" + transactions + ")",
+                    "DELETE FROM payments WHERE from_account_id IN (" + accounts + ") OR to_account_id IN (" + accounts + ")",
+                    "DELETE FROM bill_payments WHERE account_id IN (" + accounts + ")",
+                    "DELETE FROM loan_payments WHERE loan_id IN (" + loans + ") OR payment_account_id IN (" + accounts + ")",
+                    "DELETE FROM loans WHERE id IN (" + loans + ")",
+                    "DELETE FROM notifications WHERE user_id IN (:users)",
+                    "DELETE FROM login_attempts WHERE user_id IN (:users)",
+                    "DELETE FROM audit_logs WHERE user_id IN (:users)",
+                    "DELETE FROM accounts WHERE user_id IN (:users)",
+                    "DELETE FROM users WHERE id IN (:users)")) {
+                namedJdbcTemplate.update(statement, params);
+            }
+        });
+        userIds.clear();
+    }
+
+    /**
+     * Transaction and entry rows for bulk history. Ids are reserved from {@code <table>_seq} a block
+     * at a time; entries are numbered after the account's last posting and carry a running balance
+     * starting from it.
+     */
+    public final class Ledger {
+
+        private final Map<String, long[]> idBlocks = new HashMap<>();
+        private final Map<Long, long[]> sequences = new HashMap<>();
+        private final Map<Long, BigDecimal> balances = new HashMap<>();
+        private final List<Object[]> transactionRows = new ArrayList<>();
+        private final List<Object[]> entryRows = new ArrayList<>();
+
+        private Ledger() {
+        }
+
+        /**
+         * Adds a completed transaction with reference {@code referencePrefix + id} and returns its id.
+         */
+        public long transaction(String referencePrefix, TransactionType type, Account from, Account to,
+                                BigDecimal amount, LocalDateTime at, String description) {
+            long id = nextId("transactions");
+            Timestamp date = Timestamp.valueOf(at);
+            transactionRows.add(new Object[]{id, date, 0L, referencePrefix + id, type.name(), amount, "COMPLETED",
+                    date, BigDecimal.ZERO, from == null ? null : from.getId(), to == null ? null : to.getId(),
+                    description});
+            return id;
+        }
+
+        /**
+         * Adds an entry of the signed amount to the account, linked to a transaction when
+         * {@code transactionId} is not null.
+         */
+        public Ledger entry(Account account, TransactionType type, BigDecimal amount, LocalDateTime at,
+                            String reference, String description, Long transactionId) {
+            long id = nextId("account_entries");
+            long seq = ++sequences.computeIfAbsent(account.getId(), accountId -> new long[]{lastSeq(accountId)})[0];
+            BigDecimal balance = balances.computeIfAbsent(account.getId(), accountId -> lastBalance(accountId, seq - 1))
+                    .add(amount);
+            balances.put(account.getId(), balance);
+            Timestamp postedAt = Timestamp.valueOf(at);
+            entryRows.add(new Object[]{id, postedAt, 0L, account.getId(), seq, type.name(), amount, balance,
+                    reference, description, postedAt, transactionId});
+            return this;
+        }
+
+        /**
+         * Adds a transfer between the account and its counterparty together with the account's entry.
+         */
+        public Ledger transfer(String referencePrefix, Account account, Account counterparty, BigDecimal amount,
+                               boolean outgoing, LocalDateTime at, String description) {
+            long id = transaction(referencePrefix, TransactionType.TRANSFER, outgoing ? account : counterparty,
+                    outgoing ? counterparty : account, amount, at, description);
+            return entry(account, TransactionType.TRANSFER, outgoing ? amount.negate() : amount, at,
+                    referencePrefix + id, description, id);
+        }
+
+        /**
+         * Inserts the rows and moves each account's entry sequence past the new entries.
+         */
+        public void write() {
+            jdbcTemplate.batchUpdate("INSERT INTO transactions (id, created_at, version, transaction_reference, "
+                    + "transaction_type, amount, status, transaction_date, fee_amount, from_account_id, to_account_id, "
+                    + "description) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", transactionRows);
+            jdbcTemplate.batchUpdate("INSERT INTO account_entries (id, created_at, version, account_id, seq, entry_type, "
+                    + "amount, running_balance, reference, description, posted_at, transaction_id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", entryRows);
+            sequences.forEach((accountId, seq) -> jdbcTemplate.update(
+                    "UPDATE accounts SET entry_sequence = ? WHERE id = ?", seq[0], accountId));
+            transactionRows.clear();
+            entryRows.clear();
+        }
+
+        private long nextId(String table) {
+            long[] block = idBlocks.computeIfAbsent(table, t -> new long[]{0, 0});
+            if (block[0] == block[1]) {
+                block[0] = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + table + "_seq", Long.class);
+                block[1] = block[0] + allocationSize;
+            }
+            return block[0]++;
+        }
+
+        private long lastSeq(Long accountId) {
+            return jdbcTemplate.queryForObject("SELECT entry_sequence FROM accounts WHERE id = ?", Long.class, accountId);
+        }
+
+        private BigDecimal lastBalance(Long accountId, long seq) {
+            List<BigDecimal> balance = jdbcTemplate.queryForList(
+                    "SELECT running_balance FROM account_entries WHERE account_id = ? AND seq = ?",
+                    BigDecimal.class, accountId, seq);
+            return balance.isEmpty() ? BigDecimal.ZERO : balance.get(0);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.bankingsystem.controller;
+
+import com.bankingsystem.TestFixtures;
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.repository.AccountRepository;
+import com.bankingsystem.security.CustomUserDetailsService;
+import com.bankingsystem.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Posts a deposit and a withdrawal with the ledger engine enabled, and checks that the engine's
+ * controller serves the posting paths and answers once the shard commits.
+ */
+@SpringBootTest(properties = "banking.ledger.engine.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LedgerPostingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void depositAndWithdrawalAreAnsweredAfterTheShardCommits() throws Exception {
+        Account account = fixtures.createAccount("100.00");
+        String token = "Bearer " + jwtUtil.generateToken(new CustomUserDetailsService.CustomUserPrincipal(account.getUser()));
+
+        MvcResult deposit = mockMvc.perform(post("/api/v1/transactions/deposit")
+                        .header("Authorization", token)
+                        .param("accountId", account.getId().toString())
+                        .param("amount", "25.00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(deposit))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionType").value("DEPOSIT"));
+
+        MvcResult withdrawal = mockMvc.perform(post("/api/v1/transactions/withdraw")
+                        .header("Authorization", token)
+                        .param("accountId", account.getId().toString())
+                        .param("amount", "200.00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(withdrawal))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, new BigDecimal("125.00").compareTo(accountRepository.findBalanceById(account.getId())));
+    }
+}
@@ -0,0 +1,89 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.TestFixtures;
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.entity.User;
+import com.bankingsystem.enums.AccountType;
+import com.bankingsystem.enums.TransactionType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Summarizes a customer's accounts for one month and checks that debits and credits are split by
+ * the entry's direction, that only the month's entries count, and that an account without activity
+ * is still listed, all in a single statement.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountPeriodSummaryTest {
+
+    @Autowired
+    private AccountEntryRepository accountEntryRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void monthlyTotalsAreSplitByDirection() {
+        User user = fixtures.createUser();
+        Account checking = fixtures.createAccount(user, AccountType.CHECKING, new BigDecimal("1000.00"));
+        Account savings = fixtures.createAccount(user, AccountType.SAVINGS, new BigDecimal("1000.00"));
+        LocalDateTime from = LocalDateTime.of(2024, 2, 1, 0, 0);
+        LocalDateTime to = from.plusMonths(1);
+        TestFixtures.Ledger ledger = fixtures.ledger();
+        post(ledger, checking, "500.00", from.minusNanos(1000));
+        post(ledger, checking, "-30.00", from);
+        post(ledger, checking, "100.00", from.plusDays(10));
+        post(ledger, checking, "-20.50", to.minusNanos(500_000_000));
+        post(ledger, checking, "-75.00", to);
+        ledger.write();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        List<AccountEntryRepository.AccountPeriodSummary> summaries =
+                accountEntryRepository.summarizeAccountsByUser(user.getId(), from, to);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        statistics.setStatisticsEnabled(false);
+
+        assertEquals(2, summaries.size());
+        AccountEntryRepository.AccountPeriodSummary active = summaries.get(0);
+        assertEquals(checking.getId(), active.getAccountId());
+        assertEquals(AccountType.CHECKING, active.getAccountType());
+        assertEquals(3L, active.getEntryCount());
+        assertEquals(0, new BigDecimal("50.50").compareTo(active.getDebitTotal()));
+        assertEquals(0, new BigDecimal("100.00").compareTo(active.getCreditTotal()));
+
+        AccountEntryRepository.AccountPeriodSummary idle = summaries.get(1);
+        assertEquals(savings.getId(), idle.getAccountId());
+        assertEquals(0L, idle.getEntryCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(idle.getDebitTotal()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(idle.getCreditTotal()));
+    }
+
+    private static void post(TestFixtures.Ledger ledger, Account account, String amount, LocalDateTime postedAt) {
+        BigDecimal signed = new BigDecimal(amount);
+        ledger.entry(account, signed.signum() < 0 ? TransactionType.WITHDRAWAL : TransactionType.DEPOSIT, signed,
+                postedAt, "SUM", null, null);
+    }
+}
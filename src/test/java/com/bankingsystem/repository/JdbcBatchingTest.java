@@ -0,0 +1,130 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.entity.AuditLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts JDBC calls made while persisting many sequence-backed rows and checks that the
+ * inserts go out as JDBC batches rather than one statement per row.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class JdbcBatchingTest {
+
+    private static final int ROWS = 100;
+    private static final int BATCH_SIZE = 20;
+
+    private static final AtomicInteger INSERT_ADD_BATCH = new AtomicInteger();
+    private static final AtomicInteger INSERT_EXECUTE_BATCH = new AtomicInteger();
+    private static final AtomicInteger INSERT_EXECUTE_SINGLE = new AtomicInteger();
+    private static final AtomicInteger SEQUENCE_CALLS = new AtomicInteger();
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void auditLogInsertsAreBatched() {
+        List<AuditLog> logs = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            AuditLog auditLog = new AuditLog();
+            auditLog.setAction("BATCH_TEST");
+            auditLog.setEntityType("TEST");
+            auditLog.setDescription("row " + i);
+            logs.add(auditLog);
+        }
+
+        INSERT_ADD_BATCH.set(0);
+        INSERT_EXECUTE_BATCH.set(0);
+        INSERT_EXECUTE_SINGLE.set(0);
+        SEQUENCE_CALLS.set(0);
+        transactionTemplate.executeWithoutResult(status -> auditLogRepository.saveAll(logs));
+
+        assertEquals(ROWS, INSERT_ADD_BATCH.get());
+        assertEquals(ROWS / BATCH_SIZE, INSERT_EXECUTE_BATCH.get());
+        assertEquals(0, INSERT_EXECUTE_SINGLE.get());
+        // pooled-lo with an allocation size of 50 needs one sequence call per 50 ids
+        assertEquals(ROWS / 50, SEQUENCE_CALLS.get());
+    }
+
+    @TestConfiguration
+    static class StatementCountingConfig {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                            Object result = method.invoke(target, args);
+                            return result instanceof Connection connection
+                                    ? proxy(Connection.class, connection, countingConnection(connection)) : result;
+                        });
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        private static Handler<Connection> countingConnection(Connection connection) {
+            return (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                    String sql = ((String) args[0]).toLowerCase();
+                    return proxy(PreparedStatement.class, statement, (ps, m, a) -> {
+                        if (sql.startsWith("insert into audit_logs")) {
+                            switch (m.getName()) {
+                                case "addBatch" -> INSERT_ADD_BATCH.incrementAndGet();
+                                case "executeBatch" -> INSERT_EXECUTE_BATCH.incrementAndGet();
+                                case "executeUpdate", "execute" -> INSERT_EXECUTE_SINGLE.incrementAndGet();
+                                default -> { }
+                            }
+                        } else if (sql.contains("audit_logs_seq") && m.getName().equals("executeQuery")) {
+                            SEQUENCE_CALLS.incrementAndGet();
+                        }
+                        return m.invoke(ps, a);
+                    });
+                }
+                return result;
+            };
+        }
+
+        private interface Handler<T> {
+            Object invoke(T target, java.lang.reflect.Method method, Object[] args) throws Throwable;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+            InvocationHandler invocationHandler = (p, method, args) -> {
+                try {
+                    return handler.invoke(target, method, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            };
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+        }
+    }
+}
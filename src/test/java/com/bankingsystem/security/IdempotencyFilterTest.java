@@ -0,0 +1,161 @@
+package com.bankingsystem.security;
+
+import com.bankingsystem.TestFixtures;
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.repository.AccountRepository;
+import com.bankingsystem.service.IdempotencyService;
+import com.bankingsystem.util.JwtUtil;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Retries a deposit with the same Idempotency-Key and checks that the account is credited once and
+ * the retry gets the original response. Also races concurrent claims of one key.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotencyFilterTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void retriedDepositIsPostedOnce() throws Exception {
+        Account account = fixtures.createAccount("0.00");
+        String token = "Bearer " + jwtUtil.generateToken(new CustomUserDetailsService.CustomUserPrincipal(account.getUser()));
+
+        String original = mockMvc.perform(post("/api/v1/transactions/deposit")
+                        .header("Authorization", token)
+                        .header(IdempotencyFilter.HEADER, "deposit-1")
+                        .param("accountId", account.getId().toString())
+                        .param("amount", "25.00"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(post("/api/v1/transactions/deposit")
+                        .header("Authorization", token)
+                        .header(IdempotencyFilter.HEADER, "deposit-1")
+                        .param("accountId", account.getId().toString())
+                        .param("amount", "25.00"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(content().string(original));
+
+        mockMvc.perform(post("/api/v1/transactions/deposit")
+                        .header("Authorization", token)
+                        .header(IdempotencyFilter.HEADER, "deposit-1")
+                        .param("accountId", account.getId().toString())
+                        .param("amount", "30.00"))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertEquals(0, new BigDecimal("25.00").compareTo(accountRepository.findBalanceById(account.getId())));
+    }
+
+    @Test
+    void cachedBodyNotifiesReadListener() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("{\"amount\":25}".getBytes(StandardCharsets.UTF_8));
+        ServletInputStream in = new IdempotencyFilter.CachedBodyRequest(request).getInputStream();
+        List<String> events = new ArrayList<>();
+
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertEquals(List.of("{\"amount\":25}", "done"), events);
+    }
+
+    @Test
+    void concurrentClaimsExecuteOnce() throws Exception {
+        String cacheKey = "0:POST:/test:concurrent";
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<IdempotencyService.Decision>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                IdempotencyService.Claim claim = idempotencyService.claim(cacheKey, "hash");
+                if (claim.decision() == IdempotencyService.Decision.PROCEED) {
+                    Thread.sleep(100);
+                    idempotencyService.complete(cacheKey, "hash", 200, "application/json", "{}".getBytes());
+                }
+                return claim.decision();
+            }));
+        }
+        start.countDown();
+
+        int proceeded = 0;
+        int replayed = 0;
+        for (Future<IdempotencyService.Decision> future : futures) {
+            IdempotencyService.Decision decision = future.get();
+            if (decision == IdempotencyService.Decision.PROCEED) {
+                proceeded++;
+            } else if (decision == IdempotencyService.Decision.REPLAY) {
+                replayed++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, proceeded);
+        assertEquals(THREADS - 1, replayed);
+    }
+}
@@ -0,0 +1,88 @@
+package com.bankingsystem.security;
+
+import com.bankingsystem.TestFixtures;
+import com.bankingsystem.entity.User;
+import com.bankingsystem.service.AccountService;
+import com.bankingsystem.service.UserService;
+import com.bankingsystem.util.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that an authenticated GET is served from the token claims: the request runs the same
+ * statements as the service call alone, with no user lookups added by authentication.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void authenticatedGetAddsNoQueries() throws Exception {
+        User user = fixtures.createUser();
+        String token = "Bearer " + jwtUtil.generateToken(new CustomUserDetailsService.CustomUserPrincipal(user));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        // First request loads the user's status into the cache
+        mockMvc.perform(get("/accounts").header("Authorization", token)).andExpect(status().isOk());
+
+        statistics.clear();
+        accountService.getAccountsByUserId(user.getId());
+        long serviceStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        mockMvc.perform(get("/accounts").header("Authorization", token)).andExpect(status().isOk());
+        long requestStatements = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+
+        assertEquals(serviceStatements, requestStatements);
+    }
+
+    @Test
+    void disabledUserIsRejected() throws Exception {
+        User user = fixtures.createUser();
+        String token = "Bearer " + jwtUtil.generateToken(new CustomUserDetailsService.CustomUserPrincipal(user));
+        mockMvc.perform(get("/accounts").header("Authorization", token)).andExpect(status().isOk());
+
+        userService.disableUser(user.getId());
+
+        mockMvc.perform(get("/accounts").header("Authorization", token)).andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,110 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.TestFixtures;
+import com.bankingsystem.dto.request.AccountCreationRequest;
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.enums.AccountType;
+import com.bankingsystem.enums.TransactionType;
+import com.bankingsystem.repository.TransactionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Updates an account that has a transaction history and checks that building the audit diff does
+ * not load any collection. The benchmark, run with -Pbenchmark, does the same over 100k
+ * transactions and logs the time next to the cost of loading the history the way the old
+ * toString() based audit did.
+ */
+@Slf4j(topic = "benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountAuditDiffBenchmarkTest {
+
+    private static final int TRANSACTIONS = 100;
+    private static final int BENCHMARK_TRANSACTIONS = 100_000;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void updateAccountDoesNotLoadTransactionHistory() {
+        Account account = fixtures.createAccount("1000.00");
+        insertTransactions(account, TRANSACTIONS);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            accountService.updateAccount(account.getId(), overdraftRequest());
+            assertEquals(0, statistics.getCollectionLoadCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void updateAccountAgainstLoadingTransactionHistory() {
+        Account account = fixtures.createAccount("1000.00");
+        insertTransactions(account, BENCHMARK_TRANSACTIONS);
+
+        long start = System.nanoTime();
+        accountService.updateAccount(account.getId(), overdraftRequest());
+        long diffNanos = System.nanoTime() - start;
+
+        // What toString() had to pull in: the account's whole outgoing history
+        start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> transactionRepository.findByFromAccount(account));
+        long historyNanos = System.nanoTime() - start;
+
+        log.info("updateAccount with field diff: {} ms, loading {} transactions as toString() did: {} ms",
+                diffNanos / 1_000_000, BENCHMARK_TRANSACTIONS, historyNanos / 1_000_000);
+    }
+
+    private static AccountCreationRequest overdraftRequest() {
+        AccountCreationRequest request = new AccountCreationRequest();
+        request.setAccountType(AccountType.CHECKING);
+        request.setOverdraftLimit(new BigDecimal("250.00"));
+        return request;
+    }
+
+    private void insertTransactions(Account account, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        TestFixtures.Ledger ledger = fixtures.ledger();
+        for (int i = 0; i < count; i++) {
+            ledger.transaction("BENCH", TransactionType.WITHDRAWAL, account, null, BigDecimal.ONE, now, null);
+        }
+        ledger.write();
+    }
+}
@@ -0,0 +1,128 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.TestFixtures;
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.entity.AccountEntry;
+import com.bankingsystem.entity.Transaction;
+import com.bankingsystem.enums.TransactionType;
+import com.bankingsystem.repository.AccountEntryRepository;
+import com.bankingsystem.repository.AccountRepository;
+import com.bankingsystem.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Writes transaction history the way it was recorded before accounts had ledger entries, runs the
+ * backfill, and checks that each account gets an opening entry and one entry per transaction whose
+ * running balances end at its balance, and that history and date-range queries see them.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountEntryBackfillTest {
+
+    @Autowired
+    private AccountEntryBackfillJob backfillJob;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountEntryRepository accountEntryRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void legacyHistoryIsBackfilledBehindAnOpeningEntry() {
+        // The opening entry also absorbs postings that left no transaction row
+        Account account = fixtures.createAccount("1000.00");
+        Account counterparty = fixtures.createAccount("500.00");
+        Account idle = fixtures.createAccount("0.00");
+        LocalDateTime start = LocalDateTime.of(2024, 3, 1, 9, 0);
+        TestFixtures.Ledger ledger = fixtures.ledger();
+        ledger.transaction("DEP-", TransactionType.DEPOSIT, null, account, new BigDecimal("300.00"),
+                start, "salary");
+        ledger.transaction("WDR-", TransactionType.WITHDRAWAL, account, null, new BigDecimal("50.00"),
+                start.plusDays(1), "cash");
+        long debit = ledger.transaction("TRF-", TransactionType.TRANSFER, account, counterparty,
+                new BigDecimal("100.00"), start.plusDays(2), "rent");
+        long credit = ledger.transaction("TRF-", TransactionType.TRANSFER, account, counterparty,
+                new BigDecimal("100.00"), start.plusDays(2), "rent");
+        ledger.write();
+        jdbcTemplate.update("UPDATE transactions SET transaction_reference = 'TRF-LEGACY-DEBIT' WHERE id = ?", debit);
+        jdbcTemplate.update("UPDATE transactions SET transaction_reference = 'TRF-LEGACY-CREDIT' WHERE id = ?", credit);
+
+        backfillJob.backfill();
+
+        List<AccountEntry> entries = entriesOf(account);
+        assertEquals(4, entries.size());
+        assertEntry(entries.get(0), 1, "850.00", "850.00", null);
+        assertEquals("Opening balance", entries.get(0).getDescription());
+        assertEquals(start, entries.get(0).getPostedAt());
+        assertEntry(entries.get(1), 2, "300.00", "1150.00", TransactionType.DEPOSIT);
+        assertEntry(entries.get(2), 3, "-50.00", "1100.00", TransactionType.WITHDRAWAL);
+        assertEntry(entries.get(3), 4, "-100.00", "1000.00", TransactionType.TRANSFER);
+        assertEquals("TRF-LEGACY-DEBIT", entries.get(3).getReference());
+        assertEquals(4L, accountRepository.findById(account.getId()).orElseThrow().getEntrySequence());
+
+        List<AccountEntry> counterpartyEntries = entriesOf(counterparty);
+        assertEquals(2, counterpartyEntries.size());
+        assertEntry(counterpartyEntries.get(0), 1, "400.00", "400.00", null);
+        assertEntry(counterpartyEntries.get(1), 2, "100.00", "500.00", TransactionType.TRANSFER);
+        assertEquals("TRF-LEGACY-CREDIT", counterpartyEntries.get(1).getReference());
+
+        assertEquals(0, entriesOf(idle).size());
+        assertEquals(0L, accountRepository.findById(idle.getId()).orElseThrow().getEntrySequence());
+
+        List<Transaction> inRange = transactionRepository.findByAccountAndDateRange(account.getId(),
+                start, start.plusDays(3));
+        assertEquals(List.of("TRF-LEGACY-DEBIT", "WDR-", "DEP-"),
+                inRange.stream().map(t -> t.getTransactionReference().replaceAll("\\d+$", "")).toList());
+        assertEquals(3, accountEntryRepository.findHistoryBefore(account.getId(), Long.MAX_VALUE,
+                PageRequest.of(0, 10)).size());
+
+        // Accounts with entries are not touched again
+        assertEquals(0, backfillJob.backfill());
+        assertEquals(4, entriesOf(account).size());
+    }
+
+    private List<AccountEntry> entriesOf(Account account) {
+        return accountEntryRepository.findEntriesAfter(account.getId(), 0L, Long.MAX_VALUE, Pageable.unpaged());
+    }
+
+    private static void assertEntry(AccountEntry entry, long seq, String amount, String runningBalance,
+                                    TransactionType type) {
+        assertEquals(seq, entry.getSeq());
+        assertEquals(0, new BigDecimal(amount).compareTo(entry.getAmount()));
+        assertEquals(0, new BigDecimal(runningBalance).compareTo(entry.getRunningBalance()));
+        if (type == null) {
+            assertNull(entry.getTransaction());
+        } else {
+            assertEquals(type, entry.getEntryType());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.TestFixtures;
+import com.bankingsystem.dto.request.TransferRequest;
+import com.bankingsystem.dto.response.AccountEntriesResponse;
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.enums.BatchPostingMode;
+import com.bankingsystem.repository.AccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Posts deposits, transfers and a batch to two accounts, partly from concurrent threads, and checks
+ * that each account's entries are numbered 1..n without gaps and that their running balances chain
+ * up to the account balance. Also pages through the entries with the delta-sync API.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountEntryLedgerTest {
+
+    private static final int THREADS = 4;
+    private static final int OPERATIONS_PER_THREAD = 25;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountEntryService accountEntryService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void entriesAreGapFreeAndChainToBalance() throws Exception {
+        Account first = fixtures.createAccount("0.00");
+        Account second = fixtures.createAccount("0.00");
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Account from = t % 2 == 0 ? first : second;
+            Account to = t % 2 == 0 ? second : first;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    transactionService.deposit(from.getId(), BigDecimal.TEN, "ledger test");
+                    transactionService.transfer(from.getId(), to.getId(), BigDecimal.ONE, "ledger test");
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        // Opposite legs net to zero but still take two entries per account
+        transactionService.postBatch(List.of(leg(first, second, "3.00"), leg(second, first, "3.00")),
+                BatchPostingMode.ALL_OR_NOTHING);
+        transactionService.withdraw(second.getId(), new BigDecimal("5.00"), "ledger test");
+
+        // Each account: its deposits, every transfer, the two batch legs (and the withdrawal)
+        int perAccount = THREADS / 2 * OPERATIONS_PER_THREAD + THREADS * OPERATIONS_PER_THREAD + 2;
+        assertLedger(first, perAccount);
+        assertLedger(second, perAccount + 1);
+    }
+
+    @Test
+    void deltaSyncReturnsOnlyNewEntries() {
+        Account account = fixtures.createAccount("0.00");
+        for (int i = 0; i < 7; i++) {
+            transactionService.deposit(account.getId(), BigDecimal.TEN, "sync test");
+        }
+
+        long sinceSeq = 0;
+        AccountEntriesResponse page;
+        do {
+            page = accountEntryService.getEntriesSince(account.getId(), sinceSeq, 3);
+            for (AccountEntriesResponse.Entry entry : page.getEntries()) {
+                assertEquals(++sinceSeq, entry.getSeq());
+            }
+            assertEquals(sinceSeq, page.getLastSeq());
+        } while (page.isHasMore());
+        assertEquals(7L, sinceSeq);
+        assertEquals(0, new BigDecimal("70.00").compareTo(page.getEntries().get(page.getEntries().size() - 1).getRunningBalance()));
+
+        transactionService.withdraw(account.getId(), BigDecimal.ONE, "sync test");
+        page = accountEntryService.getEntriesSince(account.getId(), sinceSeq, 3);
+        assertEquals(1, page.getEntries().size());
+        assertEquals(8L, page.getLatestSeq());
+        assertEquals(0, new BigDecimal("-1").compareTo(page.getEntries().get(0).getAmount()));
+        assertTrue(accountEntryService.getEntriesSince(account.getId(), 8, 3).getEntries().isEmpty());
+    }
+
+    private void assertLedger(Account account, int expectedEntries) {
+        List<Map<String, Object>> entries = jdbcTemplate.queryForList(
+                "SELECT seq, amount, running_balance FROM account_entries WHERE account_id = ? ORDER BY seq",
+                account.getId());
+        assertEquals(expectedEntries, entries.size());
+        BigDecimal balance = BigDecimal.ZERO;
+        for (int i = 0; i < entries.size(); i++) {
+            Map<String, Object> entry = entries.get(i);
+            assertEquals(i + 1L, ((Number) entry.get("seq")).longValue());
+            balance = balance.add((BigDecimal) entry.get("amount"));
+            assertEquals(0, balance.compareTo((BigDecimal) entry.get("running_balance")), "running balance at seq " + (i + 1));
+        }
+        assertEquals(0, balance.compareTo(accountRepository.findBalanceById(account.getId())));
+        assertEquals((long) expectedEntries, accountRepository.findLedgerPositionById(account.getId()).getEntrySequence());
+    }
+
+    private TransferRequest leg(Account from, Account to, String amount) {
+        TransferRequest leg = new TransferRequest();
+        leg.setFromAccountId(from.getId());
+        leg.setToAccountId(to.getId());
+        leg.setAmount(new BigDecimal(amount));
+        leg.setDescription("ledger batch");
+        return leg;
+    }
+}
@@ -0,0 +1,168 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.TestFixtures;
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.entity.Transaction;
+import com.bankingsystem.enums.TransactionType;
+import com.bankingsystem.repository.StatementLine;
+import com.bankingsystem.repository.TransactionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jasperreports.engine.JRParameter;
+import net.sf.jasperreports.engine.JRPrintText;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRSwapFile;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fills a large account statement from the streamed statement lines with filled pages swapped to
+ * disk, and checks that every line is printed without loading a single transaction entity. Also
+ * checks that the lines, including postings without a transaction row, add up from the opening to
+ * the closing balance. Logs the fill time. PDF export is the same as for any other report and is
+ * left out.
+ */
+@Slf4j(topic = "benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountStatementStreamingTest {
+
+    private static final int TRANSACTIONS = 10_000;
+
+    @TempDir
+    Path swapDirectory;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ReportTemplateCache reportTemplateCache;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void statementFillsFromCursorWithoutLoadingEntities() {
+        Account account = fixtures.createAccount("1000.00");
+        Account other = fixtures.createAccount("1000.00");
+        LocalDateTime base = LocalDateTime.now().minusDays(2);
+        insertTransactions(account, other, base);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        JRSwapFileVirtualizer virtualizer =
+                new JRSwapFileVirtualizer(10, new JRSwapFile(swapDirectory.toString(), 4096, 256), true);
+        long start = System.nanoTime();
+        JasperPrint print;
+        try {
+            print = new TransactionTemplate(transactionManager).execute(status -> {
+                Map<String, Object> parameters = new HashMap<>();
+                parameters.put("accountNumber", account.getAccountNumber());
+                parameters.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
+                try (Stream<StatementLine> lines = transactionRepository
+                        .streamStatementLines(account.getId(), base.minusSeconds(1), base.plusDays(1))) {
+                    return JasperFillManager.fillReport(reportTemplateCache.get("account_statement"), parameters,
+                            new StatementLineDataSource(lines.iterator()));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            long fillMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertEquals(0, statistics.getEntityStatistics(Transaction.class.getName()).getLoadCount());
+            virtualizer.setReadOnly(true);
+            assertTrue(print.getPages().size() > 1);
+            long printedReferences = print.getPages().stream()
+                    .flatMap(page -> page.getElements().stream())
+                    .filter(element -> element instanceof JRPrintText text
+                            && text.getFullText() != null && text.getFullText().startsWith("STMT"))
+                    .count();
+            assertEquals(TRANSACTIONS, printedReferences);
+            log.info("Streamed statement: {} lines on {} pages filled in {} ms",
+                    TRANSACTIONS, print.getPages().size(), fillMillis);
+        } finally {
+            virtualizer.cleanup();
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void statementLinesAddUpFromOpeningToClosingBalance() {
+        Account account = fixtures.createAccount("870.00");
+        Account other = fixtures.createAccount("1000.00");
+        LocalDateTime base = LocalDateTime.now().minusDays(2);
+        fixtures.ledger()
+                .entry(account, TransactionType.DEPOSIT, new BigDecimal("1000.00"), base.minusDays(1),
+                        account.getAccountNumber(), "Opening balance", null)
+                .transfer("STMT", account, other, new BigDecimal("100.00"), true, base.plusHours(1), "rent")
+                .entry(account, TransactionType.CARD_PAYMENT, new BigDecimal("-40.00"), base.plusHours(2),
+                        "CARD-1", "Card purchase", null)
+                .entry(account, TransactionType.FEE, new BigDecimal("-15.00"), base.plusHours(3),
+                        "FEE-1", "Monthly maintenance fee", null)
+                .transfer("STMT", account, other, new BigDecimal("25.00"), false, base.plusHours(4), "refund")
+                .write();
+
+        List<StatementLine> lines = new TransactionTemplate(transactionManager).execute(status -> {
+            try (Stream<StatementLine> stream = transactionRepository
+                    .streamStatementLines(account.getId(), base, base.plusDays(1))) {
+                return stream.toList();
+            }
+        });
+
+        assertEquals(4, lines.size());
+        assertEquals(new StatementLine("FEE-1", lines.get(1).transactionDate(), "Monthly maintenance fee",
+                new BigDecimal("-15.00"), TransactionType.FEE), lines.get(1));
+        assertEquals("CARD-1", lines.get(2).transactionReference());
+        assertEquals(0, new BigDecimal("-100.00").compareTo(lines.get(3).amount()));
+        BigDecimal opening = accountService.getBalanceAt(account.getId(), base.minusNanos(1));
+        BigDecimal closing = accountService.getBalanceAt(account.getId(), base.plusDays(1));
+        BigDecimal total = lines.stream().map(StatementLine::amount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, closing.subtract(opening).compareTo(total));
+        assertEquals(0, new BigDecimal("870.00").compareTo(closing));
+    }
+
+    private void insertTransactions(Account account, Account other, LocalDateTime base) {
+        TestFixtures.Ledger ledger = fixtures.ledger();
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            ledger.transfer("STMT", account, other, BigDecimal.ONE, i % 2 == 0, base.plusSeconds(i),
+                    "Statement line " + i);
+        }
+        ledger.write();
+    }
+}
@@ -0,0 +1,181 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.repository.AuditLogRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the audit writer against a spill file and checks that records spilled before a restart are
+ * replayed, that records which cannot be written stay in the spill file, and that callers write
+ * their own records once the queue is full.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AuditWriterTest {
+
+    private static final String ENTITY_TYPE = "AuditWriterTest";
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void deleteTestData() {
+        jdbcTemplate.update("DELETE FROM audit_logs WHERE entity_type = ?", ENTITY_TYPE);
+    }
+
+    @Test
+    void spilledRecordsAreReplayedOnStartup() throws Exception {
+        Path spillFile = tempDir.resolve("audit-spill.jsonl");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            lines.add(objectMapper.writeValueAsString(record("REPLAYED", "replay-" + i)));
+        }
+        // A line torn by a crash mid-write
+        lines.add("{\"action\":\"REPLAYED\",\"entityT");
+        Files.write(spillFile, lines, StandardCharsets.UTF_8);
+
+        AuditWriter writer = newWriter(spillFile, 100, 10);
+        writer.start();
+        writer.stop();
+
+        assertEquals(3, countRows("REPLAYED"));
+        assertEquals(List.of(), Files.readAllLines(spillFile, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void failedRecordsStayInSpillFile() throws Exception {
+        Path spillFile = tempDir.resolve("audit-spill.jsonl");
+        AuditWriter writer = newWriter(spillFile, 100, 10);
+        writer.start();
+        writer.enqueue(record("WRITTEN", "ok-1"));
+        // entity_type is NOT NULL, so this record can never be written
+        AuditWriter.AuditRecord unwritable = new AuditWriter.AuditRecord("UNWRITABLE", null, "bad-1", null, null,
+                null, "TEST", "LOW", null, LocalDateTime.now());
+        writer.enqueue(unwritable);
+        writer.enqueue(record("WRITTEN", "ok-2"));
+        writer.stop();
+
+        assertEquals(2, countRows("WRITTEN"));
+        List<String> spilled = Files.readAllLines(spillFile, StandardCharsets.UTF_8);
+        assertEquals(1, spilled.size());
+        assertEquals(unwritable, objectMapper.readValue(spilled.get(0), AuditWriter.AuditRecord.class));
+
+        // Still failing on the next startup, so it is kept again
+        AuditWriter restarted = newWriter(spillFile, 100, 10);
+        restarted.start();
+        restarted.enqueue(record("WRITTEN", "ok-3"));
+        restarted.stop();
+
+        assertEquals(3, countRows("WRITTEN"));
+        assertEquals(spilled, Files.readAllLines(spillFile, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void failedRecordsAreKeptOnDiskNotInMemory() throws Exception {
+        Path spillFile = tempDir.resolve("audit-spill.jsonl");
+        AuditWriter writer = newWriter(spillFile, 100, 10);
+        writer.start();
+        AuditWriter.AuditRecord first = unwritable("bad-1");
+        writer.enqueue(first);
+        waitForFlush(writer);
+        assertEquals(1, Files.readAllLines(spillFile, StandardCharsets.UTF_8).size());
+        assertEquals(List.of(), ReflectionTestUtils.getField(writer, "failedRecords"));
+
+        AuditWriter.AuditRecord second = unwritable("bad-2");
+        writer.enqueue(second);
+        writer.enqueue(record("WRITTEN", "ok-1"));
+        writer.stop();
+
+        assertEquals(1, countRows("WRITTEN"));
+        assertEquals(List.of(), ReflectionTestUtils.getField(writer, "failedRecords"));
+        List<String> spilled = Files.readAllLines(spillFile, StandardCharsets.UTF_8);
+        assertEquals(2, spilled.size());
+        assertEquals(first, objectMapper.readValue(spilled.get(0), AuditWriter.AuditRecord.class));
+        assertEquals(second, objectMapper.readValue(spilled.get(1), AuditWriter.AuditRecord.class));
+    }
+
+    @Test
+    void callerWritesItsRecordWhenQueueIsFull() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // Not started, so nothing drains the single-slot queue
+        AuditWriter writer = new AuditWriter(auditLogRepository, objectMapper, transactionManager, meterRegistry,
+                1, 100, 10, 1, "");
+        ReflectionTestUtils.setField(writer, "entityManager", entityManager);
+
+        writer.enqueue(record("QUEUED", "queued-1"));
+        writer.enqueue(record("OVERFLOW", "overflow-1"));
+        writer.enqueue(record("OVERFLOW", "overflow-2"));
+
+        assertEquals(0, countRows("QUEUED"));
+        assertEquals(2, countRows("OVERFLOW"));
+        assertEquals(2.0, meterRegistry.counter("banking.audit.overflow").count());
+    }
+
+    private AuditWriter newWriter(Path spillFile, int batchSize, long flushIntervalMillis) {
+        AuditWriter writer = new AuditWriter(auditLogRepository, objectMapper, transactionManager,
+                new SimpleMeterRegistry(), 1000, batchSize, flushIntervalMillis, 20, spillFile.toString());
+        ReflectionTestUtils.setField(writer, "entityManager", entityManager);
+        return writer;
+    }
+
+    private static void waitForFlush(AuditWriter writer) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        // Every spilled record has been accounted for and the spill file truncated
+        while (!Long.valueOf(0).equals(ReflectionTestUtils.getField(writer, "spilledRecords"))) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Audit batch was not flushed in time");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    // entity_type is NOT NULL, so these records can never be written
+    private static AuditWriter.AuditRecord unwritable(String entityId) {
+        return new AuditWriter.AuditRecord("UNWRITABLE", null, entityId, null, null, null, "TEST", "LOW", null,
+                LocalDateTime.now());
+    }
+
+    private static AuditWriter.AuditRecord record(String action, String entityId) {
+        return new AuditWriter.AuditRecord(action, ENTITY_TYPE, entityId, null, null, "audit writer test", "TEST",
+                "LOW", null, LocalDateTime.now());
+    }
+
+    private int countRows(String action) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs WHERE entity_type = ? AND action = ?",
+                Integer.class, ENTITY_TYPE, action);
+    }
+}
@@ -0,0 +1,107 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.TestFixtures;
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.enums.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Posts a month of entries to an account, checkpoints it daily and checks point-in-time balances
+ * against a plain sum of the history.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BalanceCheckpointTest {
+
+    private static final int DAYS = 30;
+    private static final int ENTRIES_PER_DAY = 40;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private BalanceCheckpointJob balanceCheckpointJob;
+
+    @Autowired
+    private AccountEntryBackfillJob backfillJob;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void balanceAtMatchesHistoryAcrossCheckpoints() {
+        Account account = fixtures.createAccount("0.00");
+        LocalDate firstDay = LocalDate.now().minusDays(DAYS);
+        insertEntries(account, firstDay);
+
+        int cutoffs = 0;
+        LocalDateTime lastCutoff = null;
+        for (int day = 1; day <= DAYS; day += 7) {
+            lastCutoff = firstDay.plusDays(day).atStartOfDay();
+            balanceCheckpointJob.createCheckpoints(lastCutoff);
+            cutoffs++;
+        }
+        // A second run at the same cutoff must not write duplicates
+        balanceCheckpointJob.createCheckpoints(lastCutoff);
+        assertEquals(cutoffs, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM balance_checkpoints WHERE account_id = ?", Integer.class, account.getId()));
+
+        for (int hours = 0; hours <= DAYS * 24; hours += 13) {
+            LocalDateTime at = firstDay.atStartOfDay().plusHours(hours);
+            BigDecimal expected = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(SUM(amount), 0) FROM account_entries WHERE account_id = ? AND posted_at <= ?",
+                    BigDecimal.class, account.getId(), Timestamp.valueOf(at));
+            assertEquals(0, expected.compareTo(accountService.getBalanceAt(account.getId(), at)), "balance at " + at);
+        }
+    }
+
+    @Test
+    void balanceAtIncludesHistoryThatPredatesTheLedger() {
+        // 400.00 of the balance was posted before any transaction row was kept
+        Account account = fixtures.createAccount("600.00");
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 12, 0);
+        TestFixtures.Ledger ledger = fixtures.ledger();
+        ledger.transaction("LEGACY-DEP-", TransactionType.DEPOSIT, null, account, new BigDecimal("250.00"),
+                start, "legacy deposit");
+        ledger.transaction("LEGACY-WDR-", TransactionType.WITHDRAWAL, account, null, new BigDecimal("50.00"),
+                start.plusDays(2), "legacy withdrawal");
+        ledger.write();
+        backfillJob.backfill();
+        balanceCheckpointJob.createCheckpoints(start.plusDays(1));
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(accountService.getBalanceAt(account.getId(), start.minusSeconds(1))));
+        assertEquals(0, new BigDecimal("650.00").compareTo(accountService.getBalanceAt(account.getId(), start)));
+        assertEquals(0, new BigDecimal("650.00").compareTo(accountService.getBalanceAt(account.getId(), start.plusDays(1))));
+        assertEquals(0, new BigDecimal("600.00").compareTo(accountService.getBalanceAt(account.getId(), start.plusDays(3))));
+    }
+
+    private void insertEntries(Account account, LocalDate firstDay) {
+        TestFixtures.Ledger ledger = fixtures.ledger();
+        for (int i = 0; i < DAYS * ENTRIES_PER_DAY; i++) {
+            LocalDateTime postedAt = firstDay.atStartOfDay().plusMinutes(i * 24L * 60 / ENTRIES_PER_DAY);
+            BigDecimal amount = i % 3 == 2 ? new BigDecimal("-7.25") : new BigDecimal("12.50");
+            ledger.entry(account, TransactionType.DEPOSIT, amount, postedAt, "CKPT" + i, null, null);
+        }
+        ledger.write();
+    }
+}
@@ -0,0 +1,154 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.TestFixtures;
+import com.bankingsystem.dto.request.TransferRequest;
+import com.bankingsystem.dto.response.BatchPostingResponse;
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.entity.AccountEntry;
+import com.bankingsystem.enums.BatchPostingMode;
+import com.bankingsystem.repository.AccountEntryRepository;
+import com.bankingsystem.repository.AccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Posts batches of transfer legs in both modes and checks which legs are posted, the balances and
+ * ledger entries they leave behind, and the per-leg results.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BatchPostingTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountEntryRepository accountEntryRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void allOrNothingPostsEveryLegWhenAllAreValid() {
+        Account a = fixtures.createAccount("1000.00");
+        Account b = fixtures.createAccount("200.00");
+        Account c = fixtures.createAccount("0.00");
+
+        BatchPostingResponse response = transactionService.postBatch(List.of(
+                leg(a, b, "300.00"),
+                leg(b, c, "450.00"),
+                leg(a, c, "100.00")), BatchPostingMode.ALL_OR_NOTHING);
+
+        assertEquals(3, response.getPostedLegs());
+        assertEquals(0, response.getRejectedLegs());
+        for (BatchPostingResponse.LegResult result : response.getResults()) {
+            assertTrue(result.isPosted());
+            assertEquals(2, result.getTransactions().size());
+        }
+        assertBalance(a, "600.00");
+        assertBalance(b, "50.00");
+        assertBalance(c, "550.00");
+        assertLedger(a, "700.00", "600.00");
+        assertLedger(b, "500.00", "50.00");
+        assertLedger(c, "450.00", "550.00");
+    }
+
+    @Test
+    void allOrNothingRejectsTheBatchForOneInvalidLeg() {
+        Account a = fixtures.createAccount("1000.00");
+        Account b = fixtures.createAccount("200.00");
+
+        BatchPostingResponse response = transactionService.postBatch(List.of(
+                leg(a, b, "300.00"),
+                leg(b, a, "900.00"),
+                leg(a, b, "100.00")), BatchPostingMode.ALL_OR_NOTHING);
+
+        assertEquals(0, response.getPostedLegs());
+        assertEquals(3, response.getRejectedLegs());
+        assertEquals("Not posted: batch rejected", response.getResults().get(0).getErrorMessage());
+        assertEquals("Insufficient funds in source account", response.getResults().get(1).getErrorMessage());
+        assertEquals("Not posted: batch rejected", response.getResults().get(2).getErrorMessage());
+        for (BatchPostingResponse.LegResult result : response.getResults()) {
+            assertFalse(result.isPosted());
+            assertNull(result.getTransactions());
+        }
+        assertBalance(a, "1000.00");
+        assertBalance(b, "200.00");
+        assertLedger(a);
+        assertLedger(b);
+    }
+
+    @Test
+    void bestEffortPostsTheValidLegs() {
+        Account a = fixtures.createAccount("1000.00");
+        Account b = fixtures.createAccount("200.00");
+        Account c = fixtures.createAccount("0.00");
+
+        BatchPostingResponse response = transactionService.postBatch(List.of(
+                leg(a, b, "100.00"),
+                leg(a, c, "950.00"),
+                leg(b, c, "50.00"),
+                leg(a, a, "10.00")), BatchPostingMode.BEST_EFFORT);
+
+        assertEquals(2, response.getPostedLegs());
+        assertEquals(2, response.getRejectedLegs());
+        assertTrue(response.getResults().get(0).isPosted());
+        assertEquals("Insufficient funds in source account", response.getResults().get(1).getErrorMessage());
+        assertTrue(response.getResults().get(2).isPosted());
+        assertEquals("Cannot transfer to the same account", response.getResults().get(3).getErrorMessage());
+        assertBalance(a, "900.00");
+        assertBalance(b, "250.00");
+        assertBalance(c, "50.00");
+        assertLedger(a, "900.00");
+        assertLedger(b, "300.00", "250.00");
+        assertLedger(c, "50.00");
+    }
+
+    private static TransferRequest leg(Account from, Account to, String amount) {
+        TransferRequest leg = new TransferRequest();
+        leg.setFromAccountId(from.getId());
+        leg.setToAccountId(to.getId());
+        leg.setAmount(new BigDecimal(amount));
+        leg.setDescription("batch test");
+        return leg;
+    }
+
+    private void assertBalance(Account account, String expected) {
+        assertEquals(0, new BigDecimal(expected).compareTo(accountRepository.findBalanceById(account.getId())));
+    }
+
+    /**
+     * The account's entries are numbered from 1 and carry the given running balances, in order.
+     */
+    private void assertLedger(Account account, String... runningBalances) {
+        List<AccountEntry> entries = accountEntryRepository.findEntriesAfter(account.getId(), 0L, Long.MAX_VALUE,
+                Pageable.unpaged());
+        assertEquals(runningBalances.length, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(i + 1, entries.get(i).getSeq());
+            assertEquals(0, new BigDecimal(runningBalances[i]).compareTo(entries.get(i).getRunningBalance()));
+        }
+        assertEquals(runningBalances.length,
+                accountRepository.findById(account.getId()).orElseThrow().getEntrySequence());
+    }
+}
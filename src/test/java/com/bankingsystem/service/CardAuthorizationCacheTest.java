@@ -0,0 +1,126 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.TestFixtures;
+import com.bankingsystem.dto.request.CardTransactionRequest;
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.entity.Card;
+import com.bankingsystem.entity.User;
+import com.bankingsystem.enums.CardStatus;
+import com.bankingsystem.exception.InvalidOperationException;
+import com.bankingsystem.exception.TransactionLimitExceededException;
+import com.bankingsystem.repository.AccountRepository;
+import com.bankingsystem.repository.CardRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Authorizes against a warm card snapshot and checks that no card, account or user entity is
+ * loaded, then checks that blocking the card and lowering its limits take effect on the next
+ * authorization. Also checks that the snapshot cache stays within its size bound by evicting the
+ * least recently used card.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CardAuthorizationCacheTest {
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void authorizationUsesSnapshotAndSeesStatusChanges() {
+        Account account = fixtures.createAccount("1000.00");
+        Card card = fixtures.createCard(account);
+        String cardNumber = card.getCardNumber();
+
+        cardService.processCardTransaction(purchase(cardNumber, "10.00"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        cardService.processCardTransaction(purchase(cardNumber, "10.00"));
+        assertEquals(0, statistics.getEntityStatistics(Card.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(Account.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(User.class.getName()).getLoadCount());
+        statistics.setStatisticsEnabled(false);
+
+        cardService.updateCardLimits(card.getId(), new BigDecimal("25.00"), null);
+        assertThrows(TransactionLimitExceededException.class,
+                () -> cardService.processCardTransaction(purchase(cardNumber, "10.00")));
+
+        cardService.blockCard(card.getId(), "lost");
+        assertThrows(InvalidOperationException.class,
+                () -> cardService.processCardTransaction(purchase(cardNumber, "1.00")));
+
+        cardService.unblockCard(card.getId());
+        cardService.processCardTransaction(purchase(cardNumber, "1.00"));
+        assertEquals(0, new BigDecimal("979.00").compareTo(
+                accountRepository.findById(account.getId()).orElseThrow().getAvailableBalance()));
+    }
+
+    @Test
+    void snapshotCacheEvictsLeastRecentlyUsedCard() {
+        Account account = fixtures.createAccount("1000.00");
+        String first = fixtures.createCard(account).getCardNumber();
+        String second = fixtures.createCard(account).getCardNumber();
+        String third = fixtures.createCard(account).getCardNumber();
+        CardSnapshotCache cache = new CardSnapshotCache();
+        ReflectionTestUtils.setField(cache, "cardRepository", cardRepository);
+        ReflectionTestUtils.setField(cache, "ttlMillis", 60_000L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        cache.get(first);
+        cache.get(second);
+        cache.get(first);
+        cache.get(third);
+        assertEquals(2, cache.size());
+
+        // Only a card that is no longer cached sees a change made behind the cache's back
+        jdbcTemplate.update("UPDATE cards SET status = 'BLOCKED' WHERE card_number IN (?, ?, ?)",
+                first, second, third);
+        assertEquals(CardStatus.ACTIVE, cache.get(first).orElseThrow().status());
+        assertEquals(CardStatus.ACTIVE, cache.get(third).orElseThrow().status());
+        assertEquals(CardStatus.BLOCKED, cache.get(second).orElseThrow().status());
+    }
+
+    private static CardTransactionRequest purchase(String cardNumber, String amount) {
+        CardTransactionRequest request = new CardTransactionRequest();
+        request.setCardNumber(cardNumber);
+        request.setAmount(new BigDecimal(amount));
+        request.setMerchantName("Corner Shop");
+        request.setMerchantCategory("grocery");
+        request.setLocation("London");
+        return request;
+    }
+}
@@ -0,0 +1,155 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.TestFixtures;
+import com.bankingsystem.dto.request.CardTransactionRequest;
+import com.bankingsystem.dto.response.CardTransactionResponse;
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.entity.Card;
+import com.bankingsystem.entity.CardTransaction;
+import com.bankingsystem.enums.CardType;
+import com.bankingsystem.enums.TransactionStatus;
+import com.bankingsystem.exception.InsufficientFundsException;
+import com.bankingsystem.exception.InvalidOperationException;
+import com.bankingsystem.repository.AccountRepository;
+import com.bankingsystem.repository.CardRepository;
+import com.bankingsystem.repository.CardTransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Authorizes debit card purchases and checks that only the available balance moves until the
+ * authorization clears, that clearing for a different amount posts the final amount, and that a
+ * hold past its deadline is released exactly once. Clearing more than was authorized is only
+ * allowed while the available balance or credit covers the excess.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CardHoldLifecycleTest {
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardHoldService cardHoldService;
+
+    @Autowired
+    private CardTransactionRepository cardTransactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void holdClearAndExpire() {
+        Account account = fixtures.createAccount("500.00");
+        Card card = fixtures.createCard(account);
+
+        CardTransactionResponse fuel = cardService.processCardTransaction(purchase(card, "100.00"));
+        assertEquals(TransactionStatus.PENDING, fuel.getStatus());
+        assertBalances(account, "500.00", "400.00");
+        assertEquals(0L, accountRepository.findLedgerPositionById(account.getId()).getEntrySequence());
+
+        // The hold counts against the available balance
+        assertThrows(InvalidOperationException.class,
+                () -> cardService.processCardTransaction(purchase(card, "450.00")));
+
+        CardTransactionResponse cleared = cardService.clearCardTransaction(fuel.getTransactionReference(), new BigDecimal("80.00"));
+        assertEquals(TransactionStatus.COMPLETED, cleared.getStatus());
+        assertBalances(account, "420.00", "420.00");
+        assertEquals(1L, accountRepository.findLedgerPositionById(account.getId()).getEntrySequence());
+        assertThrows(InvalidOperationException.class,
+                () -> cardService.clearCardTransaction(fuel.getTransactionReference(), null));
+
+        CardTransactionResponse hotel = cardService.processCardTransaction(purchase(card, "200.00"));
+        assertBalances(account, "420.00", "220.00");
+        CardTransaction held = cardTransactionRepository.findById(hotel.getId()).orElseThrow();
+
+        LocalDateTime now = LocalDateTime.now();
+        assertFalse(cardHoldService.expire(held.getId(), now));
+        assertTrue(cardHoldService.expire(held.getId(), held.getHoldExpiresAt().plusMinutes(1)));
+        assertFalse(cardHoldService.expire(held.getId(), held.getHoldExpiresAt().plusMinutes(1)));
+        assertBalances(account, "420.00", "420.00");
+        assertEquals(TransactionStatus.CANCELLED,
+                cardTransactionRepository.findById(held.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void overClearingIsCappedByTheAvailableBalance() {
+        Account account = fixtures.createAccount("500.00");
+        Card card = fixtures.createCard(account);
+        CardTransactionResponse tab = cardService.processCardTransaction(purchase(card, "100.00"));
+
+        assertThrows(InsufficientFundsException.class,
+                () -> cardService.clearCardTransaction(tab.getTransactionReference(), new BigDecimal("500.01")));
+        assertBalances(account, "500.00", "400.00");
+        assertEquals(TransactionStatus.PENDING,
+                cardTransactionRepository.findById(tab.getId()).orElseThrow().getStatus());
+
+        cardService.clearCardTransaction(tab.getTransactionReference(), new BigDecimal("500.00"));
+        assertBalances(account, "0.00", "0.00");
+    }
+
+    @Test
+    void overClearingIsCappedByTheAvailableCredit() {
+        Account account = fixtures.createAccount("0.00");
+        Card card = fixtures.createCard(account);
+        card.setCardType(CardType.CREDIT);
+        card.setCreditLimit(new BigDecimal("300.00"));
+        card.setAvailableCredit(new BigDecimal("300.00"));
+        cardRepository.save(card);
+        CardTransactionResponse tab = cardService.processCardTransaction(purchase(card, "100.00"));
+        CardTransactionResponse taxi = cardService.processCardTransaction(purchase(card, "50.00"));
+        assertAvailableCredit(card, "150.00");
+
+        assertThrows(InsufficientFundsException.class,
+                () -> cardService.clearCardTransaction(tab.getTransactionReference(), new BigDecimal("250.01")));
+        assertAvailableCredit(card, "150.00");
+
+        cardService.clearCardTransaction(tab.getTransactionReference(), new BigDecimal("250.00"));
+        assertAvailableCredit(card, "0.00");
+        cardService.clearCardTransaction(taxi.getTransactionReference(), new BigDecimal("40.00"));
+        assertAvailableCredit(card, "10.00");
+    }
+
+    private void assertAvailableCredit(Card card, String available) {
+        Card current = cardRepository.findById(card.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal(available).compareTo(current.getAvailableCredit()), "available credit");
+    }
+
+    private void assertBalances(Account account, String balance, String available) {
+        Account current = accountRepository.findById(account.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal(balance).compareTo(current.getBalance()), "balance");
+        assertEquals(0, new BigDecimal(available).compareTo(current.getAvailableBalance()), "available balance");
+    }
+
+    private static CardTransactionRequest purchase(Card card, String amount) {
+        CardTransactionRequest request = new CardTransactionRequest();
+        request.setCardNumber(card.getCardNumber());
+        request.setAmount(new BigDecimal(amount));
+        request.setMerchantName("Station Garage");
+        request.setMerchantCategory("fuel");
+        request.setLocation("Leeds");
+        return request;
+    }
+}
@@ -0,0 +1,234 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.TestFixtures;
+import com.bankingsystem.dto.request.CardTransactionRequest;
+import com.bankingsystem.dto.response.CardTransactionResponse;
+import com.bankingsystem.dto.response.ClearingImportResponse;
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.entity.Card;
+import com.bankingsystem.entity.ClearingFileImport;
+import com.bankingsystem.enums.TransactionStatus;
+import com.bankingsystem.exception.InvalidOperationException;
+import com.bankingsystem.repository.AccountRepository;
+import com.bankingsystem.repository.CardTransactionRepository;
+import com.bankingsystem.repository.ClearingFileImportRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Imports a clearing file against pending authorizations and checks the settlements, the
+ * reconciliation report and that a partly imported file resumes after its checkpoint. Also checks
+ * that a file is not imported twice at once, and that an over-clearing the account cannot cover is
+ * reported without undoing the rest of its chunk.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ClearingFileImporterTest {
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private ClearingFileImporter clearingFileImporter;
+
+    @Autowired
+    private ClearingFileImportRepository clearingFileImportRepository;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardTransactionRepository cardTransactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void settlesMatchedPresentmentsAndResumesFromCheckpoint() throws IOException {
+        Account account = fixtures.createAccount("1000.00");
+        Card card = fixtures.createCard(account);
+        CardTransactionResponse groceries = cardService.processCardTransaction(purchase(card, "100.00"));
+        CardTransactionResponse books = cardService.processCardTransaction(purchase(card, "50.00"));
+        CardTransactionResponse taxi = cardService.processCardTransaction(purchase(card, "30.00"));
+
+        Path file = directory.resolve("acquirer-1.csv");
+        Files.write(file, List.of(
+                "transaction_reference,authorization_code,amount",
+                groceries.getTransactionReference() + ",,90.00",
+                "," + books.getAuthorizationCode() + ",50.00",
+                "TXN-UNKNOWN,,10.00",
+                "not a presentment",
+                groceries.getTransactionReference() + ",,90.00"));
+
+        ClearingImportResponse result = clearingFileImporter.importFile(file);
+        assertTrue(result.isCompleted());
+        assertEquals(2, result.getSettled());
+        assertEquals(3, result.getUnmatched());
+        assertEquals(TransactionStatus.COMPLETED, statusOf(groceries));
+        assertEquals(TransactionStatus.COMPLETED, statusOf(books));
+        assertEquals(TransactionStatus.PENDING, statusOf(taxi));
+        Account settled = accountRepository.findById(account.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("860.00").compareTo(settled.getBalance()));
+        assertEquals(0, new BigDecimal("830.00").compareTo(settled.getAvailableBalance()));
+
+        List<String> report = Files.readAllLines(Path.of(result.getReconciliationReport()));
+        assertEquals(4, report.size());
+        assertTrue(report.get(1).startsWith("4,NOT_FOUND,"));
+        assertTrue(report.get(2).startsWith("5,MALFORMED,"));
+        assertTrue(report.get(3).startsWith("6,NOT_PENDING_COMPLETED,"));
+
+        // A second file whose first two lines were committed by an earlier, interrupted run
+        Path partial = directory.resolve("acquirer-2.csv");
+        Files.write(partial, List.of(
+                "transaction_reference,authorization_code,amount",
+                taxi.getTransactionReference() + ",,30.00",
+                "TXN-UNKNOWN-2,,5.00"));
+        ClearingFileImport checkpoint = new ClearingFileImport();
+        checkpoint.setFileName("acquirer-2.csv");
+        checkpoint.setFileSize(Files.size(partial));
+        checkpoint.setLinesProcessed(2L);
+        clearingFileImportRepository.save(checkpoint);
+
+        ClearingImportResponse resumed = clearingFileImporter.importFile(partial);
+        assertEquals(2, resumed.getResumedFromLine());
+        assertEquals(0, resumed.getSettled());
+        assertEquals(1, resumed.getUnmatched());
+        assertEquals(TransactionStatus.PENDING, statusOf(taxi));
+
+        // Running a completed file again changes nothing
+        assertEquals(2, clearingFileImporter.importFile(file).getSettled());
+    }
+
+    @Test
+    void reportsOverClearingTheAccountCannotCover() throws IOException {
+        Account account = fixtures.createAccount("200.00");
+        Card card = fixtures.createCard(account);
+        CardTransactionResponse hotel = cardService.processCardTransaction(purchase(card, "100.00"));
+        CardTransactionResponse fuel = cardService.processCardTransaction(purchase(card, "40.00"));
+
+        Path file = directory.resolve("acquirer-over.csv");
+        Files.write(file, List.of(
+                hotel.getTransactionReference() + ",,180.00",
+                fuel.getTransactionReference() + ",,40.00"));
+
+        ClearingImportResponse result = clearingFileImporter.importFile(file);
+        assertEquals(1, result.getSettled());
+        assertEquals(1, result.getUnmatched());
+        assertEquals(TransactionStatus.PENDING, statusOf(hotel));
+        assertEquals(TransactionStatus.COMPLETED, statusOf(fuel));
+        Account current = accountRepository.findById(account.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("160.00").compareTo(current.getBalance()));
+        assertEquals(0, new BigDecimal("60.00").compareTo(current.getAvailableBalance()));
+        List<String> report = Files.readAllLines(Path.of(result.getReconciliationReport()));
+        assertTrue(report.get(1).startsWith("1,INSUFFICIENT_FUNDS,"));
+    }
+
+    @Test
+    void rejectsImportOfFileClaimedByRunningImport() throws IOException {
+        Account account = fixtures.createAccount("1000.00");
+        Card card = fixtures.createCard(account);
+        CardTransactionResponse purchase = cardService.processCardTransaction(purchase(card, "40.00"));
+        Path file = directory.resolve("acquirer-claimed.csv");
+        Files.write(file, List.of(purchase.getTransactionReference() + ",,40.00"));
+        ClearingFileImport running = new ClearingFileImport();
+        running.setFileName("acquirer-claimed.csv");
+        running.setFileSize(Files.size(file));
+        running.setClaimedBy("another-import");
+        running.setClaimedAt(LocalDateTime.now());
+        running = clearingFileImportRepository.save(running);
+
+        assertThrows(InvalidOperationException.class, () -> clearingFileImporter.importFile(file));
+        assertEquals(TransactionStatus.PENDING, statusOf(purchase));
+
+        // A claim that has not been refreshed within the timeout belongs to an import that died
+        running.setClaimedAt(LocalDateTime.now().minusHours(1));
+        clearingFileImportRepository.save(running);
+        ClearingImportResponse result = clearingFileImporter.importFile(file);
+        assertEquals(1, result.getSettled());
+        assertEquals(TransactionStatus.COMPLETED, statusOf(purchase));
+        assertNull(clearingFileImportRepository.findById(running.getId()).orElseThrow().getClaimedBy());
+    }
+
+    @Test
+    void concurrentImportsOfSameFileSettleOnce() throws Exception {
+        Account account = fixtures.createAccount("1000.00");
+        Card card = fixtures.createCard(account);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            lines.add(cardService.processCardTransaction(purchase(card, "5.00")).getTransactionReference() + ",,5.00");
+        }
+        Path file = directory.resolve("acquirer-concurrent.csv");
+        Files.write(file, lines);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Long>> imports = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            imports.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    return clearingFileImporter.importFile(file).getSettled();
+                } catch (InvalidOperationException e) {
+                    return -1L;
+                }
+            }));
+        }
+        ready.countDown();
+        List<Long> settled = new ArrayList<>();
+        for (Future<Long> result : imports) {
+            settled.add(result.get(60, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // Either one import is rejected, or the second found the file already completed
+        assertTrue(settled.contains(20L));
+        assertTrue(settled.stream().allMatch(count -> count == 20L || count == -1L));
+        Account settledAccount = accountRepository.findById(account.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("900.00").compareTo(settledAccount.getBalance()));
+        assertEquals(0, new BigDecimal("900.00").compareTo(settledAccount.getAvailableBalance()));
+    }
+
+    private TransactionStatus statusOf(CardTransactionResponse transaction) {
+        return cardTransactionRepository.findById(transaction.getId()).orElseThrow().getStatus();
+    }
+
+    private static CardTransactionRequest purchase(Card card, String amount) {
+        CardTransactionRequest request = new CardTransactionRequest();
+        request.setCardNumber(card.getCardNumber());
+        request.setAmount(new BigDecimal(amount));
+        request.setMerchantName("High Street");
+        request.setMerchantCategory("retail");
+        request.setLocation("York");
+        return request;
+    }
+}
@@ -0,0 +1,211 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.TestFixtures;
+import com.bankingsystem.dto.response.TransactionResponse;
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.entity.LedgerHandoff;
+import com.bankingsystem.exception.InsufficientFundsException;
+import com.bankingsystem.mapper.TransactionMapper;
+import com.bankingsystem.repository.AccountRepository;
+import com.bankingsystem.repository.LedgerHandoffRepository;
+import com.bankingsystem.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stops the ledger engine while cross-shard transfers are still being handed from the debiting to
+ * the crediting shard, and checks that no debited amount is lost: a graceful stop drains the
+ * hand-offs, and an engine stopped without draining leaves them in the outbox for the next start.
+ * Also checks that debits are checked against the available balance, so card holds are rejected
+ * in the batch rather than by the conditional debit that rolls the batch back.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LedgerEngineHandoffTest {
+
+    private static final int ACCOUNTS = 8;
+    private static final int TRANSFERS = 400;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+    private static final long DRAIN_TIMEOUT_MILLIS = 60_000;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerHandoffRepository ledgerHandoffRepository;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private AccountEntryService accountEntryService;
+
+    @Autowired
+    private TransactionMapper transactionMapper;
+
+    @Autowired
+    private LimitsEngine limitsEngine;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void gracefulStopDrainsHandoffs() throws Exception {
+        List<Account> accounts = createAccounts();
+        LedgerEngine engine = newEngine(DRAIN_TIMEOUT_MILLIS);
+        engine.start();
+        List<CompletableFuture<List<TransactionResponse>>> transfers = submitTransfers(engine, accounts);
+        engine.stop();
+
+        for (CompletableFuture<List<TransactionResponse>> transfer : transfers) {
+            assertEquals(2, transfer.getNow(List.of()).size());
+        }
+        assertEquals(0, ledgerHandoffRepository.count());
+        assertEquals(0, total(accounts).compareTo(OPENING_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS))));
+    }
+
+    @Test
+    void handoffsPendingAtStopAreReplayedOnStart() throws Exception {
+        List<Account> accounts = createAccounts();
+        BigDecimal opening = OPENING_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS));
+        LedgerEngine stopped = newEngine(0);
+        stopped.start();
+        submitTransfers(stopped, accounts);
+        stopped.stop();
+        assertEquals(0, opening.compareTo(total(accounts).add(outboxTotal(accounts))));
+
+        // A hand-off left behind by a crash right after its debit committed
+        Account from = accounts.get(0);
+        Account to = accounts.get(1);
+        jdbcTemplate.update("UPDATE accounts SET balance = balance - 25, available_balance = available_balance - 25 "
+                + "WHERE id = ?", from.getId());
+        ledgerHandoffRepository.save(new LedgerHandoff("CRASHED", to.getId(), from.getId(), new BigDecimal("25.00"),
+                "interrupted transfer"));
+
+        LedgerEngine restarted = newEngine(DRAIN_TIMEOUT_MILLIS);
+        restarted.start();
+        long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MILLIS;
+        while (ledgerHandoffRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        restarted.stop();
+
+        assertEquals(0, ledgerHandoffRepository.count());
+        assertEquals(0, opening.compareTo(total(accounts)));
+        assertTrue(transactionRepository.findByTransactionReference("CRASHED-CREDIT").isPresent());
+        assertEquals(countReferences(accounts, "%-DEBIT"),
+                countReferences(accounts, "%-CREDIT") + countReferences(accounts, "%-REVERSAL") - 1);
+    }
+
+    @Test
+    void debitsBeyondTheAvailableBalanceAreRejectedInTheBatch() throws Exception {
+        Account account = fixtures.createAccount("100.00");
+        Account other = fixtures.createAccount("0.00");
+        // A 60.00 card hold
+        jdbcTemplate.update("UPDATE accounts SET available_balance = 40 WHERE id = ?", account.getId());
+
+        // Queued before the shards start, so all three commands are applied in one batch
+        LedgerEngine engine = newEngine(DRAIN_TIMEOUT_MILLIS);
+        CompletableFuture<TransactionResponse> withdrawal = engine.withdraw(account.getId(), new BigDecimal("30.00"), "cash");
+        CompletableFuture<List<TransactionResponse>> overdrawn =
+                engine.transfer(account.getId(), other.getId(), new BigDecimal("20.00"), "rent");
+        CompletableFuture<List<TransactionResponse>> covered =
+                engine.transfer(account.getId(), other.getId(), new BigDecimal("10.00"), "rent");
+        engine.start();
+        try {
+            withdrawal.get(DRAIN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            assertEquals(2, covered.get(DRAIN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS).size());
+            ExecutionException rejected = assertThrows(ExecutionException.class,
+                    () -> overdrawn.get(DRAIN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+            // The conditional debit at commit would fail with a plain "Insufficient funds"
+            assertInstanceOf(InsufficientFundsException.class, rejected.getCause());
+            assertEquals("Insufficient funds in source account", rejected.getCause().getMessage());
+        } finally {
+            engine.stop();
+        }
+
+        Account current = accountRepository.findById(account.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("60.00").compareTo(current.getBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(current.getAvailableBalance()));
+        assertEquals(0, new BigDecimal("10.00").compareTo(accountRepository.findBalanceById(other.getId())));
+    }
+
+    private LedgerEngine newEngine(long drainTimeoutMillis) {
+        return new LedgerEngine(accountRepository, transactionRepository, ledgerHandoffRepository, auditService,
+                accountEntryService, transactionMapper, limitsEngine, transactionManager, 4, 4096, 16,
+                drainTimeoutMillis);
+    }
+
+    private List<Account> createAccounts() {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(fixtures.createAccount(OPENING_BALANCE.toPlainString()));
+        }
+        return accounts;
+    }
+
+    private static List<CompletableFuture<List<TransactionResponse>>> submitTransfers(LedgerEngine engine,
+                                                                                     List<Account> accounts) {
+        List<CompletableFuture<List<TransactionResponse>>> transfers = new ArrayList<>();
+        for (int i = 0; i < TRANSFERS; i++) {
+            Account from = accounts.get(i % ACCOUNTS);
+            Account to = accounts.get((i * 3 + 1) % ACCOUNTS);
+            transfers.add(engine.transfer(from.getId(), to.getId(), BigDecimal.ONE, "hand-off test"));
+        }
+        return transfers;
+    }
+
+    private BigDecimal total(List<Account> accounts) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Account account : accounts) {
+            total = total.add(accountRepository.findBalanceById(account.getId()));
+        }
+        return total;
+    }
+
+    private BigDecimal outboxTotal(List<Account> accounts) {
+        List<Long> ids = accounts.stream().map(Account::getId).toList();
+        return ledgerHandoffRepository.findAll().stream()
+                .filter(handoff -> ids.contains(handoff.getAccountId()))
+                .map(LedgerHandoff::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private long countReferences(List<Account> accounts, String pattern) {
+        List<Long> ids = accounts.stream().map(Account::getId).toList();
+        String in = String.join(",", ids.stream().map(String::valueOf).toList());
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE transaction_reference LIKE ? "
+                + "AND (from_account_id IN (" + in + ") OR to_account_id IN (" + in + "))", Long.class, pattern);
+    }
+}
@@ -0,0 +1,64 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.TestFixtures;
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.exception.InsufficientFundsException;
+import com.bankingsystem.exception.TransactionLimitExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Withdraws and transfers up to the default daily limit of 10000 and checks that the counters only
+ * hold committed debits, and that rebuilding them from the database gives the same totals.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LimitsEngineTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private LimitsEngine limitsEngine;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void dailyLimitCountsCommittedDebitsOnly() {
+        Account account = fixtures.createAccount("20000.00");
+        Account other = fixtures.createAccount("0.00");
+
+        transactionService.withdraw(account.getId(), new BigDecimal("6000.00"), "limits test");
+        transactionService.transfer(account.getId(), other.getId(), new BigDecimal("3000.00"), "limits test");
+
+        // Over the limit: rejected before the balance is touched
+        assertThrows(TransactionLimitExceededException.class,
+                () -> transactionService.withdraw(account.getId(), new BigDecimal("2000.00"), "limits test"));
+        // Within the limit but more than the other account holds: rolled back and released
+        assertThrows(InsufficientFundsException.class,
+                () -> transactionService.withdraw(other.getId(), new BigDecimal("5000.00"), "limits test"));
+
+        transactionService.withdraw(account.getId(), new BigDecimal("1000.00"), "limits test");
+        assertEquals(0, new BigDecimal("10000.00").compareTo(limitsEngine.dayTotal(LimitsEngine.Scope.ACCOUNT_DEBITS, account.getId())));
+        assertEquals(0, BigDecimal.ZERO.compareTo(limitsEngine.dayTotal(LimitsEngine.Scope.ACCOUNT_DEBITS, other.getId())));
+
+        limitsEngine.rebuild();
+        assertEquals(0, new BigDecimal("10000.00").compareTo(limitsEngine.dayTotal(LimitsEngine.Scope.ACCOUNT_DEBITS, account.getId())));
+        assertEquals(0, new BigDecimal("10000.00").compareTo(limitsEngine.monthTotal(LimitsEngine.Scope.ACCOUNT_DEBITS, account.getId())));
+        assertEquals(0, BigDecimal.ZERO.compareTo(limitsEngine.dayTotal(LimitsEngine.Scope.ACCOUNT_DEBITS, other.getId())));
+    }
+}
@@ -0,0 +1,142 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.TestFixtures;
+import com.bankingsystem.dto.response.ReportJobResponse;
+import com.bankingsystem.enums.ReportJobStatus;
+import com.bankingsystem.security.CustomUserDetailsService;
+import com.bankingsystem.util.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Queues the same statement twice while it is generating and checks that both requests share one
+ * job, then polls the job and downloads the result whole and by byte range. Report generation
+ * itself is stubbed; the job machinery does not depend on the PDF content.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReportJobServiceTest {
+
+    private static final byte[] REPORT = "%PDF-1.4 report job test content".getBytes(StandardCharsets.US_ASCII);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @MockBean
+    private ReportService reportService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void identicalRequestsShareOneJobAndResultSupportsRanges() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger generated = new AtomicInteger();
+        when(reportService.generateAccountStatement(anyLong(), any(), any())).thenAnswer(invocation -> {
+            generated.incrementAndGet();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return new ByteArrayResource(REPORT);
+        });
+        String token = "Bearer " + jwtUtil.generateToken(new CustomUserDetailsService.CustomUserPrincipal(fixtures.createUser()));
+        String body = "{\"reportType\":\"ACCOUNT_STATEMENT\",\"targetId\":42,"
+                + "\"fromDate\":\"2020-01-01\",\"toDate\":\"2024-12-31\"}";
+
+        ReportJobResponse first = submit(token, body);
+        ReportJobResponse second = submit(token, body);
+        assertEquals(first.getJobId(), second.getJobId());
+
+        mockMvc.perform(get("/reports/jobs/" + first.getJobId() + "/download")
+                        .header("Authorization", token))
+                .andExpect(status().isConflict());
+
+        release.countDown();
+        ReportJobResponse job = poll(token, first.getJobId());
+        assertEquals(ReportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(REPORT.length, job.getSizeBytes());
+        assertTrue(job.getExpiresAt().isAfter(job.getCompletedAt()));
+        assertEquals(1, generated.get());
+
+        byte[] whole = mockMvc.perform(get("/reports/jobs/" + first.getJobId() + "/download")
+                        .header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertArrayEquals(REPORT, whole);
+
+        byte[] tail = mockMvc.perform(get("/reports/jobs/" + first.getJobId() + "/download")
+                        .header("Authorization", token)
+                        .header(HttpHeaders.RANGE, "bytes=9-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 9-" + (REPORT.length - 1) + "/" + REPORT.length))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertArrayEquals(Arrays.copyOfRange(REPORT, 9, REPORT.length), tail);
+
+        // Once the first job is done, the same request starts a new one
+        assertNotEquals(first.getJobId(), submit(token, body).getJobId());
+    }
+
+    private ReportJobResponse submit(String token, String body) throws Exception {
+        String response = mockMvc.perform(post("/reports/jobs")
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(response, ReportJobResponse.class);
+    }
+
+    private ReportJobResponse poll(String token, String jobId) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            String response = mockMvc.perform(get("/reports/jobs/" + jobId)
+                            .header("Authorization", token))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            ReportJobResponse job = objectMapper.readValue(response, ReportJobResponse.class);
+            if (job.getStatus() == ReportJobStatus.COMPLETED || job.getStatus() == ReportJobStatus.FAILED) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Report job " + jobId + " did not finish");
+    }
+}
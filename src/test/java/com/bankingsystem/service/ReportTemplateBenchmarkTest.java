@@ -0,0 +1,111 @@
+package com.bankingsystem.service;
+
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Checks that the cache holds every compiled template and fills a statement from it. The
+ * benchmark, run with -Pbenchmark, compares monthly statement latency when the template is
+ * compiled per request, as before, with the cached template. It measures template acquisition plus
+ * fill and logs p50 and p99 for both; PDF export costs the same either way and is left out.
+ */
+@Slf4j(topic = "benchmark")
+class ReportTemplateBenchmarkTest {
+
+    private static final int COMPILED_RUNS = 10;
+    private static final int CACHED_RUNS = 200;
+
+    @Test
+    void cacheHoldsEveryTemplate() throws Exception {
+        ReportTemplateCache cache = new ReportTemplateCache(false, "src/main/resources/reports");
+        cache.load();
+        for (String name : ReportTemplateCache.TEMPLATES) {
+            assertNotNull(cache.get(name), name);
+        }
+        assertFalse(fill(cache.get("monthly_statement")).getPages().isEmpty());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void cachedTemplateAgainstCompilingPerRequest() throws Exception {
+        ReportTemplateCache cache = new ReportTemplateCache(false, "src/main/resources/reports");
+        cache.load();
+
+        // Warm up both paths
+        fill(compile());
+        for (int i = 0; i < 20; i++) {
+            fill(cache.get("monthly_statement"));
+        }
+
+        long[] compiled = new long[COMPILED_RUNS];
+        for (int i = 0; i < COMPILED_RUNS; i++) {
+            long start = System.nanoTime();
+            fill(compile());
+            compiled[i] = System.nanoTime() - start;
+        }
+        long[] cached = new long[CACHED_RUNS];
+        for (int i = 0; i < CACHED_RUNS; i++) {
+            long start = System.nanoTime();
+            fill(cache.get("monthly_statement"));
+            cached[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(compiled);
+        Arrays.sort(cached);
+        log.info("Monthly statement, compiled per request: p50 {} ms, p99 {} ms",
+                percentile(compiled, 0.5) / 1_000_000, percentile(compiled, 0.99) / 1_000_000);
+        log.info("Monthly statement, cached template: p50 {} ms, p99 {} ms",
+                percentile(cached, 0.5) / 1_000_000, percentile(cached, 0.99) / 1_000_000);
+    }
+
+    private static JasperReport compile() throws Exception {
+        try (InputStream in = new ClassPathResource("reports/monthly_statement.jrxml").getInputStream()) {
+            return JasperCompileManager.compileReport(in);
+        }
+    }
+
+    private static JasperPrint fill(JasperReport report) throws Exception {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("customerName", "Report Benchmark");
+        parameters.put("customerId", 1L);
+        parameters.put("reportMonth", "01/2024");
+        parameters.put("totalBalance", new BigDecimal("12500.00"));
+        parameters.put("accountCount", 3);
+        parameters.put("reportDate", "31/01/2024 23:59");
+
+        List<Map<String, Object>> accounts = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Map<String, Object> account = new HashMap<>();
+            account.put("accountNumber", "ACC-00000" + i);
+            account.put("accountType", "CHECKING");
+            account.put("currentBalance", new BigDecimal("4166.66"));
+            account.put("transactionCount", 40);
+            account.put("monthlyDebit", new BigDecimal("1200.00"));
+            account.put("monthlyCredit", new BigDecimal("1500.00"));
+            accounts.add(account);
+        }
+        return JasperFillManager.fillReport(report, parameters, new JRBeanCollectionDataSource(accounts));
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))];
+    }
+}
@@ -0,0 +1,111 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.dto.response.CursorPageResponse;
+import com.bankingsystem.dto.response.TransactionResponse;
+import com.bankingsystem.TestFixtures;
+import com.bankingsystem.entity.Account;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Walks an account's full history through the cursor API and checks that every row is returned
+ * once, newest first. Logs the latency of the second and the deepest page next to the same pages
+ * fetched by offset, as the history was paged before.
+ */
+@Slf4j(topic = "benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionHistoryPaginationTest {
+
+    private static final int TRANSACTIONS = 5_000;
+    private static final int PAGE_SIZE = 100;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void cursorWalksWholeHistoryInOrder() {
+        Account account = fixtures.createAccount("1000.00");
+        Account other = fixtures.createAccount("1000.00");
+        insertTransactions(account, other);
+
+        Set<Long> seen = new HashSet<>();
+        List<Long> pageNanos = new ArrayList<>();
+        TransactionResponse previous = null;
+        String cursor = null;
+        do {
+            long start = System.nanoTime();
+            CursorPageResponse<TransactionResponse> page =
+                    transactionService.getTransactionHistory(account.getId(), cursor, PAGE_SIZE);
+            pageNanos.add(System.nanoTime() - start);
+            for (TransactionResponse item : page.getItems()) {
+                assertTrue(seen.add(item.getId()), "duplicate transaction " + item.getId());
+                if (previous != null) {
+                    int byDate = item.getTransactionDate().compareTo(previous.getTransactionDate());
+                    assertTrue(byDate < 0 || (byDate == 0 && item.getId() < previous.getId()));
+                }
+                previous = item;
+            }
+            cursor = page.getNextCursor();
+            assertEquals(page.isHasMore(), cursor != null);
+        } while (cursor != null);
+
+        assertEquals(TRANSACTIONS, seen.size());
+        assertFalse(pageNanos.isEmpty());
+
+        Sort newestFirst = Sort.by(Sort.Order.desc("transactionDate"), Sort.Order.desc("id"));
+        int pages = pageNanos.size();
+        // The offset pages map lazy accounts, which the open session in view covers in the controller
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> transactionService
+                .getTransactionsByAccountId(account.getId(), PageRequest.of(1, PAGE_SIZE, newestFirst)));
+        long offsetSecondNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> transactionService
+                .getTransactionsByAccountId(account.getId(), PageRequest.of(pages - 1, PAGE_SIZE, newestFirst)));
+        long offsetLastNanos = System.nanoTime() - start;
+        log.info("History paging over {} pages: offset second page {} ms, last page {} ms; "
+                        + "cursor second page {} ms, last page {} ms",
+                pages, offsetSecondNanos / 1_000_000, offsetLastNanos / 1_000_000,
+                pageNanos.get(1) / 1_000_000, pageNanos.get(pages - 1) / 1_000_000);
+    }
+
+    private void insertTransactions(Account account, Account other) {
+        LocalDateTime base = LocalDateTime.now().minusDays(1);
+        TestFixtures.Ledger ledger = fixtures.ledger();
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            // Groups of three rows share a timestamp so the id tie-breaker is exercised
+            ledger.transfer("HIST", account, other, BigDecimal.ONE, i % 2 == 0, base.plusSeconds(i / 3), null);
+        }
+        ledger.write();
+    }
+}
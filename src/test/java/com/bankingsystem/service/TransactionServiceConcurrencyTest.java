@@ -0,0 +1,117 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.TestFixtures;
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hammers a single hot account from many threads and checks that no update is lost. Logs the
+ * throughput next to the same load applied the old way, reading the account entity and saving it
+ * back, where concurrent withdrawals fail on the version check.
+ */
+@Slf4j(topic = "benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 50;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void concurrentWithdrawalsOnHotAccountAreNotLost() throws Exception {
+        Account legacy = fixtures.createAccount("300.00");
+        AtomicInteger conflicts = new AtomicInteger();
+        long legacyNanos = hammer(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Account current = accountRepository.findById(legacy.getId()).orElseThrow();
+                    if (current.getBalance().compareTo(BigDecimal.ONE) >= 0) {
+                        current.setBalance(current.getBalance().subtract(BigDecimal.ONE));
+                        current.setAvailableBalance(current.getAvailableBalance().subtract(BigDecimal.ONE));
+                    }
+                });
+            } catch (ObjectOptimisticLockingFailureException e) {
+                conflicts.incrementAndGet();
+            }
+        });
+
+        Account account = fixtures.createAccount("300.00");
+        AtomicInteger failures = new AtomicInteger();
+        long elapsedNanos = hammer(() -> {
+            try {
+                transactionService.withdraw(account.getId(), BigDecimal.ONE, "load test");
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+            }
+        });
+
+        int total = THREADS * OPERATIONS_PER_THREAD;
+        int legacyApplied = total - conflicts.get();
+        int applied = total - failures.get();
+        log.info("Hot account, {} withdrawals: read and save applied {} in {} ms ({} applied/s, {} version conflicts), "
+                        + "conditional update applied {} in {} ms ({} applied/s, {} rejected)",
+                total, legacyApplied, legacyNanos / 1_000_000, Math.round(legacyApplied * 1e9 / legacyNanos),
+                conflicts.get(), applied, elapsedNanos / 1_000_000, Math.round(applied * 1e9 / elapsedNanos),
+                failures.get());
+
+        // 400 attempts against a balance of 300: exactly 100 must be rejected and the rest applied
+        assertEquals(100, failures.get());
+        assertEquals(0, BigDecimal.ZERO.compareTo(accountRepository.findBalanceById(account.getId())));
+    }
+
+    private long hammer(Runnable withdrawal) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    withdrawal.run();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,110 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.TestFixtures;
+import com.bankingsystem.dto.response.TransactionResponse;
+import com.bankingsystem.entity.Account;
+import com.bankingsystem.enums.TransactionStatus;
+import com.bankingsystem.enums.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pages transactions of one type and checks the default newest-first order, including ties on the
+ * transaction date, and that null status and date filters match everything.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionsByTypeTest {
+
+    // Later than anything else in the table, so these rows lead the newest-first pages
+    private static final LocalDateTime BASE = LocalDateTime.now().plusYears(1).withNano(0);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deleteTestData() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void unsortedPagesAreNewestFirstWithTiesBrokenById() {
+        List<Long> ids = insertInterest(BASE, BASE.plusHours(1), BASE.plusHours(2), BASE.plusHours(2));
+
+        Page<TransactionResponse> first = transactionService.getTransactionsByType(TransactionType.INTEREST, null,
+                null, null, PageRequest.of(0, 3));
+        Page<TransactionResponse> second = transactionService.getTransactionsByType(TransactionType.INTEREST, null,
+                null, null, PageRequest.of(1, 3));
+
+        assertEquals(List.of(ids.get(3), ids.get(2), ids.get(1)), first.map(TransactionResponse::getId).getContent());
+        assertEquals(ids.get(0), second.getContent().get(0).getId());
+        assertTrue(first.getTotalElements() >= 4);
+        assertEquals(first.getTotalElements(), second.getTotalElements());
+        for (TransactionResponse transaction : first) {
+            assertEquals(TransactionType.INTEREST, transaction.getTransactionType());
+        }
+    }
+
+    @Test
+    void explicitSortOverridesTheDefault() {
+        List<Long> ids = insertInterest(BASE, BASE.plusHours(1), BASE.plusHours(2));
+
+        Page<TransactionResponse> page = transactionService.getTransactionsByType(TransactionType.INTEREST, null,
+                BASE, null, PageRequest.of(0, 10, Sort.by("transactionDate")));
+
+        assertEquals(ids, page.map(TransactionResponse::getId).getContent());
+    }
+
+    @Test
+    void statusAndDateFiltersNarrowOnlyWhenGiven() {
+        List<Long> ids = insertInterest(BASE, BASE.plusHours(1), BASE.plusHours(2), BASE.plusHours(3));
+        jdbcTemplate.update("UPDATE transactions SET status = 'PENDING' WHERE id = ?", ids.get(1));
+
+        assertEquals(List.of(ids.get(3), ids.get(2), ids.get(1), ids.get(0)), idsOf(null, BASE, BASE.plusHours(3)));
+        assertEquals(List.of(ids.get(3), ids.get(2), ids.get(0)),
+                idsOf(TransactionStatus.COMPLETED, BASE, BASE.plusHours(3)));
+        assertEquals(List.of(ids.get(1)), idsOf(TransactionStatus.PENDING, BASE, BASE.plusHours(3)));
+        assertEquals(List.of(ids.get(2), ids.get(1)), idsOf(null, BASE.plusHours(1), BASE.plusHours(2)));
+        assertEquals(List.of(ids.get(3), ids.get(2)), idsOf(null, BASE.plusHours(2), null));
+        List<Long> upToSecond = idsOf(null, null, BASE.plusHours(1));
+        assertEquals(List.of(ids.get(1), ids.get(0)), upToSecond.subList(0, 2));
+    }
+
+    private List<Long> insertInterest(LocalDateTime... dates) {
+        Account account = fixtures.createAccount("0.00");
+        TestFixtures.Ledger ledger = fixtures.ledger();
+        List<Long> ids = new ArrayList<>();
+        for (LocalDateTime date : dates) {
+            ids.add(ledger.transaction("INT-", TransactionType.INTEREST, null, account, new BigDecimal("1.00"),
+                    date, "interest"));
+        }
+        ledger.write();
+        return ids;
+    }
+
+    private List<Long> idsOf(TransactionStatus status, LocalDateTime startDate, LocalDateTime endDate) {
+        return transactionService.getTransactionsByType(TransactionType.INTEREST, status, startDate, endDate,
+                PageRequest.of(0, 50)).map(TransactionResponse::getId).getContent();
+    }
+}
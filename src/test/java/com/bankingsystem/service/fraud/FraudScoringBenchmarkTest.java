@@ -0,0 +1,137 @@
+package com.bankingsystem.service.fraud;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the fraud rules do not allocate and that planted anomalies are declined. The
+ * benchmark, run with -Pbenchmark, replays a synthetic stream of card authorizations through the
+ * scoring stage and logs the latency percentiles against the 200 microsecond p99 budget.
+ */
+@Slf4j(topic = "benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class FraudScoringBenchmarkTest {
+
+    private static final int CARDS = 2_000;
+    private static final int WARMUP_AUTHORIZATIONS = 100_000;
+    private static final int MEASURED_AUTHORIZATIONS = 200_000;
+    private static final long FIRST_CARD_ID = 40_000_000L;
+    private static final long P99_BUDGET_NANOS = 200_000L;
+    private static final String[] CATEGORIES = {"grocery", "fuel", "restaurant", "pharmacy", "transport", "retail"};
+    private static final String[] LOCATIONS = {"London", "Paris", "Berlin", "Madrid", "Rome"};
+
+    @Autowired
+    private FraudScoringService fraudScoringService;
+
+    @Autowired
+    private List<FraudRule> rules;
+
+    private final Random random = new Random(42);
+    private long clock = System.currentTimeMillis() - 86_400_000L;
+
+    @Test
+    @Tag("benchmark")
+    void scoringLatency() {
+        replay(WARMUP_AUTHORIZATIONS, null);
+
+        long[] latencies = new long[MEASURED_AUTHORIZATIONS];
+        replay(MEASURED_AUTHORIZATIONS, latencies);
+        Arrays.sort(latencies);
+        long p50 = latencies[MEASURED_AUTHORIZATIONS / 2];
+        long p99 = latencies[(int) (MEASURED_AUTHORIZATIONS * 0.99)];
+        log.info("Fraud scoring: {} authorizations over {} cards, p50 {} ns, p99 {} ns (budget {} ns), max {} ns",
+                MEASURED_AUTHORIZATIONS, CARDS, p50, p99, P99_BUDGET_NANOS, latencies[latencies.length - 1]);
+    }
+
+    @Test
+    void rulesDoNotAllocate() {
+        CardHistory history = new CardHistory(32);
+        for (int i = 0; i < 32; i++) {
+            history.add(clock + i * 60_000L, 2_000 + i, i % 4 + 1, 7, false);
+        }
+        CardAuthorization authorization = new CardAuthorization(1L, clock + 33 * 60_000L, 2_500, 3, 7, false, false, false);
+        FraudRule[] ruleArray = rules.toArray(new FraudRule[0]);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long sink = 0;
+        for (int i = 0; i < 100_000; i++) {
+            sink += scoreAll(ruleArray, authorization, history);
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            sink += scoreAll(ruleArray, authorization, history);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(sink >= 0);
+        assertTrue(allocated < 1_024, "Rules allocated " + allocated + " bytes over 100k evaluations");
+    }
+
+    @Test
+    void plantedAnomaliesAreDeclined() {
+        long cardId = FIRST_CARD_ID + CARDS + 1;
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            fraudScoringService.recordApproved(new CardAuthorization(cardId, now - (10 - i) * 3_600_000L,
+                    2_000, "grocery".hashCode(), "London".toLowerCase().hashCode(), false, false, false));
+        }
+
+        CardAuthorization international = new CardAuthorization(cardId, now, 2_000, "grocery".hashCode(),
+                "london".hashCode(), false, true, false);
+        assertEquals(FraudScoringService.Decision.DECLINE,
+                fraudScoringService.decide(fraudScoringService.score(international)));
+
+        // Ten times the usual amount, at a new kind of merchant, in another city minutes later
+        fraudScoringService.recordApproved(new CardAuthorization(cardId, now - 60_000L, 2_000,
+                "grocery".hashCode(), "london".hashCode(), false, false, false));
+        CardAuthorization jump = new CardAuthorization(cardId, now, 200_000, "jewellery".hashCode(),
+                "paris".hashCode(), false, false, false);
+        assertEquals(FraudScoringService.Decision.DECLINE,
+                fraudScoringService.decide(fraudScoringService.score(jump)));
+    }
+
+    private void replay(int count, long[] latencies) {
+        for (int i = 0; i < count; i++) {
+            clock += random.nextInt(50);
+            long cardId = FIRST_CARD_ID + random.nextInt(CARDS);
+            int profile = (int) (cardId % CATEGORIES.length);
+            boolean anomaly = random.nextInt(1_000) == 0;
+            long amount = anomaly ? 500_000 + random.nextInt(500_000) : 1_000 + (cardId % 50) * 100 + random.nextInt(2_000);
+            String category = anomaly ? "jewellery" : CATEGORIES[(profile + random.nextInt(2)) % CATEGORIES.length];
+            String location = LOCATIONS[anomaly ? random.nextInt(LOCATIONS.length) : (int) (cardId % LOCATIONS.length)];
+            CardAuthorization authorization = new CardAuthorization(cardId, clock, amount,
+                    category.hashCode(), location.toLowerCase().hashCode(), random.nextInt(4) == 0, anomaly, false);
+
+            long start = System.nanoTime();
+            int score = fraudScoringService.score(authorization);
+            if (latencies != null) {
+                latencies[i] = System.nanoTime() - start;
+            }
+            if (fraudScoringService.decide(score) != FraudScoringService.Decision.DECLINE) {
+                fraudScoringService.recordApproved(authorization);
+            }
+        }
+    }
+
+    private static int scoreAll(FraudRule[] rules, CardAuthorization authorization, CardHistory history) {
+        int score = 0;
+        for (FraudRule rule : rules) {
+            score += rule.score(authorization, history);
+        }
+        return score;
+    }
+}
@@ -0,0 +1,151 @@
+package com.bankingsystem.util;
+
+import com.bankingsystem.entity.User;
+import com.bankingsystem.enums.UserRole;
+import com.bankingsystem.security.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the parsed-token cache in JwtUtil. The benchmark, run with -Pbenchmark, logs the
+ * per-request cost of the old validation path (key rebuilt, token parsed three times) next to a
+ * cached parse.
+ */
+@Slf4j(topic = "benchmark")
+class JwtUtilTest {
+
+    private static final String SECRET = "TestSecretKey12345678901234567890123456789012345678901234567890";
+    private static final int ITERATIONS = 2_000;
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 7_200_000L);
+        ReflectionTestUtils.setField(jwtUtil, "parsedTokenCacheMaxSize", 100);
+        jwtUtil.init();
+    }
+
+    @Test
+    void parsedTokenIsCachedAndCarriesClaims() {
+        String token = jwtUtil.generateToken(principal());
+
+        JwtUtil.ParsedToken parsed = jwtUtil.parse(token);
+
+        assertSame(parsed, jwtUtil.parse(token));
+        assertEquals("cacheuser", parsed.subject());
+        assertEquals(42L, parsed.userId());
+        assertEquals(UserRole.TELLER, parsed.role());
+        assertEquals(JwtUtil.STATUS_ACTIVE, parsed.status());
+    }
+
+    @Test
+    void fullCacheEvictsLeastRecentlyUsedToken() {
+        ReflectionTestUtils.setField(jwtUtil, "parsedTokenCacheMaxSize", 2);
+        jwtUtil.init();
+        String first = jwtUtil.generateToken(principal("first"));
+        String second = jwtUtil.generateToken(principal("second"));
+        String third = jwtUtil.generateToken(principal("third"));
+
+        JwtUtil.ParsedToken firstParsed = jwtUtil.parse(first);
+        JwtUtil.ParsedToken secondParsed = jwtUtil.parse(second);
+        jwtUtil.parse(first);
+        JwtUtil.ParsedToken thirdParsed = jwtUtil.parse(third);
+
+        assertSame(firstParsed, jwtUtil.parse(first));
+        assertSame(thirdParsed, jwtUtil.parse(third));
+        assertNotSame(secondParsed, jwtUtil.parse(second));
+    }
+
+    @Test
+    void tamperedPayloadWithCachedSignatureIsRejected() {
+        String token = jwtUtil.generateToken(principal());
+        jwtUtil.parse(token);
+
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1])).replace("TELLER", "ADMIN");
+        String tampered = parts[0] + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes())
+                + "." + parts[2];
+
+        assertThrows(JwtException.class, () -> jwtUtil.parse(tampered));
+    }
+
+    @Test
+    void expiredTokenIsNotServed() {
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 1L);
+        String token = jwtUtil.generateToken(principal());
+
+        assertThrows(JwtException.class, () -> jwtUtil.parse(token));
+        assertFalse(jwtUtil.validateToken(token));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void cachedParseAgainstRepeatedVerification() {
+        String token = jwtUtil.generateToken(principal());
+
+        long legacy = 0;
+        long cached = 0;
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                legacyFilterPath(token);
+            }
+            legacy = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                jwtUtil.parse(token);
+            }
+            cached = System.nanoTime() - start;
+        }
+
+        log.info("JWT filter cost per request: {} ns before, {} ns with cached parse",
+                legacy / ITERATIONS, cached / ITERATIONS);
+    }
+
+    private static void legacyFilterPath(String token) {
+        // extractUsername, then validateToken -> extractUsername + extractExpiration, each with a fresh key
+        for (int i = 0; i < 3; i++) {
+            Claims claims = Jwts.parserBuilder()
+                    .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            if (claims.getExpiration().before(new Date())) {
+                throw new IllegalStateException("expired");
+            }
+        }
+    }
+
+    private static CustomUserDetailsService.CustomUserPrincipal principal() {
+        return principal("cacheuser");
+    }
+
+    private static CustomUserDetailsService.CustomUserPrincipal principal(String username) {
+        User user = new User();
+        user.setId(42L);
+        user.setUsername(username);
+        user.setRole(UserRole.TELLER);
+        return new CustomUserDetailsService.CustomUserPrincipal(user);
+    }
+}
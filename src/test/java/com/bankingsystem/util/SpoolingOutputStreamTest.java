@@ -0,0 +1,71 @@
+package com.bankingsystem.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpoolingOutputStreamTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void smallOutputStaysInMemory() throws IOException {
+        byte[] content = randomBytes(1_000);
+        SpoolingOutputStream output = new SpoolingOutputStream(4_096, directory);
+        try (output) {
+            output.write(content);
+        }
+
+        assertFalse(output.isSpooled());
+        assertEquals(0, countFiles());
+        assertArrayEquals(content, readAll(output.toResource("small")));
+    }
+
+    @Test
+    void largeOutputSpoolsToFileDeletedAfterReading() throws IOException {
+        byte[] content = randomBytes(100_000);
+        SpoolingOutputStream output = new SpoolingOutputStream(4_096, directory);
+        try (output) {
+            output.write(content, 0, 3_000);
+            output.write(content[3_000]);
+            output.write(content, 3_001, content.length - 3_001);
+        }
+
+        assertTrue(output.isSpooled());
+        assertEquals(1, countFiles());
+        Resource resource = output.toResource("large");
+        assertEquals(content.length, resource.contentLength());
+        assertArrayEquals(content, readAll(resource));
+        assertEquals(0, countFiles());
+    }
+
+    private long countFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static byte[] readAll(Resource resource) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(3).nextBytes(bytes);
+        return bytes;
+    }
+}
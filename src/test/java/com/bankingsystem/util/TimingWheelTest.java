@@ -0,0 +1,51 @@
+package com.bankingsystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    private static final long TICK = 1_000L;
+
+    @Test
+    void valuesExpireOnTheirTickAcrossLevels() {
+        long start = 1_700_000_000_000L;
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, 2, start);
+        Random random = new Random(7);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            // Spread over both levels and the overflow list
+            long deadline = start + 1 + (long) random.nextInt(10_000) * TICK + random.nextInt((int) TICK);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        int expired = 0;
+        for (long now = start; expired < deadlines.size(); now += TICK) {
+            for (Long deadline : wheel.advance(now)) {
+                assertTrue(deadline <= now, "Expired early");
+                assertTrue(deadline > now - TICK, "Expired late");
+                expired++;
+            }
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlinesExpireOnNextAdvance() {
+        long start = 1_700_000_000_000L;
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 3, start);
+        wheel.schedule("late", start - 5 * TICK);
+        wheel.schedule("soon", start + TICK);
+
+        assertEquals(List.of("late"), wheel.advance(start));
+        assertEquals(List.of("soon"), wheel.advance(start + TICK));
+        assertEquals(List.of(), wheel.advance(start + 100 * TICK));
+    }
+}